@@ -0,0 +1,7 @@
+package objectOrientedProgram.StockAccountManagement.main.exceptions;
+
+public class InvalidAllocationException extends RuntimeException {
+    public InvalidAllocationException(String problems) {
+        super(problems);
+    }
+}
@@ -0,0 +1,7 @@
+package objectOrientedProgram.StockAccountManagement.main.exceptions;
+
+public class OrderRejectedException extends RuntimeException {
+    public OrderRejectedException(String problem) {
+        super(problem);
+    }
+}
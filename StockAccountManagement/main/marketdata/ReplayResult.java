@@ -0,0 +1,64 @@
+package objectOrientedProgram.StockAccountManagement.main.marketdata;
+
+// What a TickReplay read from a tick file and applied to a portfolio
+public class ReplayResult {
+    // Fields:
+    private final long ticks;
+    private final long skipped;
+    private final long invalidSymbols;
+    private final int batches;
+    private final long symbolUpdates;
+    private final long stockUpdates;
+    private final long lastTimestamp;
+
+    public ReplayResult(long ticks, long skipped, long invalidSymbols, int batches, long symbolUpdates,
+                        long stockUpdates, long lastTimestamp) {
+        this.ticks = ticks;
+        this.skipped = skipped;
+        this.invalidSymbols = invalidSymbols;
+        this.batches = batches;
+        this.symbolUpdates = symbolUpdates;
+        this.stockUpdates = stockUpdates;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    // Getters:
+
+    // EFFECTS: returns the number of ticks read
+    public long getTicks() {
+        return ticks;
+    }
+
+    // EFFECTS: returns the number of lines that were not ticks, such as a header or a tick with no valid price, plus
+    //          the number of prices not applied because they would make a stock worth more than can be held
+    public long getSkipped() {
+        return skipped;
+    }
+
+    // EFFECTS: returns the number of ticks that were not applied because their symbol is not one to five capital
+    //          letters, so it cannot be a stock in the portfolio
+    public long getInvalidSymbols() {
+        return invalidSymbols;
+    }
+
+    // EFFECTS: returns the number of batches the ticks were applied in
+    public int getBatches() {
+        return batches;
+    }
+
+    // EFFECTS: returns the number of prices applied once the ticks of each batch were conflated to the last price of
+    //          each symbol
+    public long getSymbolUpdates() {
+        return symbolUpdates;
+    }
+
+    // EFFECTS: returns the number of times the price of a stock in the portfolio was updated
+    public long getStockUpdates() {
+        return stockUpdates;
+    }
+
+    // EFFECTS: returns the timestamp of the last tick read, TickReplay.NO_TIMESTAMP if there were none
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+}
@@ -0,0 +1,353 @@
+package objectOrientedProgram.StockAccountManagement.main.marketdata;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Replays ticks recorded in a file into the prices of a portfolio's stocks. The file is text with one tick per line,
+//     timestamp,SYMBOL,price
+// where the timestamp is a whole number (milliseconds into the day, say) and the lines are in the order the ticks
+// happened. Lines that are not ticks, like a header or a price that is not a finite amount of money, are skipped
+// and counted, as are prices that would make a stock worth more than can be held. Ticks whose symbol is not a valid
+// ticker of one to five capital letters, which the symbol index cannot hold, are skipped too but counted on their own.
+//
+// The file is cut into chunks at line ends. Each chunk is memory-mapped and parsed on the pool into a batch that
+// keeps only the last two prices of each symbol in it, so a symbol that ticked a thousand times in a chunk is applied
+// once. Batches are applied in file order on the calling thread, each symbol through the symbol index with
+// Portfolio.updatePrice, which revalues only the stocks that moved, while the chunks after them are still being
+// parsed. After each batch the current and previous prices and the worth of every stock are as they would be had
+// every tick up to the end of that chunk been applied one by one.
+public class TickReplay {
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 22;
+    public static final long NO_TIMESTAMP = -1;
+    private static final int CHUNKS_PER_THREAD = 2;
+    private static final int SEARCH_BYTES = 256;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final int MAX_SYMBOL_LENGTH = 5;
+    private static final int LETTERS = 27;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15};
+
+    private final Portfolio portfolio;
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    public TickReplay(Portfolio portfolio) {
+        this(portfolio, ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    // REQUIRES: chunkBytes > 0
+    // EFFECTS: creates a replay into portfolio that parses chunks of about chunkBytes on pool. Smaller chunks apply
+    //          prices in more, smaller steps.
+    public TickReplay(Portfolio portfolio, ForkJoinPool pool, int chunkBytes) {
+        this.portfolio = portfolio;
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+
+    // MODIFIES: portfolio
+    // EFFECTS: applies every tick in file to the portfolio, batch by batch, and returns what was read and applied;
+    //          throws IOException if the file cannot be read
+    public ReplayResult replay(Path file) throws IOException {
+        return replay(file, null);
+    }
+
+    // MODIFIES: portfolio
+    // EFFECTS: same as replay(file), running afterBatch, if not null, on the calling thread after each batch has been
+    //          applied, for example to record the value of the portfolio through the day
+    public ReplayResult replay(Path file, Runnable afterBatch) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            int chunks = bounds.length - 1;
+            int window = Math.max(pool.getParallelism(), 1) * CHUNKS_PER_THREAD;
+            ArrayDeque<ForkJoinTask<PriceBatch>> parsing = new ArrayDeque<>(window);
+            long ticks = 0;
+            long skipped = 0;
+            long invalidSymbols = 0;
+            long symbolUpdates = 0;
+            long stockUpdates = 0;
+            long lastTimestamp = NO_TIMESTAMP;
+
+            try {
+                int submitted = 0;
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    while (submitted < chunks && parsing.size() < window) {
+                        long from = bounds[submitted];
+                        long to = bounds[submitted + 1];
+                        parsing.add(pool.submit(() -> parse(channel, from, to)));
+                        submitted++;
+                    }
+
+                    PriceBatch batch = parsing.remove().join();
+                    stockUpdates += batch.applyTo(portfolio);
+                    ticks += batch.ticks;
+                    skipped += batch.skipped;
+                    invalidSymbols += batch.invalidSymbols;
+                    symbolUpdates += batch.size;
+                    if (batch.lastTimestamp != NO_TIMESTAMP) {
+                        lastTimestamp = batch.lastTimestamp;
+                    }
+                    if (afterBatch != null) {
+                        afterBatch.run();
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                for (ForkJoinTask<PriceBatch> task : parsing) {
+                    task.cancel(false);
+                }
+            }
+            return new ReplayResult(ticks, skipped, invalidSymbols, chunks, symbolUpdates, stockUpdates,
+                    lastTimestamp);
+        }
+    }
+
+    // EFFECTS: returns the offsets the file is cut at, from 0 to its size, each just after a line end and about
+    //          chunkBytes after the one before; throws IOException if the file cannot be read
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[(int) Math.min(size / chunkBytes + 2, Integer.MAX_VALUE - 8)];
+        int count = 1;
+        ByteBuffer search = ByteBuffer.allocate(SEARCH_BYTES);
+        long bound = 0;
+        while (bound < size) {
+            bound = lineEndAfter(channel, Math.min(bound + chunkBytes, size), size, search);
+            if (count == bounds.length) {
+                bounds = Arrays.copyOf(bounds, count * 2);
+            }
+            bounds[count++] = bound;
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    // EFFECTS: returns the offset just after the first line end at or after position - 1, size if there is none
+    private static long lineEndAfter(FileChannel channel, long position, long size, ByteBuffer search)
+            throws IOException {
+        long offset = position - 1;
+        while (offset < size) {
+            search.clear();
+            int read = channel.read(search, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (search.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    // EFFECTS: maps the bytes of the file in [from, to) and returns the ticks in them conflated to the last price of
+    //          each symbol
+    private static PriceBatch parse(FileChannel channel, long from, long to) {
+        ByteBuffer bytes;
+        try {
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        PriceBatch batch = new PriceBatch();
+        int end = bytes.limit();
+        int start = 0;
+        while (start < end) {
+            int lineEnd = start;
+            while (lineEnd < end && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            parseLine(bytes, start, lineEnd > start && bytes.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd,
+                    batch);
+            start = lineEnd + 1;
+        }
+        return batch;
+    }
+
+    // MODIFIES: batch
+    // EFFECTS: adds the tick on the line in [start, end) of bytes to batch, counts it as an invalid symbol if its
+    //          symbol is not a valid ticker, or as skipped if it is not a tick; blank lines are ignored
+    private static void parseLine(ByteBuffer bytes, int start, int end, PriceBatch batch) {
+        if (start == end) {
+            return;
+        }
+        int i = start;
+        long timestamp = 0;
+        while (i < end && isDigit(bytes.get(i))) {
+            timestamp = timestamp * 10 + (bytes.get(i) - '0');
+            i++;
+        }
+        if (i == start || i == end || bytes.get(i) != ',') {
+            batch.skipped++;
+            return;
+        }
+
+        int symbolStart = ++i;
+        int code = 0;
+        while (i < end && bytes.get(i) >= 'A' && bytes.get(i) <= 'Z') {
+            code = code * LETTERS + (bytes.get(i) - 'A' + 1);
+            i++;
+        }
+        int length = i - symbolStart;
+        if (length == 0 || length > MAX_SYMBOL_LENGTH || i == end || bytes.get(i) != ',') {
+            while (i < end && bytes.get(i) != ',') {
+                i++;
+            }
+            if (i == end) {
+                batch.skipped++;
+            } else {
+                batch.invalidSymbols++;
+            }
+            return;
+        }
+
+        double price = parsePrice(bytes, i + 1, end);
+        if (!(price >= 0) || !Money.canHold(price)) {
+            batch.skipped++;
+            return;
+        }
+        batch.put(code, price, timestamp);
+    }
+
+    // EFFECTS: returns the decimal number in [start, end) of bytes, NaN if it is not one
+    private static double parsePrice(ByteBuffer bytes, int start, int end) {
+        long digits = 0;
+        int count = 0;
+        int decimals = -1;
+        for (int i = start; i < end; i++) {
+            byte c = bytes.get(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (isDigit(c) && count < MAX_FAST_DIGITS) {
+                digits = digits * 10 + (c - '0');
+                count++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return parseSlowly(bytes, start, end);
+            }
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return decimals > 0 ? digits / POWERS_OF_TEN[decimals] : digits;
+    }
+
+    // EFFECTS: returns the number in [start, end) of bytes as Double.parseDouble reads it, NaN if it is not one
+    private static double parseSlowly(ByteBuffer bytes, int start, int end) {
+        byte[] text = new byte[end - start];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = bytes.get(start + i);
+        }
+        try {
+            return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // The last price of each symbol in one chunk of ticks, and the one before it (NaN if the symbol ticked once), in
+    // an open addressing table keyed by the symbol's code (see SymbolIndex.encode), which is never 0 for a symbol of at
+    // least one letter
+    private static final class PriceBatch {
+        private static final int EMPTY = 0;
+
+        private int[] codes = new int[64];
+        private double[] prices = new double[64];
+        private double[] previousPrices = new double[64];
+        private int size;
+        private int shift = 32 - 6;
+        private long ticks;
+        private long skipped;
+        private long invalidSymbols;
+        private long lastTimestamp = NO_TIMESTAMP;
+
+        // MODIFIES: this
+        // EFFECTS: records a tick, making price the last price of the symbol that encodes to code
+        private void put(int code, double price, long timestamp) {
+            int slot = find(code);
+            if (codes[slot] == EMPTY) {
+                codes[slot] = code;
+                previousPrices[slot] = Double.NaN;
+                size++;
+            } else {
+                previousPrices[slot] = prices[slot];
+            }
+            prices[slot] = price;
+            ticks++;
+            lastTimestamp = timestamp;
+            if (size * 2 > codes.length) {
+                resize();
+            }
+        }
+
+        // MODIFIES: this, portfolio
+        // EFFECTS: updates every stock of portfolio to the last price of its symbol, if it has one here, with the
+        //          price before it as the previous price if the symbol ticked more than once, and returns how many
+        //          stocks were updated. A price that would make a stock worth more than can be held is counted as
+        //          skipped instead.
+        private long applyTo(Portfolio portfolio) {
+            long updated = 0;
+            for (int slot = 0; slot < codes.length; slot++) {
+                if (codes[slot] != EMPTY) {
+                    try {
+                        updated += Double.isNaN(previousPrices[slot])
+                                ? portfolio.updatePrice(codes[slot], prices[slot])
+                                : portfolio.updatePrice(codes[slot], previousPrices[slot], prices[slot]);
+                    } catch (ArithmeticException e) {
+                        skipped++;
+                    }
+                }
+            }
+            return updated;
+        }
+
+        // EFFECTS: returns the slot holding code, or the empty slot where it would go
+        private int find(int code) {
+            int mask = codes.length - 1;
+            int slot = (code * 0x9E3779B9) >>> shift;
+            while (codes[slot] != EMPTY && codes[slot] != code) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: doubles the table and puts every symbol back in it
+        private void resize() {
+            int[] oldCodes = codes;
+            double[] oldPrices = prices;
+            double[] oldPreviousPrices = previousPrices;
+            codes = new int[oldCodes.length * 2];
+            prices = new double[oldCodes.length * 2];
+            previousPrices = new double[oldCodes.length * 2];
+            shift--;
+            for (int i = 0; i < oldCodes.length; i++) {
+                if (oldCodes[i] != EMPTY) {
+                    int slot = find(oldCodes[i]);
+                    codes[slot] = oldCodes[i];
+                    prices[slot] = oldPrices[i];
+                    previousPrices[slot] = oldPreviousPrices[i];
+                }
+            }
+        }
+    }
+}
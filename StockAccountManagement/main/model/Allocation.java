@@ -0,0 +1,124 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.InvalidAllocationException;
+
+import java.util.Arrays;
+
+// Amounts to invest in the stocks of one portfolio, built up and checked entry by entry and then applied all at once
+// with Portfolio.applyAllocation. Stocks that are given no amount are left as they are.
+public class Allocation {
+    // The amount in micro-units of a stock that was given no amount
+    public static final long UNALLOCATED = Long.MIN_VALUE;
+
+    private static final int LOWEST_RISK = 1;
+    private static final int HIGHEST_RISK = 5;
+
+    // Fields:
+    private final Portfolio portfolio;
+    private final long[] amounts;
+    private long total;
+    private int count;
+
+    // EFFECTS: creates an empty allocation for the stocks currently in portfolio
+    public Allocation(Portfolio portfolio) {
+        this.portfolio = portfolio;
+        this.amounts = new long[portfolio.size()];
+        Arrays.fill(amounts, UNALLOCATED);
+    }
+
+    // EFFECTS: returns an allocation that splits total evenly over every stock in portfolio
+    //          throws InvalidAllocationException if total is negative, not a number or too large to hold
+    public static Allocation equalWeight(Portfolio portfolio, double total) {
+        Allocation allocation = new Allocation(portfolio);
+        int size = allocation.amounts.length;
+        for (int slot = 0; slot < size; slot++) {
+            allocation.allocate(portfolio.getStock(slot), total / size);
+        }
+        return allocation;
+    }
+
+    // EFFECTS: returns an allocation that splits total over every stock in portfolio, weighted towards safer stocks:
+    //          a risk 1 stock gets five parts, a risk 5 stock one part.
+    //          throws InvalidAllocationException if total is negative, not a number or too large to hold
+    public static Allocation byRisk(Portfolio portfolio, double total) {
+        Allocation allocation = new Allocation(portfolio);
+        double parts = 0;
+        for (int slot = 0; slot < portfolio.size(); slot++) {
+            parts += riskWeight(portfolio.getStock(slot));
+        }
+        for (int slot = 0; slot < portfolio.size(); slot++) {
+            Stock stock = portfolio.getStock(slot);
+            allocation.allocate(stock, total * riskWeight(stock) / parts);
+        }
+        return allocation;
+    }
+
+    // Getters:
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    public double getTotal() {
+        return Money.toDouble(total);
+    }
+
+    // EFFECTS: returns the total allocated in micro-units
+    public long getTotalMoney() {
+        return total;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int size() {
+        return amounts.length;
+    }
+
+    // REQUIRES: 0 <= slot < size()
+    // EFFECTS: returns the amount allocated to the stock at slot, NaN if it was given none
+    public double getAmount(int slot) {
+        return amounts[slot] == UNALLOCATED ? Double.NaN : Money.toDouble(amounts[slot]);
+    }
+
+    // REQUIRES: 0 <= slot < size()
+    // EFFECTS: returns the amount allocated to the stock at slot in micro-units, UNALLOCATED if it was given none
+    public long getAmountMoney(int slot) {
+        return amounts[slot];
+    }
+
+    // Methods:
+
+    // MODIFIES: this
+    // EFFECTS: allocates amount to stock
+    //          throws InvalidAllocationException if stock is not in the portfolio, already has an amount, or amount
+    //          is negative, not a number or too large to hold
+    public void allocate(Stock stock, double amount) {
+        if (stock.owner != portfolio || stock.slot >= amounts.length) {
+            throw new InvalidAllocationException(stock.getSymbol() + " is not in the portfolio");
+        }
+        if (amounts[stock.slot] != UNALLOCATED) {
+            throw new InvalidAllocationException(stock.getSymbol() + " is allocated more than once");
+        }
+        if (!(amount >= 0) || Double.isInfinite(amount)) {
+            throw new InvalidAllocationException("cannot invest " + amount + " in " + stock.getSymbol());
+        }
+        long money;
+        long newTotal;
+        try {
+            money = Money.of(amount);
+            newTotal = Money.add(total, money);
+        } catch (ArithmeticException e) {
+            throw new InvalidAllocationException("cannot invest " + amount + " in " + stock.getSymbol());
+        }
+        amounts[stock.slot] = money;
+        total = newTotal;
+        count++;
+    }
+
+    // EFFECTS: returns how many parts of a by risk allocation stock gets
+    private static int riskWeight(Stock stock) {
+        int risk = Math.max(LOWEST_RISK, Math.min(stock.getRisk(), HIGHEST_RISK));
+        return HIGHEST_RISK + 1 - risk;
+    }
+}
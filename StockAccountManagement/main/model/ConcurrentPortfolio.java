@@ -0,0 +1,212 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// A portfolio that many trading threads can deposit into, buy into and sell from at once. The balance is held in
+// micro-units (see Money) and updated with compare-and-swap, so a buy can never overdraw it, and the value invested is a
+// LongAdder that threads add to without contending. Stocks are kept in a concurrent map from symbol to the stocks
+// holding it, in the order they were added; each symbol is guarded by one of a fixed set of locks picked by its hash,
+// so threads trading different symbols rarely wait for each other. A symbol's list is kept once it is empty, so
+// trading in and out of a symbol does not keep adding and removing it from the map.
+//
+// A stock held here must not be changed except by selling it; toPortfolio gives copies that can be.
+public class ConcurrentPortfolio {
+    private static final int STRIPES_PER_CORE = 4;
+
+    // Fields:
+    private final AtomicLong balance;
+    private final LongAdder value;
+    private final LongAdder count;
+    private final ConcurrentHashMap<String, ArrayList<Stock>> positions;
+    private final Object[] locks;
+
+    public ConcurrentPortfolio() {
+        this(0);
+    }
+
+    // REQUIRES: balance >= 0
+    public ConcurrentPortfolio(double balance) {
+        this.balance = new AtomicLong(Money.of(balance));
+        this.value = new LongAdder();
+        this.count = new LongAdder();
+        this.positions = new ConcurrentHashMap<>();
+        this.locks = new Object[Integer.highestOneBit(Runtime.getRuntime().availableProcessors()
+                * STRIPES_PER_CORE * 2 - 1)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // Getters:
+
+    public double getBalance() {
+        return Money.toDouble(balance.get());
+    }
+
+    // EFFECTS: returns the worth of every stock held, as it was when the stock was added
+    public double getValueCurrentlyInvested() {
+        return Money.toDouble(value.sum());
+    }
+
+    // EFFECTS: returns the number of stocks held
+    public int size() {
+        return count.intValue();
+    }
+
+    // EFFECTS: returns a copy of the list of stocks holding symbol, in the order they were added
+    public List<Stock> getStocks(String symbol) {
+        synchronized (lockFor(symbol)) {
+            ArrayList<Stock> stocks = positions.get(symbol);
+            return stocks == null ? new ArrayList<>() : new ArrayList<>(stocks);
+        }
+    }
+
+    // Methods:
+
+    // REQUIRES: amount >= 0
+    // MODIFIES: this
+    // EFFECTS: adds amount to the balance
+    public void deposit(double amount) {
+        balance.addAndGet(Money.of(amount));
+    }
+
+    // REQUIRES: amount >= 0
+    // MODIFIES: this
+    // EFFECTS: takes amount from the balance even if that leaves it negative, as Portfolio.subtractBalance does
+    public void subtractBalance(double amount) {
+        balance.addAndGet(-Money.of(amount));
+    }
+
+    // REQUIRES: amount >= 0
+    // MODIFIES: this
+    // EFFECTS: takes amount from the balance and returns true, or returns false and changes nothing if the balance
+    //          is less than amount
+    public boolean withdraw(double amount) {
+        return withdrawMoney(Money.of(amount));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds stock after the others with its symbol and adds its worth to the value currently invested,
+    //          without touching the balance
+    public void addStock(Stock stock) {
+        synchronized (lockFor(stock.getSymbol())) {
+            add(stock);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pays for stock out of the balance and adds it, returning true; returns false and changes nothing if
+    //          the balance is less than its worth
+    public boolean buyStock(Stock stock) {
+        synchronized (lockFor(stock.getSymbol())) {
+            if (!withdrawMoney(stock.getCurrentInvestmentWorthMoney())) {
+                return false;
+            }
+            add(stock);
+            return true;
+        }
+    }
+
+    // MODIFIES: this, stock
+    // EFFECTS: removes stock, adds its worth to the balance and sets its worth to 0, returning true;
+    //          returns false and changes nothing if stock is not held here (for example if another thread sold it)
+    public boolean sellStock(Stock stock) {
+        String symbol = stock.getSymbol();
+        synchronized (lockFor(symbol)) {
+            ArrayList<Stock> stocks = positions.get(symbol);
+            int index = stocks == null ? -1 : indexOf(stocks, stock);
+            if (index < 0) {
+                return false;
+            }
+            stocks.remove(index);
+            long worth = stock.getCurrentInvestmentWorthMoney();
+            value.add(-worth);
+            count.decrement();
+            balance.addAndGet(worth);
+            stock.setCurrentInvestmentWorth(0);
+            return true;
+        }
+    }
+
+    // EFFECTS: returns the first stock added that matches the ticker, null if there is none
+    public Stock checkForTicker(String ticker) {
+        synchronized (lockFor(ticker)) {
+            ArrayList<Stock> stocks = positions.get(ticker);
+            return stocks == null || stocks.isEmpty() ? null : stocks.get(0);
+        }
+    }
+
+    // EFFECTS: returns a Portfolio with the balance, value invested and a copy of every stock held here, taken while
+    //          no stock is bought or sold, so the totals and the stocks agree. Stocks with the same symbol keep their
+    //          order; the order between symbols is not kept.
+    public Portfolio toPortfolio() {
+        return toPortfolio(0);
+    }
+
+    // EFFECTS: returns the first index of stock itself in stocks, -1 if it is not there
+    private static int indexOf(List<Stock> stocks, Stock stock) {
+        for (int i = 0; i < stocks.size(); i++) {
+            if (stocks.get(i) == stock) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: holds locks from stripe on while the copy is made, so no stock moves in or out in the meantime
+    private Portfolio toPortfolio(int stripe) {
+        if (stripe < locks.length) {
+            synchronized (locks[stripe]) {
+                return toPortfolio(stripe + 1);
+            }
+        }
+        Portfolio portfolio = Portfolio.ofMoney(balance.get(), value.sum());
+        for (Map.Entry<String, ArrayList<Stock>> entry : positions.entrySet()) {
+            for (Stock stock : entry.getValue()) {
+                portfolio.loadStock(Stock.ofMoney(stock.getSymbol(), stock.getStockPriceCurrent(),
+                        stock.getStockPricePrevious(), stock.getCurrentInvestmentWorthMoney(),
+                        stock.getInitialInvestmentMoney(), stock.getSharesBought(), stock.getDaysToInvest(),
+                        stock.getRisk(), stock.getMarketCapMoney()));
+            }
+        }
+        return portfolio;
+    }
+
+    // REQUIRES: the lock for the symbol of stock is held
+    // MODIFIES: this
+    // EFFECTS: adds stock to the end of its symbol's list and counts its worth
+    private void add(Stock stock) {
+        ArrayList<Stock> stocks = positions.get(stock.getSymbol());
+        if (stocks == null) {
+            stocks = new ArrayList<>(1);
+            positions.put(stock.getSymbol(), stocks);
+        }
+        stocks.add(stock);
+        value.add(stock.getCurrentInvestmentWorthMoney());
+        count.increment();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes amount micro-units from the balance and returns true unless that would leave it negative
+    private boolean withdrawMoney(long amount) {
+        long current;
+        do {
+            current = balance.get();
+            if (current < amount) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - amount));
+        return true;
+    }
+
+    // EFFECTS: returns the lock guarding the stocks with symbol
+    private Object lockFor(String symbol) {
+        int hash = symbol.hashCode();
+        return locks[(hash ^ hash >>> 16) & (locks.length - 1)];
+    }
+}
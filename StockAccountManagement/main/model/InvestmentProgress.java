@@ -0,0 +1,13 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+public interface InvestmentProgress {
+    // EFFECTS: called after each stock has been invested, with how many of the total stocks are done
+    void stockInvested(int done, int total);
+
+    // EFFECTS: called every Stock.DAYS_PER_CHECK days while a stock is invested, with how many of its days are done
+    void daysInvested(int done, int days);
+
+    // EFFECTS: returns true if the remaining stocks, and the remaining days of the stock being invested, should not
+    //          be invested
+    boolean shouldStop();
+}
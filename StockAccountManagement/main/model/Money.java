@@ -0,0 +1,132 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amounts of money held as a whole number of micro-units, millionths of a dollar, in a long. Adding and subtracting
+// them is exact and throws instead of overflowing, so totals kept up to date one change at a time never drift from
+// the sum of their parts, and they can be stored in long arrays and updated atomically. Amounts up to about
+// 9.2 trillion dollars either way can be held.
+//
+// Dollars come in and go out as doubles at the edges (user input, prices times shares, the simulation); everything
+// kept or saved is in micro-units.
+public class Money {
+    public static final long UNIT = 1_000_000;
+    public static final int DECIMALS = 6;
+
+    private static final double LIMIT = Long.MAX_VALUE / (double) UNIT;
+    private static final int MAX_FAST_DIGITS = 18;
+
+    // EFFECTS: returns amount dollars in micro-units, rounded to the nearest;
+    //          throws ArithmeticException if amount is not a number or too large to hold
+    public static long of(double amount) {
+        if (!(Math.abs(amount) < LIMIT)) {
+            throw new ArithmeticException("cannot hold $" + amount);
+        }
+        return Math.round(amount * UNIT);
+    }
+
+    // EFFECTS: returns true if amount dollars can be held, so of(amount) does not throw
+    public static boolean canHold(double amount) {
+        return Math.abs(amount) < LIMIT;
+    }
+
+    // EFFECTS: returns money in dollars, the nearest double to it
+    public static double toDouble(long money) {
+        return money / (double) UNIT;
+    }
+
+    // EFFECTS: returns a + b; throws ArithmeticException if it overflows
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    // EFFECTS: returns a - b; throws ArithmeticException if it overflows
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    // EFFECTS: returns the sum of amounts; throws ArithmeticException if it overflows
+    public static long sum(long[] amounts) {
+        long sum = 0;
+        for (long amount : amounts) {
+            sum = Math.addExact(sum, amount);
+        }
+        return sum;
+    }
+
+    // EFFECTS: returns money times factor, rounded to the nearest micro-unit, for example a worth times a change in
+    //          price; throws ArithmeticException if the result is not a number or too large to hold
+    public static long multiply(long money, double factor) {
+        return of(toDouble(money) * factor);
+    }
+
+    // EFFECTS: returns money as a plain decimal number of dollars with as few decimals as it needs, but at least one,
+    //          like Double.toString without the exponent: 500.43, -0.000001, 10000000.0
+    public static String toString(long money) {
+        long whole = Math.abs(money / UNIT);
+        long fraction = Math.abs(money % UNIT);
+        int decimals = DECIMALS;
+        while (decimals > 1 && fraction % 10 == 0) {
+            fraction /= 10;
+            decimals--;
+        }
+        StringBuilder text = new StringBuilder(24);
+        if (money < 0) {
+            text.append('-');
+        }
+        text.append(whole).append('.');
+        String digits = Long.toString(fraction);
+        for (int i = digits.length(); i < decimals; i++) {
+            text.append('0');
+        }
+        return text.append(digits).toString();
+    }
+
+    // EFFECTS: returns the decimal number of dollars text in micro-units, exactly, rounding any digits past the sixth
+    //          decimal half up. Accepts anything Double.parseDouble does for a finite decimal, such as 1.0E7.
+    //          throws NumberFormatException if text is not a number and ArithmeticException if it is too large
+    public static long parse(String text) {
+        long money = parseFast(text);
+        if (money != Long.MIN_VALUE) {
+            return money;
+        }
+        BigDecimal dollars = new BigDecimal(text.trim());
+        return dollars.movePointRight(DECIMALS).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // EFFECTS: returns text in micro-units if it is a plain decimal with at most DECIMALS decimals that takes at most
+    //          MAX_FAST_DIGITS digits in micro-units, otherwise Long.MIN_VALUE
+    private static long parseFast(String text) {
+        int i = 0;
+        boolean negative = i < text.length() && text.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9' && digits < MAX_FAST_DIGITS && decimals < DECIMALS) {
+                value = value * 10 + (c - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return Long.MIN_VALUE;
+            }
+        }
+        int scale = Math.max(decimals, 0);
+        if (digits == 0 || digits + DECIMALS - scale > MAX_FAST_DIGITS) {
+            return Long.MIN_VALUE;
+        }
+        for (; scale < DECIMALS; scale++) {
+            value *= 10;
+        }
+        return negative ? -value : value;
+    }
+}
@@ -1,68 +1,191 @@
 package objectOrientedProgram.StockAccountManagement.main.model;
 
 import objectOrientedProgram.StockAccountManagement.main.persistance.Writable;
+import objectOrientedProgram.StockAccountManagement.main.exceptions.InvalidAllocationException;
 import objectOrientedProgram.StockAccountManagement.main.exceptions.NegativeDoubleException;
 import objectOrientedProgram.StockAccountManagement.main.exceptions.NegativeIntException;
+import objectOrientedProgram.StockAccountManagement.main.simulation.MonteCarloSimulator;
+import objectOrientedProgram.StockAccountManagement.main.simulation.RiskReport;
+import objectOrientedProgram.StockAccountManagement.main.simulation.SimulationResult;
+import objectOrientedProgram.StockAccountManagement.main.simulation.SplittableRandomSource;
 import objectOrientedProgram.StockAccountManagement.test.model.JSONArray;
 import objectOrientedProgram.StockAccountManagement.test.model.JSONObject;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.function.Predicate;
 
+// The balance and the value currently invested are kept in micro-units (see Money), so the value can be kept up to
+// date one change at a time and always equals the sum of the worths of the stocks exactly.
 public class Portfolio implements Writable {
     // Fields:
-    private double balance;
-    private double valueCurrentlyInvested;
+    private long balance;
+    private long valueCurrentlyInvested;
+    private long modifications;
+    private final SymbolIndex symbolIndex;
+    private PortfolioListener listener;
+    private PriceUpdateBus priceBus;
+    private StockSource source;
+    private HashSet<String> loadedSymbols;
+    private int unloaded;
+    private int unindexed;
     ArrayList<Stock> portfolio;
 
     public Portfolio() {
-        this.balance = 0.00;
-        this.valueCurrentlyInvested = 0.00;
+        this.balance = 0;
+        this.valueCurrentlyInvested = 0;
         portfolio = new ArrayList<>();
+        symbolIndex = new SymbolIndex();
     }
 
     public Portfolio(double balance, double valueCurrentlyInvested) {
-        this.balance = balance;
-        this.valueCurrentlyInvested = valueCurrentlyInvested;
-        portfolio = new ArrayList<>();
+        this();
+        this.balance = Money.of(balance);
+        this.valueCurrentlyInvested = Money.of(valueCurrentlyInvested);
+    }
+
+    // EFFECTS: returns an empty portfolio with a balance and value currently invested given in micro-units
+    public static Portfolio ofMoney(long balance, long valueCurrentlyInvested) {
+        Portfolio portfolio = new Portfolio();
+        portfolio.balance = balance;
+        portfolio.valueCurrentlyInvested = valueCurrentlyInvested;
+        return portfolio;
+    }
+
+    // EFFECTS: returns a portfolio holding the stocks of source, decoding each one only when it is first needed.
+    //          Until then it takes no more memory than an empty slot in the list
+    public static Portfolio ofMoney(long balance, long valueCurrentlyInvested, StockSource source) {
+        Portfolio portfolio = ofMoney(balance, valueCurrentlyInvested);
+        if (source.size() > 0) {
+            portfolio.source = source;
+            portfolio.loadedSymbols = new HashSet<>();
+            portfolio.unloaded = source.size();
+            portfolio.unindexed = source.size();
+            portfolio.portfolio.addAll(Collections.nCopies(source.size(), null));
+        }
+        return portfolio;
     }
 
     // Getters:
     public double getValueCurrentlyInvested() {
 
-        return valueCurrentlyInvested;
+        return Money.toDouble(valueCurrentlyInvested);
     }
 
     public double getBalance() {
 
-        return this.balance;
+        return Money.toDouble(this.balance);
     }
 
-    public ArrayList<Stock> getPortfolioList() {
+    // EFFECTS: returns the value currently invested in micro-units
+    public long getValueCurrentlyInvestedMoney() {
+        return valueCurrentlyInvested;
+    }
+
+    // EFFECTS: returns the balance in micro-units
+    public long getBalanceMoney() {
+        return balance;
+    }
 
+    // MODIFIES: this
+    // EFFECTS: returns the stocks of this portfolio, first decoding every one not loaded yet, so on a portfolio opened
+    //          lazily (see SnapshotReader.readLazily) this costs as much time and memory as reading it eagerly. To
+    //          reach only some of the stocks use size() and getStock(slot) instead. Add and sell stocks through the
+    //          portfolio, not the list, so the symbol index stays up to date.
+    public ArrayList<Stock> getPortfolioList() {
+        ensureLoaded();
         return this.portfolio;
     }
 
+    public PriceUpdateBus getPriceBus() {
+        return priceBus;
+    }
+
+    // EFFECTS: returns the number of stocks in this portfolio, without loading any
+    public int size() {
+        return portfolio.size();
+    }
+
+    // REQUIRES: 0 <= slot < size()
+    // MODIFIES: this
+    // EFFECTS: returns the stock at slot, decoding it if not loaded yet
+    public Stock getStock(int slot) {
+        Stock stock = portfolio.get(slot);
+        return stock != null ? stock : loadRow(slot);
+    }
+
+    // EFFECTS: returns the number of stocks that have been decoded, which is all of them unless this portfolio
+    //          was created over a StockSource
+    public int getLoadedCount() {
+        return portfolio.size() - unloaded;
+    }
+
+    // EFFECTS: returns a count that grows with every change made to this portfolio since it was created or loaded,
+    //          so a caller can tell whether it, or any one of its stocks, changed since it last looked
+    public long getModificationCount() {
+        return modifications;
+    }
+
     public String getStocksAsString() {
-        String stockString = "<html>";
+        StringBuilder stockString = new StringBuilder("<html>");
 
-        for (Stock stock : portfolio) {
-            stockString = stockString + "Stock: " + stock.getSymbol() + "<br/>";
-            stockString = stockString + "Current Stock Price: $" + stock.getStockPriceCurrent() + "<br/>";
-            stockString = stockString + "Stock Price Before Investing: $" + stock.getStockPricePrevious() + "<br/>";
-            stockString = stockString + "Current Amount Invested: $" + stock.getCurrentInvestmentWorth() + "<br/>";
-            stockString = stockString + "Initial Invested Amount: $" + stock.getInitialInvestment() + "<br/>";
-            stockString = stockString + "Amount of Shares: " + stock.getSharesBought() + "<br/>";
-            stockString = stockString + "Stock Risk (1-5): " + stock.getRisk() + "<br/>";
-            stockString = stockString + "Market Cap: $" + stock.getMarketCap() + "<br/><br/><br/>";
+        try {
+            appendStocks(stockString, 0, portfolio.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stockString.append("</html>").toString();
+    }
+
+    // REQUIRES: 0 <= from <= to <= number of stocks
+    // MODIFIES: out
+    // EFFECTS: writes the html description of the stocks in [from, to) to out, one field per line, without
+    //          building any intermediate strings; throws IOException if out cannot be written to
+    public void appendStocks(Appendable out, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            Stock stock = getStock(i);
+            out.append("Stock: ").append(stock.getSymbol()).append("<br/>");
+            out.append("Current Stock Price: $").append(String.valueOf(stock.getStockPriceCurrent())).append("<br/>");
+            out.append("Stock Price Before Investing: $").append(String.valueOf(stock.getStockPricePrevious()))
+                    .append("<br/>");
+            out.append("Current Amount Invested: $").append(String.valueOf(stock.getCurrentInvestmentWorth()))
+                    .append("<br/>");
+            out.append("Initial Invested Amount: $").append(String.valueOf(stock.getInitialInvestment()))
+                    .append("<br/>");
+            out.append("Amount of Shares: ").append(String.valueOf(stock.getSharesBought())).append("<br/>");
+            out.append("Stock Risk (1-5): ").append(String.valueOf(stock.getRisk())).append("<br/>");
+            out.append("Market Cap: $").append(String.valueOf(stock.getMarketCap())).append("<br/><br/><br/>");
         }
-        return stockString + "</html>";
     }
 
     // Setters:
 
+    // EFFECTS: sets the balance to balance dollars; throws ArithmeticException if it is not a number or too large
+    //          to hold
     public void setBalance(double balance) {
 
+        setBalanceMoney(Money.of(balance));
+    }
+
+    // EFFECTS: sets the balance to balance micro-units
+    public void setBalanceMoney(long balance) {
         this.balance = balance;
+        balanceChanged();
+    }
+
+    // EFFECTS: sets who is told about every change to this portfolio, null for no one
+    public void setListener(PortfolioListener listener) {
+        this.listener = listener;
+    }
+
+    // EFFECTS: sets the bus every change to the price or worth of this portfolio's stocks is published on, unless a
+    //          stock has a bus of its own; null to publish nothing
+    public void setPriceBus(PriceUpdateBus priceBus) {
+        this.priceBus = priceBus;
     }
 
     // Methods:
@@ -71,40 +194,114 @@ public class Portfolio implements Writable {
     // REQUIRES: amount >= 0
     // MODIFIES: this
     // EFFECTS: add the amount inputted onto the current portfolio balance
+    //          throws ArithmeticException if amount is not a number or too large to hold
     public void deposit(double amount) {
 
-        this.balance += amount;
+        this.balance = Money.add(balance, Money.of(amount));
+        balanceChanged();
     }
 
     // REQUIRES: positive amount
     // MODIFIES: this
     // EFFECTS: subtract the amount inputted onto the current portfolio balance
+    //          throws ArithmeticException if amount is not a number or too large to hold
     public void subtractBalance(double amount) {
 
-        this.balance -= amount;
+        this.balance = Money.subtract(balance, Money.of(amount));
+        balanceChanged();
     }
 
 
-    // MODIFIES: this
-    // EFFECTS: add a new stock to the portfolio arraylist
+    // MODIFIES: this, stock
+    // EFFECTS: add a new stock to the portfolio arraylist and adds its worth to the value currently invested
     public void addStock(Stock stock) {
+        loadSymbol(stock.getSymbol());
+        stock.slot = portfolio.size();
+        this.portfolio.add(stock);
+        stock.owner = this;
+        symbolIndex.add(stock);
+
+        investmentWorthChanged(stock.getCurrentInvestmentWorthMoney());
+        stock.lastModified = ++modifications;
+        if (listener != null) {
+            listener.stockAdded(stock);
+        }
+    }
 
+    // REQUIRES: the value currently invested this portfolio was created with already includes the stock's worth
+    // MODIFIES: this, stock
+    // EFFECTS: adds a stock restored from a saved portfolio without counting its worth a second time
+    public void loadStock(Stock stock) {
+        loadSymbol(stock.getSymbol());
+        stock.slot = portfolio.size();
         this.portfolio.add(stock);
+        stock.owner = this;
+        symbolIndex.add(stock);
+    }
+
+    // EFFECTS: returns a copy of this portfolio with a copy of every stock, which later changes to either do not
+    //          affect
+    public Portfolio copy() {
+        ensureLoaded();
+        Portfolio copy = ofMoney(balance, valueCurrentlyInvested);
+        copy.portfolio.ensureCapacity(portfolio.size());
+        for (Stock stock : portfolio) {
+            copy.loadStock(Stock.ofMoney(stock.getSymbol(), stock.getStockPriceCurrent(),
+                    stock.getStockPricePrevious(), stock.getCurrentInvestmentWorthMoney(),
+                    stock.getInitialInvestmentMoney(), stock.getSharesBought(), stock.getDaysToInvest(),
+                    stock.getRisk(), stock.getMarketCapMoney()));
+        }
+        return copy;
     }
 
     // MODIFIES: this
-    // EFFECTS: adds up each invested amount of each stock in a portfolio
+    // EFFECTS: adds up each invested amount of each stock in a portfolio. The value is kept up to date exactly as
+    //          stocks change, so this is only needed for a portfolio loaded with a value that does not match
     public void updateValue() {
-        this.valueCurrentlyInvested = 0;
-        for (Stock i : this.portfolio) {
-            this.valueCurrentlyInvested += i.getCurrentInvestmentWorth();
+        long value = 0;
+        for (int i = 0; i < portfolio.size(); i++) {
+            Stock stock = portfolio.get(i);
+            value = Money.add(value, stock != null ? stock.getCurrentInvestmentWorthMoney()
+                    : source.getInvestmentWorth(i));
         }
+        this.valueCurrentlyInvested = value;
     }
 
     // MODIFIES: this
-    // EFFECTS: sets the number of days to invest each stock. Individually invest all stock and then update
-    // the total value currently invested in all stocks
+    // EFFECTS: adjusts the value currently invested by the change in worth, in micro-units, of one of this
+    //          portfolio's stocks
+    void investmentWorthChanged(long change) {
+        this.valueCurrentlyInvested = Money.add(valueCurrentlyInvested, change);
+    }
+
+    // REQUIRES: no stocks were added to or sold from this since allocation was made
+    // MODIFIES: this and its stocks
+    // EFFECTS: sets the amount invested in every stock allocation gives an amount to and takes the total from the
+    //          balance in one go. Nothing is changed if the allocation is rejected.
+    //          throws InvalidAllocationException if allocation is for another portfolio or its total is more than
+    //          the balance
+    public void applyAllocation(Allocation allocation) {
+        if (allocation.getPortfolio() != this || allocation.size() != portfolio.size()) {
+            throw new InvalidAllocationException("allocation was made for a different portfolio");
+        }
+        if (allocation.getTotalMoney() > balance) {
+            throw new InvalidAllocationException("cannot invest " + allocation.getTotal() + " with a balance of "
+                    + getBalance());
+        }
+        for (int i = 0; i < portfolio.size(); i++) {
+            long amount = allocation.getAmountMoney(i);
+            if (amount != Allocation.UNALLOCATED) {
+                getStock(i).setCurrentInvestmentWorthMoney(amount);
+            }
+        }
+        setBalanceMoney(Money.subtract(balance, allocation.getTotalMoney()));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the number of days to invest each stock. Individually invest all stock, each stock updates
+    // the total value currently invested in all stocks as it goes
     public void investStocksForDays(int days) {
+        ensureLoaded();
         for (Stock i : portfolio) {
             try {
                 i.setDaysToInvest(days);
@@ -113,27 +310,124 @@ public class Portfolio implements Writable {
                 System.out.println("Can't have negative days");
             }
         }
-        updateValue();
     }
 
-    // EFFECTS: returns stock that matches the ticker
-    public Stock checkForTicker(String ticker) {
-        for (Stock i : portfolio) {
-            if (ticker.equals(i.getSymbol())) {
-                return i;
+    // MODIFIES: this
+    // EFFECTS: same as investStocksForDays(days), but reports to progress after every stock and every
+    //          Stock.DAYS_PER_CHECK days within one, and stops early when progress asks it to, even partway through a
+    //          stock's days. Returns the number of stocks that were invested, counting one stopped partway.
+    public int investStocksForDays(int days, InvestmentProgress progress) {
+        int total = portfolio.size();
+        int done = 0;
+
+        while (done < total && !progress.shouldStop()) {
+            Stock stock = getStock(done);
+            try {
+                stock.setDaysToInvest(days);
+                stock.investIndividualStock(progress);
+            } catch (NegativeIntException e) {
+                System.out.println("Can't have negative days");
             }
+            done++;
+            progress.stockInvested(done, total);
+        }
+        return done;
+    }
+
+    // REQUIRES: paths > 0
+    // EFFECTS: runs paths independent simulations of investing every stock for days days on all cores and
+    //          returns the distribution of end worths. Does not change the stocks or the portfolio.
+    //          throws NegativeIntException if days < 0
+    public SimulationResult simulateStocksForDays(int days, int paths) {
+        return new MonteCarloSimulator().simulate(getPortfolioList(), days, paths);
+    }
+
+    // REQUIRES: paths > 0
+    // EFFECTS: same as simulateStocksForDays(days, paths), but gives the same result every time for the same seed
+    //          throws NegativeIntException if days < 0
+    public SimulationResult simulateStocksForDays(int days, int paths, long seed) {
+        return new MonteCarloSimulator().simulate(getPortfolioList(), days, paths, new SplittableRandomSource(seed));
+    }
+
+    // REQUIRES: paths > 0
+    // EFFECTS: runs paths simulations like simulateStocksForDays, but only keeps streaming statistics of the end
+    //          worths (percentiles, Value-at-Risk, expected shortfall), so memory does not grow with paths.
+    //          throws NegativeIntException if days < 0
+    public RiskReport summarizeStocksForDays(int days, int paths) {
+        return new MonteCarloSimulator().summarize(getPortfolioList(), days, paths);
+    }
+
+    // EFFECTS: returns the first stock added that matches the ticker, null if there is none
+    public Stock checkForTicker(String ticker) {
+        loadSymbol(ticker);
+        return symbolIndex.get(ticker);
+    }
+
+    // EFFECTS: returns the first stock added whose symbol encodes to code (see SymbolIndex.encode), null if none
+    public Stock checkForTicker(int code) {
+        if (source != null && code >= 0) {
+            loadSymbol(SymbolIndex.decode(code));
+        }
+        return symbolIndex.get(code);
+    }
+
+    // REQUIRES: price >= 0
+    // MODIFIES: this
+    // EFFECTS: updates the price of every stock whose symbol encodes to code (see Stock.updatePrice), adjusting the
+    //          value currently invested by the change in their worth, and returns how many there were
+    public int updatePrice(int code, double price) {
+        int updated = 0;
+        for (Stock stock = checkForTicker(code); stock != null; stock = stock.nextWithSymbol) {
+            stock.updatePrice(price);
+            updated++;
+        }
+        return updated;
+    }
+
+    // REQUIRES: price >= 0
+    // MODIFIES: this
+    // EFFECTS: same as updatePrice(code, price), but with previousPrice as the previous price of each stock, as after
+    //          a tick at previousPrice and then one at price
+    public int updatePrice(int code, double previousPrice, double price) {
+        int updated = 0;
+        for (Stock stock = checkForTicker(code); stock != null; stock = stock.nextWithSymbol) {
+            stock.updatePrice(previousPrice, price);
+            updated++;
+        }
+        return updated;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves stock in the symbol index from oldSymbol to its new symbol
+    void symbolChanged(Stock stock, String oldSymbol) {
+        loadSymbol(stock.getSymbol());
+        symbolIndex.remove(oldSymbol, stock);
+        symbolIndex.add(stock);
+    }
+
+    // EFFECTS: tells the listener that a field of stock, one of this portfolio's stocks, changed
+    void stockChanged(Stock stock) {
+        stock.lastModified = ++modifications;
+        if (listener != null) {
+            listener.stockChanged(stock, stock.slot);
+        }
+    }
+
+    // EFFECTS: tells the listener the balance changed
+    private void balanceChanged() {
+        modifications++;
+        if (listener != null) {
+            listener.balanceChanged(balance);
         }
-        System.out.println("No stock found with that symbol");
-        return null;
     }
 
 
     // MODIFIES: this
     // EFFECTS: adds the amount invested in stock to portfolio balance.
-    //              - sets amount invested in stock to 0
-    //              - removes stock from portfolio
+    //              - sets amount invested in stock to 0, taking it off the value currently invested
+    //              - removes stock from portfolio by moving the last stock into its place
     public void sellStock(Stock stock) {
-        double amountInvested = stock.getCurrentInvestmentWorth();
+        long amountInvested = stock.getCurrentInvestmentWorthMoney();
 
         try {
             stock.setCurrentInvestmentWorth(0);
@@ -141,16 +435,155 @@ public class Portfolio implements Writable {
             System.out.println("invested negative amount illegal");
         }
 
-        this.balance += amountInvested;
+        this.balance = Money.add(balance, amountInvested);
+        balanceChanged();
+
+        if (stock.owner == this) {
+            loadSymbol(getStock(portfolio.size() - 1).getSymbol());
+            if (listener != null) {
+                listener.stockSold(stock.slot);
+            }
+            Stock last = portfolio.remove(portfolio.size() - 1);
+            if (last != stock) {
+                portfolio.set(stock.slot, last);
+                last.slot = stock.slot;
+                last.lastModified = ++modifications;
+            }
+            symbolIndex.remove(stock.getSymbol(), stock);
+            stock.owner = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sells every stock in one pass, adding everything invested to the portfolio balance
+    public void sellAll() {
+        ensureLoaded();
+        long amountInvested = 0;
+        if (listener != null) {
+            listener.allStocksSold();
+        }
+
+        for (Stock stock : portfolio) {
+            amountInvested = Money.add(amountInvested, detach(stock));
+        }
+        portfolio.clear();
+        symbolIndex.clear();
+
+        this.balance = Money.add(balance, amountInvested);
+        this.valueCurrentlyInvested = 0;
+        balanceChanged();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sells every stock that matches condition, testing each stock once, adding what was invested in them
+    //          to the portfolio balance. Stocks that are kept stay in the same order. Returns the number of stocks
+    //          sold.
+    public int sellMatching(Predicate<Stock> condition) {
+        ensureLoaded();
+        BitSet matching = new BitSet(portfolio.size());
+        for (int i = 0; i < portfolio.size(); i++) {
+            if (condition.test(portfolio.get(i))) {
+                matching.set(i);
+            }
+        }
+        if (listener != null && !matching.isEmpty()) {
+            listener.stocksSold(matching.stream().toArray());
+        }
+
+        long amountInvested = 0;
+        int kept = 0;
+        long moved = ++modifications;
+        for (int i = 0; i < portfolio.size(); i++) {
+            Stock stock = portfolio.get(i);
+            if (matching.get(i)) {
+                amountInvested = Money.add(amountInvested, detach(stock));
+            } else {
+                if (kept != i) {
+                    portfolio.set(kept, stock);
+                    stock.slot = kept;
+                    stock.lastModified = moved;
+                }
+                kept++;
+            }
+        }
+        int sold = portfolio.size() - kept;
+        portfolio.subList(kept, portfolio.size()).clear();
+
+        symbolIndex.clear();
+        for (Stock stock : portfolio) {
+            symbolIndex.add(stock);
+        }
+
+        this.balance = Money.add(balance, amountInvested);
+        this.valueCurrentlyInvested = Money.subtract(valueCurrentlyInvested, amountInvested);
+        if (sold > 0) {
+            balanceChanged();
+        }
+        return sold;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes every stock not loaded yet and indexes it by symbol
+    public void ensureLoaded() {
+        for (int row = 0; source != null && row < source.size(); row++) {
+            loadSymbol(source.getSymbol(row));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the stock saved at row, which is still in its slot, without indexing it by symbol yet
+    private Stock loadRow(int row) {
+        Stock stock = source.load(row);
+        stock.slot = row;
+        stock.owner = this;
+        portfolio.set(row, stock);
+        unloaded--;
+        return stock;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes every stock saved with symbol that is not indexed yet, decoding it if needed, in the order
+    //          they were saved so the symbol index keeps returning the first one. This keeps the stocks of the
+    //          source out of the index until their symbol is looked up, added or renamed to, and works because stocks
+    //          not indexed yet never move from the slot they were saved in: sellStock indexes the stock it moves.
+    private void loadSymbol(String symbol) {
+        if (source == null || !loadedSymbols.add(symbol)) {
+            return;
+        }
+        for (int row : source.getRows(symbol)) {
+            if (row < portfolio.size()) {
+                Stock stock = portfolio.get(row);
+                if (stock == null) {
+                    symbolIndex.add(loadRow(row));
+                } else if (!symbolIndex.contains(stock)) {
+                    symbolIndex.add(stock);
+                }
+            }
+            unindexed--;
+        }
+        if (unindexed == 0) {
+            source = null;
+            loadedSymbols = null;
+        }
+    }
 
-        portfolio.remove(stock);
+    // MODIFIES: stock
+    // EFFECTS: takes stock out of this portfolio without touching the list, index or totals, sets the amount
+    //          invested in it to 0 and returns what was invested, in micro-units
+    private long detach(Stock stock) {
+        long amountInvested = stock.getCurrentInvestmentWorthMoney();
+        stock.owner = null;
+        stock.nextWithSymbol = null;
+        stock.previousWithSymbol = null;
+        stock.setCurrentInvestmentWorth(0);
+        return amountInvested;
     }
 
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
-        json.put("balance", balance);
-        json.put("value currently invested", valueCurrentlyInvested);
+        json.put("balance", getBalance());
+        json.put("value currently invested", getValueCurrentlyInvested());
         json.put("portfolio", portfolioToJson());
         return json;
     }
@@ -159,7 +592,7 @@ public class Portfolio implements Writable {
     public JSONArray portfolioToJson() {
         JSONArray jsonArray = new JSONArray();
 
-        for (Stock t : portfolio) {
+        for (Stock t : getPortfolioList()) {
             jsonArray.put(t.toJson());
         }
 
@@ -0,0 +1,23 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+// Told about every change to a portfolio, so the changes can be recorded as they happen.
+// Stocks are identified by their slot, their index in Portfolio.getPortfolioList().
+public interface PortfolioListener {
+    // EFFECTS: called after the balance changed to balance, in micro-units (see Money)
+    void balanceChanged(long balance);
+
+    // EFFECTS: called after stock was added at the end of the portfolio
+    void stockAdded(Stock stock);
+
+    // EFFECTS: called after any field of stock, at slot, changed
+    void stockChanged(Stock stock, int slot);
+
+    // EFFECTS: called just before the stock at slot is sold and the last stock is moved into its slot
+    void stockSold(int slot);
+
+    // EFFECTS: called just before the stocks at slots (in increasing order) are sold, the rest keeping their order
+    void stocksSold(int[] slots);
+
+    // EFFECTS: called just before every stock is sold
+    void allStocksSold();
+}
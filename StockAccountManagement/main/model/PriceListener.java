@@ -0,0 +1,10 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+import java.util.List;
+
+// Told about changes to the prices and worths of stocks by a PriceUpdateBus, a batch at a time
+public interface PriceListener {
+    // EFFECTS: called with the latest update of every symbol that changed since the last batch, one per symbol,
+    //          on the executor the listener subscribed with
+    void pricesChanged(List<PriceUpdate> updates);
+}
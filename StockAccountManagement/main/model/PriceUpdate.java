@@ -0,0 +1,53 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+// The price and worth of a stock as they were right after one change to them, as published on a PriceUpdateBus
+public class PriceUpdate {
+    // Fields:
+    private final String symbol;
+    private final double price;
+    private final double previousPrice;
+    private final long worth;
+    private final long publishedNanos;
+
+    // EFFECTS: creates an update for symbol with worth in micro-units, published at System.nanoTime() publishedNanos
+    public PriceUpdate(String symbol, double price, double previousPrice, long worth, long publishedNanos) {
+        this.symbol = symbol;
+        this.price = price;
+        this.previousPrice = previousPrice;
+        this.worth = worth;
+        this.publishedNanos = publishedNanos;
+    }
+
+    // EFFECTS: returns an update with the current price and worth of stock, published now
+    public static PriceUpdate of(Stock stock) {
+        return new PriceUpdate(stock.getSymbol(), stock.getStockPriceCurrent(), stock.getStockPricePrevious(),
+                stock.getCurrentInvestmentWorthMoney(), System.nanoTime());
+    }
+
+    // Getters:
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getPreviousPrice() {
+        return previousPrice;
+    }
+
+    public double getWorth() {
+        return Money.toDouble(worth);
+    }
+
+    // EFFECTS: returns the worth in micro-units
+    public long getWorthMoney() {
+        return worth;
+    }
+
+    // EFFECTS: returns the System.nanoTime() the update was published at
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+}
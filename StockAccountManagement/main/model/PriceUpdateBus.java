@@ -0,0 +1,217 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Passes changes to the prices and worths of stocks from whoever makes them to any number of listeners, each at a
+// rate of its own. Publishing only puts the update in each subscription's map of pending updates, replacing any
+// earlier one for the same symbol, so it never waits on a listener and a subscription never holds more than one
+// update per symbol however far behind its listener falls. Every interval a thread of the bus takes what is pending
+// and hands it to the subscription's executor as one batch. While a listener is still busy with a batch no new one
+// is handed over; its updates keep being conflated until it is done.
+//
+// A Swing listener subscribes with EventQueue::invokeLater so it runs on the event thread. A listener subscribed
+// with a direct executor (Runnable::run) runs on the bus's own thread and should be quick, as it holds up the
+// other subscriptions. A listener or executor that throws is reported and counted; the batch it threw on is lost
+// but later ones are still delivered.
+public class PriceUpdateBus implements Closeable {
+    // Fields:
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final CopyOnWriteArrayList<Subscription> subscriptions;
+
+    public PriceUpdateBus() {
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "price-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.subscriptions = new CopyOnWriteArrayList<>();
+    }
+
+    // Getters:
+
+    // EFFECTS: returns true if anyone is listening
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    // Methods:
+
+    // EFFECTS: publishes the current price and worth of stock, doing nothing if no one is listening
+    public void publish(Stock stock) {
+        if (!subscriptions.isEmpty()) {
+            publish(PriceUpdate.of(stock));
+        }
+    }
+
+    // EFFECTS: makes update the latest pending update for its symbol in every subscription
+    public void publish(PriceUpdate update) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(update);
+        }
+    }
+
+    // REQUIRES: intervalMillis > 0
+    // MODIFIES: this
+    // EFFECTS: starts handing listener, on executor, the latest update of every symbol that changed at most once
+    //          every intervalMillis milliseconds, and returns the subscription;
+    //          throws IllegalStateException if the bus has been closed
+    public Subscription subscribe(PriceListener listener, Executor executor, long intervalMillis) {
+        if (scheduler.isShutdown()) {
+            throw new IllegalStateException("Price update bus is closed");
+        }
+        Subscription subscription = new Subscription(listener, executor);
+        subscriptions.add(subscription);
+        subscription.task = scheduler.scheduleAtFixedRate(subscription::deliver, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+        return subscription;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels every subscription and stops the bus's thread; updates still pending are dropped
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.cancel();
+        }
+        scheduler.shutdownNow();
+    }
+
+    // One listener's updates waiting to be delivered, the latest for each symbol, and how many were published to it,
+    // delivered and replaced by a later update for the same symbol before they could be delivered, and how many
+    // batches failed
+    public final class Subscription {
+        private final PriceListener listener;
+        private final Executor executor;
+        private final ConcurrentHashMap<String, PriceUpdate> pending;
+        private final AtomicBoolean delivering;
+        private final LongAdder published;
+        private final LongAdder conflated;
+        private final AtomicLong delivered;
+        private final LongAdder failed;
+        private volatile ScheduledFuture<?> task;
+
+        private Subscription(PriceListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+            this.pending = new ConcurrentHashMap<>();
+            this.delivering = new AtomicBoolean();
+            this.published = new LongAdder();
+            this.conflated = new LongAdder();
+            this.delivered = new AtomicLong();
+            this.failed = new LongAdder();
+        }
+
+        // Getters:
+
+        // EFFECTS: returns the number of symbols with an update waiting to be delivered
+        public int getPending() {
+            return pending.size();
+        }
+
+        // EFFECTS: returns the number of updates published to this subscription
+        public long getPublished() {
+            return published.sum();
+        }
+
+        // EFFECTS: returns the number of updates handed to the listener
+        public long getDelivered() {
+            return delivered.get();
+        }
+
+        // EFFECTS: returns the number of updates replaced by a later one for the same symbol before delivery
+        public long getConflated() {
+            return conflated.sum();
+        }
+
+        // EFFECTS: returns the number of batches the listener threw on or the executor would not take
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        // Methods:
+
+        // MODIFIES: this
+        // EFFECTS: hands what is pending to the executor now instead of at the next interval, unless the listener is
+        //          still busy with the last batch
+        public void flush() {
+            deliver();
+        }
+
+        // MODIFIES: PriceUpdateBus.this
+        // EFFECTS: stops delivering to the listener; a batch already handed to the executor still runs
+        public void cancel() {
+            subscriptions.remove(this);
+            ScheduledFuture<?> scheduled = task;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            pending.clear();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: makes update the pending update for its symbol, counting any it replaces as conflated
+        private void offer(PriceUpdate update) {
+            published.increment();
+            if (pending.put(update.getSymbol(), update) != null) {
+                conflated.increment();
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: takes every pending update and hands them to the listener on the executor as one batch, unless
+        //          nothing is pending or the listener has not finished the last batch. Never throws, as it runs on
+        //          the bus's schedule, which would stop calling it for good; if the listener or executor throws, the
+        //          batch is dropped and reported instead.
+        private void deliver() {
+            if (pending.isEmpty() || !delivering.compareAndSet(false, true)) {
+                return;
+            }
+            List<PriceUpdate> batch = new ArrayList<>(pending.size());
+            for (Map.Entry<String, PriceUpdate> entry : pending.entrySet()) {
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    batch.add(entry.getValue());
+                }
+            }
+            if (batch.isEmpty()) {
+                delivering.set(false);
+                return;
+            }
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        listener.pricesChanged(batch);
+                    } catch (RuntimeException e) {
+                        report("Price listener failed on " + batch.size() + " updates", e);
+                    } finally {
+                        delivered.addAndGet(batch.size());
+                        delivering.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                report("Could not deliver " + batch.size() + " price updates", e);
+                delivering.set(false);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: counts a failed batch and prints what went wrong
+        private void report(String message, RuntimeException e) {
+            failed.increment();
+            System.out.println(message + ": " + e);
+        }
+    }
+}
@@ -6,29 +6,43 @@ import objectOrientedProgram.StockAccountManagement.main.exceptions.*;
 
 import objectOrientedProgram.StockAccountManagement.main.exceptions.NegativeDoubleException;
 import objectOrientedProgram.StockAccountManagement.main.exceptions.NegativeIntException;
+import objectOrientedProgram.StockAccountManagement.main.simulation.PriceHistory;
+import objectOrientedProgram.StockAccountManagement.main.simulation.RandomSource;
 import objectOrientedProgram.StockAccountManagement.test.model.JSONObject;
 
 public class Stock implements Writable {
+    // How many days are invested between checks of an InvestmentProgress
+    public static final int DAYS_PER_CHECK = 1 << 12;
+
     private String symbol;
     private double stockPriceCurrent;
     private double stockPricePrevious;
-    private double currentInvestmentWorth;
-    private double initialInvestment;
+    private long currentInvestmentWorth;
+    private long initialInvestment;
     private double sharesBought;
     private int daysToInvest;
     private int risk;
-    private double marketCap;
+    private long marketCap;
+    private RandomSource randomSource;
+    private PriceHistory priceHistory;
+    private PriceUpdateBus priceBus;
+    Portfolio owner;
+    Stock nextWithSymbol;
+    Stock previousWithSymbol;
+    int slot;
+    long lastModified;
 
     public Stock() {
         this.symbol = "";
         this.stockPriceCurrent = 0.00;
         this.stockPricePrevious = 0.00;
-        this.currentInvestmentWorth = 0.00;
-        this.initialInvestment = 0.00;
+        this.currentInvestmentWorth = 0;
+        this.initialInvestment = 0;
         this.sharesBought = 0;
         this.daysToInvest = 0;
         this.risk = 1;
-        this.marketCap = 10000000;
+        this.marketCap = 10000000 * Money.UNIT;
+        this.randomSource = RandomSource.threadLocal();
     }
 
     // Not robust as only used in testing purposes for intentionally setting a wide range of values
@@ -37,12 +51,26 @@ public class Stock implements Writable {
         this.symbol = symbol;
         this.stockPriceCurrent = stockPriceCurrent;
         this.stockPricePrevious = stockPricePrevious;
-        this.currentInvestmentWorth = currentInvestmentWorth;
-        this.initialInvestment = initialInvestment;
+        this.currentInvestmentWorth = Money.of(currentInvestmentWorth);
+        this.initialInvestment = Money.of(initialInvestment);
         this.sharesBought = sharesBought;
         this.daysToInvest = daysToInvest;
         this.risk = risk;
-        this.marketCap = marketCap;
+        this.marketCap = Money.of(marketCap);
+        this.randomSource = RandomSource.threadLocal();
+    }
+
+    // EFFECTS: returns a stock like the constructor does, but with the amounts of money already in micro-units (see
+    //          Money), so a saved stock is restored without rounding
+    public static Stock ofMoney(String symbol, double stockPriceCurrent, double stockPricePrevious,
+                                long currentInvestmentWorth, long initialInvestment, double sharesBought,
+                                int daysToInvest, int risk, long marketCap) {
+        Stock stock = new Stock(symbol, stockPriceCurrent, stockPricePrevious, 0, 0, sharesBought, daysToInvest,
+                risk, 0);
+        stock.currentInvestmentWorth = currentInvestmentWorth;
+        stock.initialInvestment = initialInvestment;
+        stock.marketCap = marketCap;
+        return stock;
     }
 
     //Getters:
@@ -59,6 +87,11 @@ public class Stock implements Writable {
     }
 
     public double getCurrentInvestmentWorth() {
+        return Money.toDouble(currentInvestmentWorth);
+    }
+
+    // EFFECTS: returns the current investment worth in micro-units
+    public long getCurrentInvestmentWorthMoney() {
         return currentInvestmentWorth;
     }
 
@@ -71,10 +104,20 @@ public class Stock implements Writable {
     }
 
     public double getMarketCap() {
+        return Money.toDouble(marketCap);
+    }
+
+    // EFFECTS: returns the market cap in micro-units
+    public long getMarketCapMoney() {
         return marketCap;
     }
 
     public double getInitialInvestment() {
+        return Money.toDouble(initialInvestment);
+    }
+
+    // EFFECTS: returns the initial investment in micro-units
+    public long getInitialInvestmentMoney() {
         return initialInvestment;
     }
 
@@ -82,6 +125,39 @@ public class Stock implements Writable {
         return daysToInvest;
     }
 
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    public PriceHistory getPriceHistory() {
+        return priceHistory;
+    }
+
+    // EFFECTS: returns the bus changes to the price and worth of this stock are published on: the one set on this
+    //          stock, otherwise that of the portfolio holding it, null if neither has one
+    public PriceUpdateBus getPriceBus() {
+        if (priceBus != null) {
+            return priceBus;
+        }
+        return owner != null ? owner.getPriceBus() : null;
+    }
+
+    // EFFECTS: returns the modification count of the portfolio holding this stock as of when this stock last changed
+    //          or moved to another slot, or 0 if it has not since it was added with Portfolio.loadStock
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    // EFFECTS: returns the position of this stock in the portfolio holding it (see Portfolio.getStock)
+    public int getSlot() {
+        return slot;
+    }
+
+    // EFFECTS: returns the next stock with the same symbol in the portfolio holding this one, null if there is none
+    public Stock getNextWithSymbol() {
+        return nextWithSymbol;
+    }
+
 
     //Setters:
     public void setSymbol(String symbol) throws TicketLengthException, NonCapLetterException {
@@ -90,7 +166,13 @@ public class Stock implements Writable {
         } else if (!symbol.matches("[A-Z]+")) {
             throw new NonCapLetterException();
         } else {
+            String oldSymbol = this.symbol;
             this.symbol = symbol;
+
+            if (owner != null) {
+                owner.symbolChanged(this, oldSymbol);
+            }
+            changed();
         }
     }
 
@@ -99,26 +181,55 @@ public class Stock implements Writable {
             throw new NegativeDoubleException();
         } else {
             this.stockPriceCurrent = price;
+            changed();
+            priceChanged();
         }
     }
 
     public void setStockPricePrevious(double price) {
         this.stockPricePrevious = price;
+        changed();
+        priceChanged();
     }
 
     public void setCurrentInvestmentWorth(double amount) throws NegativeDoubleException {
         if (amount < 0) {
             throw new NegativeDoubleException();
         } else {
-            this.currentInvestmentWorth = amount;
+            changeInvestmentWorth(Money.of(amount));
+        }
+    }
+
+    // EFFECTS: sets the current investment worth to amount micro-units
+    public void setCurrentInvestmentWorthMoney(long amount) throws NegativeDoubleException {
+        if (amount < 0) {
+            throw new NegativeDoubleException();
+        } else {
+            changeInvestmentWorth(amount);
         }
     }
 
+    public void setInitialInvestment(double amount) {
+        setInitialInvestmentMoney(Money.of(amount));
+    }
+
+    // EFFECTS: sets the initial investment to amount micro-units
+    public void setInitialInvestmentMoney(long amount) {
+        this.initialInvestment = amount;
+        changed();
+    }
+
+    public void setSharesBought(double shares) {
+        this.sharesBought = shares;
+        changed();
+    }
+
     public void setDaysToInvest(int days) throws NegativeDoubleException {
         if (days < 0) {
             throw new NegativeIntException();
         } else {
             this.daysToInvest = days;
+            changed();
         }
     }
 
@@ -126,15 +237,33 @@ public class Stock implements Writable {
         if (marketCap < 0) {
             throw new NegativeDoubleException();
         } else {
-            this.marketCap = marketCap;
+            this.marketCap = Money.of(marketCap);
+            changed();
         }
     }
 
+    // EFFECTS: sets the generator used for daily price moves, use a seeded source to make investing reproducible
+    public void setRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+    }
+
+    // EFFECTS: sets where the price of every simulated day is recorded, null to stop recording
+    public void setPriceHistory(PriceHistory priceHistory) {
+        this.priceHistory = priceHistory;
+    }
+
+    // EFFECTS: sets the bus every change to the price or worth of this stock is published on, null to use that of
+    //          the portfolio holding it
+    public void setPriceBus(PriceUpdateBus priceBus) {
+        this.priceBus = priceBus;
+    }
+
     public void setRisk(int risk) {
         if (risk < 1 || risk > 5) {
             throw new RiskOutOfBoundaryException();
         } else {
             this.risk = risk;
+            changed();
         }
     }
 
@@ -146,7 +275,44 @@ public class Stock implements Writable {
         if (amount < 0) {
             throw new NegativeDoubleException();
         } else {
-            currentInvestmentWorth += amount;
+            changeInvestmentWorth(Money.add(currentInvestmentWorth, Money.of(amount)));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the current price to the previous price and makes price the current one, as a tick from the
+    //          market does. If shares have been bought the worth becomes what they are worth at price (rounded to the
+    //          nearest micro-unit), and the change is passed on to the portfolio holding this stock.
+    //          throws ArithmeticException, changing nothing, if that worth is too large to hold
+    public void updatePrice(double price) throws NegativeDoubleException {
+        updatePrice(stockPriceCurrent, price);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as updatePrice(price), but with previousPrice as the previous price, as after a tick at
+    //          previousPrice and then one at price
+    public void updatePrice(double previousPrice, double price) throws NegativeDoubleException {
+        if (price < 0) {
+            throw new NegativeDoubleException();
+        }
+        if (sharesBought > 0) {
+            long worth = Money.of(price * sharesBought);
+            double oldPrevious = stockPricePrevious;
+            double oldCurrent = stockPriceCurrent;
+            stockPricePrevious = previousPrice;
+            stockPriceCurrent = price;
+            try {
+                changeInvestmentWorth(worth);
+            } catch (ArithmeticException e) {
+                stockPricePrevious = oldPrevious;
+                stockPriceCurrent = oldCurrent;
+                throw e;
+            }
+        } else {
+            stockPricePrevious = previousPrice;
+            stockPriceCurrent = price;
+            changed();
+            priceChanged();
         }
     }
 
@@ -154,32 +320,118 @@ public class Stock implements Writable {
     // EFFECTS: invests stock for amount of days
     //              - takes into account risk (riskier has more potential for more loss or more gain)
     //              - max stock price cannot surpass marketCap
+    //              - records the price of each day if the stock has a price history
+    //              - the worth at the end is rounded to the nearest micro-unit
     public void investIndividualStock() {
-        sharesBought = currentInvestmentWorth / stockPriceCurrent;
-        initialInvestment = currentInvestmentWorth;
-        setStockPricePrevious(stockPriceCurrent);
+        investIndividualStock(null);
+    }
 
-        for (int i = 0; i < daysToInvest; i++) {
+    // MODIFIES: this
+    // EFFECTS: same as investIndividualStock(), but if progress is not null tells it how many days are done every
+    //          DAYS_PER_CHECK days and stops there if progress asks to. The stock is then left as if it had been
+    //          invested for only the days done, which days to invest is set to.
+    public void investIndividualStock(InvestmentProgress progress) {
+        sharesBought = sharesFor(currentInvestmentWorth, stockPriceCurrent);
+        initialInvestment = currentInvestmentWorth;
+        stockPricePrevious = stockPriceCurrent;
 
-            double riskFactor = getRiskFactor();
+        double riskFactor = getRiskFactor();
+        double marketCap = Money.toDouble(this.marketCap);
 
-            double max = stockPriceCurrent + (stockPriceCurrent * riskFactor);
+        if (priceHistory != null && priceHistory.size() == 0) {
+            priceHistory.append(stockPriceCurrent);
+        }
 
-            if (max > marketCap) {
-                max = marketCap;
+        for (int i = 0; i < daysToInvest; i++) {
+            if (progress != null && i > 0 && i % DAYS_PER_CHECK == 0) {
+                progress.daysInvested(i, daysToInvest);
+                if (progress.shouldStop()) {
+                    daysToInvest = i;
+                    break;
+                }
             }
+            stockPriceCurrent = nextPrice(stockPriceCurrent, riskFactor, marketCap, randomSource.nextDouble());
 
-            double min = stockPriceCurrent - (stockPriceCurrent * riskFactor); ///fix
+            if (priceHistory != null) {
+                priceHistory.append(stockPriceCurrent);
+            }
+        }
+        if (daysToInvest > 0) {
+            currentInvestmentWorth = Money.of(stockPriceCurrent * sharesBought);
+        }
 
-            stockPriceCurrent = (Math.random() * (max - min) + min);
+        if (owner != null) {
+            owner.investmentWorthChanged(Money.subtract(currentInvestmentWorth, initialInvestment));
+        }
+        changed();
+        priceChanged();
+    }
 
-            if (stockPriceCurrent < 0) {
-                stockPriceCurrent = 0.00;
+    // REQUIRES: saved is not in a portfolio
+    // MODIFIES: this
+    // EFFECTS: sets every saved field of this (not its random source or price history) to those of saved, passing
+    //          the change in worth on to the portfolio holding this stock. Used to bring a stock back to a recorded
+    //          state, so the symbol is not checked.
+    public void restore(Stock saved) {
+        if (!symbol.equals(saved.symbol)) {
+            String oldSymbol = symbol;
+            symbol = saved.symbol;
+            if (owner != null) {
+                owner.symbolChanged(this, oldSymbol);
             }
+        }
+        stockPriceCurrent = saved.stockPriceCurrent;
+        stockPricePrevious = saved.stockPricePrevious;
+        initialInvestment = saved.initialInvestment;
+        sharesBought = saved.sharesBought;
+        daysToInvest = saved.daysToInvest;
+        risk = saved.risk;
+        marketCap = saved.marketCap;
+        changeInvestmentWorth(saved.currentInvestmentWorth);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the current investment worth to amount micro-units and passes the change on to the portfolio
+    //          holding this stock; throws ArithmeticException, changing nothing, if its value would overflow
+    private void changeInvestmentWorth(long amount) {
+        long change = Money.subtract(amount, currentInvestmentWorth);
+        if (owner != null) {
+            owner.investmentWorthChanged(change);
+        }
+        currentInvestmentWorth = amount;
+        changed();
+        priceChanged();
+    }
+
+    // EFFECTS: tells the portfolio holding this stock that one of its fields changed
+    private void changed() {
+        if (owner != null) {
+            owner.stockChanged(this);
+        }
+    }
 
-            currentInvestmentWorth = stockPriceCurrent * sharesBought;
+    // EFFECTS: publishes the price and worth of this stock on its price bus, if it has one
+    private void priceChanged() {
+        PriceUpdateBus bus = getPriceBus();
+        if (bus != null) {
+            bus.publish(this);
         }
+    }
+
+    // REQUIRES: 0 <= random < 1
+    // EFFECTS: returns the price one simulated day after price, picked by random from the range the stock can move
+    //              - range is price +/- (price * riskFactor)
+    //              - max stock price cannot surpass marketCap and min stock price cannot go below 0
+    public static double nextPrice(double price, double riskFactor, double marketCap, double random) {
+        double max = Math.min(price + (price * riskFactor), marketCap);
+        double min = price - (price * riskFactor);
+
+        return Math.max(random * (max - min) + min, 0.00);
+    }
 
+    // EFFECTS: returns the number of shares worth micro-units buys at price, 0 if the stock has no price
+    public static double sharesFor(long worth, double price) {
+        return price != 0 ? Money.toDouble(worth) / price : 0;
     }
 
     // EFFECTS: returns a riskFactor based on the amount of risk the stock has. More risk factor for riskier stock.
@@ -200,15 +452,15 @@ public class Stock implements Writable {
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
-        json.put("symbol", Double.parseDouble(symbol));
+        json.put("symbol", symbol);
         json.put("stock price current", stockPriceCurrent);
         json.put("stock price previous", stockPricePrevious);
-        json.put("current investment worth", currentInvestmentWorth);
-        json.put("initial investment", initialInvestment);
+        json.put("current investment worth", getCurrentInvestmentWorth());
+        json.put("initial investment", getInitialInvestment());
         json.put("shares bought", sharesBought);
         json.put("days to invest", daysToInvest);
         json.put("risk", risk);
-        json.put("market cap", marketCap);
+        json.put("market cap", getMarketCap());
         return json;
     }
 }
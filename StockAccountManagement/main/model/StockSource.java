@@ -0,0 +1,23 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+// The stocks of a saved portfolio, read one at a time. A portfolio built over a source only decodes a stock the first
+// time it is asked for it. Rows are the positions of the stocks when they were saved.
+public interface StockSource {
+    // EFFECTS: returns the number of stocks
+    int size();
+
+    // REQUIRES: 0 <= row < size()
+    // EFFECTS: returns the symbol of the stock at row
+    String getSymbol(int row);
+
+    // EFFECTS: returns every row holding a stock with symbol, in increasing order
+    int[] getRows(String symbol);
+
+    // REQUIRES: 0 <= row < size()
+    // EFFECTS: returns the amount currently invested in the stock at row in micro-units, without decoding it
+    long getInvestmentWorth(int row);
+
+    // REQUIRES: 0 <= row < size()
+    // EFFECTS: decodes the stock at row
+    Stock load(int row);
+}
@@ -0,0 +1,218 @@
+package objectOrientedProgram.StockAccountManagement.main.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+// Index from ticker symbol to the stocks of a portfolio. Valid tickers (up to five capital letters) are packed into
+// an int and kept in an open addressing table, so looking one up does not allocate. Anything else, such as a
+// symbol restored from an old file, falls back to a HashMap. Stocks sharing a symbol are chained in the order they
+// were added (each first stock links back to the last one), so lookups return the first one like the old linear scan
+// did and adding or removing a duplicate is still O(1).
+public class SymbolIndex {
+    public static final int NO_CODE = -1;
+    private static final int MAX_LENGTH = 5;
+    private static final int LETTERS = 27;
+
+    // Fields:
+    private int[] codes;
+    private Stock[] stocks;
+    private int size;
+    private int shift;
+    private final HashMap<String, Stock> others;
+
+    public SymbolIndex() {
+        this.others = new HashMap<>();
+        clear();
+    }
+
+    // EFFECTS: returns symbol packed into an int (base 27, one digit per letter), or NO_CODE if symbol is longer
+    //          than five characters or has anything other than capital letters
+    public static int encode(String symbol) {
+        if (symbol.length() > MAX_LENGTH) {
+            return NO_CODE;
+        }
+        int code = 0;
+        for (int i = 0; i < symbol.length(); i++) {
+            char letter = symbol.charAt(i);
+            if (letter < 'A' || letter > 'Z') {
+                return NO_CODE;
+            }
+            code = code * LETTERS + (letter - 'A' + 1);
+        }
+        return code;
+    }
+
+    // REQUIRES: code was returned by encode and is not NO_CODE
+    // EFFECTS: returns the symbol that encodes to code
+    public static String decode(int code) {
+        char[] letters = new char[MAX_LENGTH];
+        int start = MAX_LENGTH;
+        while (code > 0) {
+            letters[--start] = (char) ('A' + code % LETTERS - 1);
+            code /= LETTERS;
+        }
+        return new String(letters, start, MAX_LENGTH - start);
+    }
+
+    // EFFECTS: returns the first stock added with symbol, null if there is none
+    public Stock get(String symbol) {
+        int code = encode(symbol);
+        return code == NO_CODE ? others.get(symbol) : get(code);
+    }
+
+    // EFFECTS: returns the first stock added with the encoded symbol code, null if there is none
+    public Stock get(int code) {
+        if (code < 0) {
+            return null;
+        }
+        return stocks[find(code)];
+    }
+
+    // EFFECTS: returns true if stock, one of the stocks of the portfolio this indexes, has been added
+    boolean contains(Stock stock) {
+        return stock.previousWithSymbol != null;
+    }
+
+    // MODIFIES: this, stock
+    // EFFECTS: indexes stock under its current symbol, after any stocks already indexed under that symbol
+    public void add(Stock stock) {
+        Stock head = get(stock.getSymbol());
+        stock.nextWithSymbol = null;
+
+        if (head == null) {
+            stock.previousWithSymbol = stock;
+            put(stock.getSymbol(), stock);
+        } else {
+            Stock tail = head.previousWithSymbol;
+            tail.nextWithSymbol = stock;
+            stock.previousWithSymbol = tail;
+            head.previousWithSymbol = stock;
+        }
+    }
+
+    // MODIFIES: this, stock
+    // EFFECTS: removes stock from the index, where it was added under symbol
+    public void remove(String symbol, Stock stock) {
+        Stock head = get(symbol);
+        if (head == null || stock.previousWithSymbol == null) {
+            return;
+        }
+        Stock next = stock.nextWithSymbol;
+
+        if (head == stock) {
+            if (next == null) {
+                delete(symbol);
+            } else {
+                next.previousWithSymbol = stock.previousWithSymbol;
+                put(symbol, next);
+            }
+        } else {
+            Stock previous = stock.previousWithSymbol;
+            previous.nextWithSymbol = next;
+            if (next == null) {
+                head.previousWithSymbol = previous;
+            } else {
+                next.previousWithSymbol = previous;
+            }
+        }
+        stock.nextWithSymbol = null;
+        stock.previousWithSymbol = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every stock from the index
+    public void clear() {
+        codes = new int[16];
+        Arrays.fill(codes, NO_CODE);
+        stocks = new Stock[16];
+        size = 0;
+        shift = 32 - 4;
+        others.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes stock the first stock for symbol
+    private void put(String symbol, Stock stock) {
+        int code = encode(symbol);
+        if (code == NO_CODE) {
+            others.put(symbol, stock);
+            return;
+        }
+        int slot = find(code);
+        if (codes[slot] == NO_CODE) {
+            codes[slot] = code;
+            size++;
+        }
+        stocks[slot] = stock;
+
+        if (size * 2 > codes.length) {
+            resize();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes symbol from the table, shifting later entries of the same probe run back into the gap
+    private void delete(String symbol) {
+        int code = encode(symbol);
+        if (code == NO_CODE) {
+            others.remove(symbol);
+            return;
+        }
+        int gap = find(code);
+        if (codes[gap] == NO_CODE) {
+            return;
+        }
+        int mask = codes.length - 1;
+        int next = gap;
+        while (true) {
+            next = (next + 1) & mask;
+            if (codes[next] == NO_CODE) {
+                break;
+            }
+            int home = home(codes[next]);
+            boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+            if (movable) {
+                codes[gap] = codes[next];
+                stocks[gap] = stocks[next];
+                gap = next;
+            }
+        }
+        codes[gap] = NO_CODE;
+        stocks[gap] = null;
+        size--;
+    }
+
+    // EFFECTS: returns the slot holding code, or the empty slot where it would go
+    private int find(int code) {
+        int mask = codes.length - 1;
+        int slot = home(code);
+        while (codes[slot] != NO_CODE && codes[slot] != code) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // EFFECTS: returns the slot code hashes to
+    private int home(int code) {
+        return (code * 0x9E3779B9) >>> shift;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the table and re-inserts every entry
+    private void resize() {
+        int[] oldCodes = codes;
+        Stock[] oldStocks = stocks;
+        codes = new int[oldCodes.length * 2];
+        Arrays.fill(codes, NO_CODE);
+        stocks = new Stock[oldStocks.length * 2];
+        shift--;
+
+        for (int i = 0; i < oldCodes.length; i++) {
+            if (oldCodes[i] != NO_CODE) {
+                int slot = find(oldCodes[i]);
+                codes[slot] = oldCodes[i];
+                stocks[slot] = oldStocks[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.InvalidAllocationException;
+import objectOrientedProgram.StockAccountManagement.main.model.Allocation;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads how much to invest in each stock from a file, either CSV lines of "symbol,amount" or a JSON object of
+// "symbol": amount pairs. Every entry is checked as it is read and all the problems found are reported together.
+public class AllocationReader {
+    private static final int MAX_PROBLEMS_SHOWN = 20;
+
+    private final String source;
+    private final List<String> problems;
+
+    // EFFECTS: constructs reader to read from source file; files ending in .json are read as JSON, others as CSV
+    public AllocationReader(String source) {
+        this.source = source;
+        this.problems = new ArrayList<>();
+    }
+
+    // EFFECTS: reads the allocation for the stocks of portfolio from the source file and returns it;
+    //          throws IOException if an error occurs reading data from file,
+    //          throws InvalidAllocationException listing every bad entry if any entry is malformed, names a stock
+    //          not in portfolio, repeats a stock or has a negative amount
+    public Allocation read(Portfolio portfolio) throws IOException {
+        Allocation allocation = new Allocation(portfolio);
+        problems.clear();
+
+        if (source.toLowerCase().endsWith(".json")) {
+            readJson(portfolio, allocation);
+        } else {
+            readCsv(portfolio, allocation);
+        }
+
+        if (!problems.isEmpty()) {
+            throw new InvalidAllocationException(describeProblems());
+        }
+        return allocation;
+    }
+
+    // MODIFIES: this, allocation
+    // EFFECTS: reads one "symbol,amount" entry per line, skipping blank lines, lines starting with # and a
+    //          "symbol,amount" header
+    private void readCsv(Portfolio portfolio, Allocation allocation) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")
+                        || (lineNumber == 1 && line.toLowerCase().startsWith("symbol"))) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                if (comma < 0) {
+                    problems.add("line " + lineNumber + ": expected symbol,amount");
+                    continue;
+                }
+                allocate(portfolio, allocation, "line " + lineNumber, line.substring(0, comma).trim(),
+                        line.substring(comma + 1).trim());
+            }
+        }
+    }
+
+    // MODIFIES: this, allocation
+    // EFFECTS: reads a JSON object whose keys are symbols and whose values are amounts;
+    //          throws IOException if the file is not a JSON object
+    private void readJson(Portfolio portfolio, Allocation allocation) throws IOException {
+        try (JsonTokenizer json = new JsonTokenizer(Paths.get(source))) {
+            json.expect(JsonTokenizer.Token.BEGIN_OBJECT);
+            while (json.next() == JsonTokenizer.Token.NAME) {
+                String symbol = json.getString();
+                String where = "byte " + json.getPosition();
+                JsonTokenizer.Token amount = json.next();
+                if (amount == JsonTokenizer.Token.NUMBER || amount == JsonTokenizer.Token.STRING) {
+                    allocate(portfolio, allocation, where, symbol, json.getString());
+                } else {
+                    json.skipValue();
+                    problems.add(where + ": the amount for " + symbol + " is not a number");
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this, allocation
+    // EFFECTS: allocates amount to the stock with symbol, recording a problem at where instead if it is invalid
+    private void allocate(Portfolio portfolio, Allocation allocation, String where, String symbol, String amount) {
+        Stock stock = portfolio.checkForTicker(symbol);
+        if (stock == null) {
+            problems.add(where + ": no stock found with symbol " + symbol);
+            return;
+        }
+        try {
+            allocation.allocate(stock, Double.parseDouble(amount));
+        } catch (NumberFormatException e) {
+            problems.add(where + ": " + amount + " is not an amount");
+        } catch (InvalidAllocationException e) {
+            problems.add(where + ": " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns the problems found, one per line, leaving out all but the first few
+    private String describeProblems() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < Math.min(problems.size(), MAX_PROBLEMS_SHOWN); i++) {
+            description.append(problems.get(i)).append('\n');
+        }
+        if (problems.size() > MAX_PROBLEMS_SHOWN) {
+            description.append("and ").append(problems.size() - MAX_PROBLEMS_SHOWN).append(" more problems");
+        }
+        return description.toString().trim();
+    }
+}
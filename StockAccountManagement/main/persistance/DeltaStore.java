@@ -0,0 +1,411 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Keeps a portfolio saved in a directory as a base snapshot plus a delta file holding only the stocks that changed
+// since the base was written. Saving after a run that touched a few stocks writes those stocks and nothing else.
+// Stocks that changed are found through Stock.getLastModified. Each delta replaces the one before it and holds the
+// latest state of every stock changed since the base, so it only grows with how much of the portfolio changed, not
+// with how often it is saved. Once the delta is over a COMPACT_RATIO-th of the base, the save thread merges the two
+// into a new base.
+//
+// Like SaveService, the work is done on a thread of its own. The changed stocks are encoded on the caller's thread,
+// and requests made within COALESCE_MILLIS of each other are written once. Every file is written to a temporary file,
+// forced to disk and renamed into place, so a crash leaves either the old files or the new ones.
+//
+// Delta file: magic, version, generation of the base it applies to, balance, value currently invested, stock count
+// and record count (DELTA_HEADER_SIZE bytes), then a record of int slot and StockRecord for every stock that differs
+// from the base, then an int CRC32 of everything before it. A delta that follows an older base is ignored. Amounts of
+// money are longs in micro-units from version 2, doubles before.
+public class DeltaStore implements Closeable {
+    public static final String BASE_FILE = "portfolio.snap";
+    public static final String DELTA_FILE = "portfolio.delta";
+
+    static final long COALESCE_MILLIS = 200;
+    static final int COMPACT_RATIO = 4;
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+    private static final int DELTA_MAGIC = 0x5044454C;
+    private static final short DELTA_VERSION = 2;
+    private static final short MONEY_VERSION = 2;
+    private static final int DELTA_HEADER_SIZE = 40;
+    private static final int GENERATION_OFFSET = 8;
+
+    // Fields:
+    private final Path directory;
+    private final SaveListener listener;
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Guarded by this, used on the caller's thread
+    private Portfolio tracked;
+    private long requestedModifications;
+    private long baseModifications;
+    private Portfolio pendingBase;
+    private ByteBuffer pendingDelta;
+    private long pendingDeltaModifications;
+    private long pendingSince;
+    private int pendingRequests;
+    private boolean scheduled;
+
+    // Only used on the save thread, once loaded
+    private long generation;
+    private long baseSize;
+
+    // EFFECTS: creates a store kept in directory that tells listener how each save went; nothing is read or written
+    //          until load or requestSave
+    public DeltaStore(Path directory, SaveListener listener) {
+        this.directory = directory;
+        this.listener = listener;
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-delta-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    // Getters:
+
+    // EFFECTS: returns the generation of the base snapshot written or read last
+    public long getGeneration() {
+        return generation;
+    }
+
+    // Methods:
+
+    // MODIFIES: this
+    // EFFECTS: waits for any queued save, then reads the base in the directory with its delta applied and returns
+    //          it, or an empty portfolio if nothing has been saved yet. If there was a delta it is merged into a new
+    //          base in the background. throws IOException if the files cannot be read or are corrupt
+    public Portfolio load() throws IOException {
+        flush();
+        Files.createDirectories(directory);
+        Path base = directory.resolve(BASE_FILE);
+        if (!Files.exists(base)) {
+            synchronized (this) {
+                tracked = null;
+            }
+            return new Portfolio();
+        }
+
+        ByteBuffer snapshot = SnapshotReader.map(base.toString());
+        SnapshotLayout layout = SnapshotLayout.readHeader(snapshot);
+        generation = layout.getGeneration();
+        baseSize = snapshot.limit();
+        ByteBuffer delta = readDelta();
+        Portfolio portfolio = delta == null
+                ? build(layout.getBalance(), layout.getValueCurrentlyInvested(),
+                SnapshotReader.readStocks(snapshot, layout))
+                : merge(SnapshotReader.readStocks(snapshot, layout), delta);
+
+        synchronized (this) {
+            tracked = portfolio;
+            requestedModifications = portfolio.getModificationCount();
+            baseModifications = portfolio.getModificationCount();
+            if (delta != null) {
+                executor.execute(() -> compact(portfolio, delta, portfolio.getModificationCount()));
+            }
+        }
+        return portfolio;
+    }
+
+    // REQUIRES: portfolio is not being changed by another thread
+    // MODIFIES: this
+    // EFFECTS: queues a save of portfolio and returns true, or returns false if it has not changed since it was last
+    //          saved or loaded. A portfolio that was saved or loaded here last only has the stocks that changed since
+    //          the base encoded; any other portfolio is copied whole to become the new base
+    public synchronized boolean requestSave(Portfolio portfolio) {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("Delta store is closed");
+        }
+        long modifications = portfolio.getModificationCount();
+        if (portfolio == tracked && modifications == requestedModifications) {
+            return false;
+        }
+
+        if (pendingBase == null && pendingDelta == null) {
+            pendingSince = System.nanoTime();
+            pendingRequests = 0;
+        }
+        if (portfolio == tracked) {
+            pendingDelta = encodeDelta(portfolio, baseModifications);
+            pendingDeltaModifications = modifications;
+        } else {
+            tracked = portfolio;
+            baseModifications = modifications;
+            pendingBase = portfolio.copy();
+            pendingDelta = null;
+        }
+        requestedModifications = modifications;
+        pendingRequests++;
+        if (!scheduled) {
+            scheduled = true;
+            executor.schedule(this::writePending, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes any queued save right away and waits until the save thread has nothing left to do
+    public void flush() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        try {
+            executor.submit(this::writePending).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes any queued save right away, waits for it to finish and stops the save thread
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            executor.execute(this::writePending);
+            executor.shutdown();
+        }
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: encodes every stock of portfolio changed or moved after modification since, with room for the CRC
+    //          at the end; the generation is filled in when it is written
+    private static ByteBuffer encodeDelta(Portfolio portfolio, long since) {
+        List<Stock> stocks = portfolio.getPortfolioList();
+        int[] changed = new int[16];
+        int records = 0;
+        int size = DELTA_HEADER_SIZE + Integer.BYTES;
+        for (int slot = 0; slot < stocks.size(); slot++) {
+            Stock stock = stocks.get(slot);
+            if (stock.getLastModified() > since) {
+                if (records == changed.length) {
+                    changed = Arrays.copyOf(changed, records * 2);
+                }
+                changed[records++] = slot;
+                size += Integer.BYTES + StockRecord.size(stock);
+            }
+        }
+
+        ByteBuffer delta = ByteBuffer.allocate(size);
+        delta.putInt(DELTA_MAGIC);
+        delta.putShort(DELTA_VERSION);
+        delta.putShort((short) 0);
+        delta.putLong(0);
+        delta.putLong(portfolio.getBalanceMoney());
+        delta.putLong(portfolio.getValueCurrentlyInvestedMoney());
+        delta.putInt(stocks.size());
+        delta.putInt(records);
+        for (int i = 0; i < records; i++) {
+            delta.putInt(changed[i]);
+            StockRecord.put(delta, stocks.get(changed[i]));
+        }
+        return delta;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes whatever is queued and writes it: a new base first, if there is one, then a delta, merging the
+    //          delta into a new base if it has grown too large. On failure nothing more is written against the
+    //          current base, so the next request saves the whole portfolio again
+    private void writePending() {
+        Portfolio portfolio;
+        Portfolio base;
+        ByteBuffer delta;
+        long deltaModifications;
+        long since;
+        int requests;
+        synchronized (this) {
+            portfolio = tracked;
+            base = pendingBase;
+            delta = pendingDelta;
+            deltaModifications = pendingDeltaModifications;
+            since = pendingSince;
+            requests = pendingRequests;
+            pendingBase = null;
+            pendingDelta = null;
+            scheduled = false;
+        }
+        if (base == null && delta == null) {
+            return;
+        }
+
+        Path written = null;
+        try {
+            if (base != null) {
+                written = writeBase(base);
+            }
+            if (delta != null) {
+                written = writeDelta(delta);
+            }
+            listener.saved(written.toString(), System.nanoTime() - since, requests);
+        } catch (IOException e) {
+            forget(portfolio);
+            listener.saveFailed(directory.resolve(base != null ? BASE_FILE : DELTA_FILE).toString(), e);
+            return;
+        }
+        if (delta != null && (long) delta.limit() * COMPACT_RATIO > baseSize) {
+            compact(portfolio, delta, deltaModifications);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: merges the base on disk with delta into a new base under the next generation and removes the delta.
+    //          Stocks of portfolio that last changed at or before modifications are then left out of later deltas
+    private void compact(Portfolio portfolio, ByteBuffer delta, long modifications) {
+        try {
+            ByteBuffer snapshot = SnapshotReader.map(directory.resolve(BASE_FILE).toString());
+            SnapshotLayout layout = SnapshotLayout.readHeader(snapshot);
+            writeBase(merge(SnapshotReader.readStocks(snapshot, layout), delta));
+        } catch (IOException e) {
+            forget(portfolio);
+            listener.saveFailed(directory.resolve(BASE_FILE).toString(), e);
+            return;
+        }
+        synchronized (this) {
+            if (tracked == portfolio) {
+                baseModifications = Math.max(baseModifications, modifications);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops writing deltas of portfolio, which may no longer match what is on disk
+    private synchronized void forget(Portfolio portfolio) {
+        if (tracked == portfolio && pendingBase == null) {
+            tracked = null;
+            pendingDelta = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes portfolio as the base under the next generation and removes the delta of the old one;
+    //          throws IOException if it cannot be written
+    private Path writeBase(Portfolio portfolio) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(BASE_FILE);
+        Path temporary = directory.resolve(BASE_FILE + ".tmp");
+        SnapshotWriter writer = new SnapshotWriter(temporary.toString());
+        writer.setGeneration(generation + 1);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            baseSize = channel.size();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        generation++;
+        Files.deleteIfExists(directory.resolve(DELTA_FILE));
+        return file;
+    }
+
+    // MODIFIES: delta
+    // EFFECTS: writes delta against the current base, replacing the delta before it; throws IOException if it
+    //          cannot be written
+    private Path writeDelta(ByteBuffer delta) throws IOException {
+        Path file = directory.resolve(DELTA_FILE);
+        Path temporary = directory.resolve(DELTA_FILE + ".tmp");
+        delta.putLong(GENERATION_OFFSET, generation);
+        CRC32 checksum = new CRC32();
+        checksum.update(delta.array(), 0, delta.limit() - Integer.BYTES);
+        delta.putInt(delta.limit() - Integer.BYTES, (int) checksum.getValue());
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = delta.duplicate();
+            out.clear();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    // EFFECTS: returns the delta in the directory if it applies to the current base, or null if there is none;
+    //          throws IOException if it is corrupt or its version is not one from 1 to DELTA_VERSION
+    private ByteBuffer readDelta() throws IOException {
+        Path file = directory.resolve(DELTA_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer delta = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (delta.limit() < DELTA_HEADER_SIZE + Integer.BYTES || delta.getInt(0) != DELTA_MAGIC) {
+            throw new IOException("Not a portfolio delta");
+        }
+        short version = delta.getShort(Integer.BYTES);
+        if (version < 1 || version > DELTA_VERSION) {
+            throw new IOException("Unsupported delta version " + version);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(delta.array(), 0, delta.limit() - Integer.BYTES);
+        if (delta.getInt(delta.limit() - Integer.BYTES) != (int) checksum.getValue()) {
+            throw new IOException("Corrupt portfolio delta");
+        }
+        return delta.getLong(GENERATION_OFFSET) == generation ? delta : null;
+    }
+
+    // EFFECTS: returns the portfolio that base becomes with every record of delta applied;
+    //          throws IOException if delta does not describe every stock the base lacks
+    private static Portfolio merge(Stock[] base, ByteBuffer delta) throws IOException {
+        ByteBuffer in = delta.duplicate();
+        boolean money = in.getShort(Integer.BYTES) >= MONEY_VERSION;
+        in.position(GENERATION_OFFSET + Long.BYTES);
+        long balance = StockRecord.getMoney(in, money);
+        long value = StockRecord.getMoney(in, money);
+        int count = in.getInt();
+        int records = in.getInt();
+        if (count < 0 || records < 0 || records > count) {
+            throw new IOException("Bad portfolio delta header");
+        }
+
+        Stock[] stocks = Arrays.copyOf(base, count);
+        for (int i = 0; i < records; i++) {
+            int slot = in.getInt();
+            if (slot < 0 || slot >= count) {
+                throw new IOException("Portfolio delta refers to a stock that does not exist");
+            }
+            stocks[slot] = StockRecord.get(in, money);
+        }
+        for (Stock stock : stocks) {
+            if (stock == null) {
+                throw new IOException("Portfolio delta is missing a stock");
+            }
+        }
+        return build(balance, value, stocks);
+    }
+
+    // EFFECTS: returns a portfolio with balance and value currently invested in micro-units and stocks, in order
+    private static Portfolio build(long balance, long valueCurrentlyInvested, Stock[] stocks) {
+        Portfolio portfolio = Portfolio.ofMoney(balance, valueCurrentlyInvested);
+        for (Stock stock : stocks) {
+            portfolio.loadStock(stock);
+        }
+        return portfolio;
+    }
+}
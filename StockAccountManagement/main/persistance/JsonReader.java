@@ -1,79 +1,161 @@
 package objectOrientedProgram.StockAccountManagement.main.persistance;
 
 import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonTokenizer.Token;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
 
 import objectOrientedProgram.StockAccountManagement.main.model.Stock;
-import objectOrientedProgram.StockAccountManagement.test.model.JSONArray;
-import objectOrientedProgram.StockAccountManagement.test.model.JSONObject;
 
 public class JsonReader {
     private String source;
-    private Iterable<? extends Object> JSONArray;
 
     // EFFECTS: constructs reader to read from source file
     public JsonReader(String source) {
         this.source = source;
     }
 
-    // EFFECTS: reads portfolio from file and returns it;
-    // throws IOException if an error occurs reading data from file
+    // EFFECTS: reads portfolio from file and returns it. The file is read one token at a time and each stock is
+    //          built as soon as its record has been read, so only one stock record is held in memory at once;
+    // throws IOException if an error occurs reading data from file or the file is not a saved portfolio
     public Portfolio read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parsePortfolio(jsonObject);
+        try (JsonTokenizer json = new JsonTokenizer(Paths.get(source))) {
+            json.expect(Token.BEGIN_OBJECT);
+            Portfolio portfolio = parsePortfolio(json);
+            json.expect(Token.END_DOCUMENT);
+            return portfolio;
+        }
     }
 
-    // EFFECTS: reads source file as string and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
+    // EFFECTS: parses portfolio from the fields of a JSON object and returns it. The stocks are added with the
+    //          saved value currently invested when it comes before them (as JsonWriter writes it); otherwise it
+    //          is added up again from the stocks.
+    private Portfolio parsePortfolio(JsonTokenizer json) throws IOException {
+        long balance = 0;
+        long valueCurrentlyInvested = 0;
+        boolean valueRead = false;
+        boolean recompute = false;
+        Portfolio portfolio = null;
 
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> contentBuilder.append(s));
+        while (json.next() == Token.NAME) {
+            String name = json.getString();
+            json.next();
+            if (name.equals("balance")) {
+                balance = readMoney(json);
+            } else if (name.equals("value currently invested")) {
+                valueCurrentlyInvested = readMoney(json);
+                valueRead = true;
+                recompute = portfolio != null;
+            } else if (name.equals("portfolio") && portfolio == null) {
+                portfolio = Portfolio.ofMoney(balance, valueCurrentlyInvested);
+                addStocks(portfolio, json);
+                recompute = !valueRead;
+            } else {
+                json.skipValue();
+            }
         }
 
-        return contentBuilder.toString();
-    }
-
-    // EFFECTS: parses portfolio from JSON object and returns it
-    private Portfolio parsePortfolio(JSONObject jsonObject) {
-        double balance = Double.parseDouble(jsonObject.getDouble("balance"));
-        double valueCurrentlyInvested = Double.parseDouble(jsonObject.getDouble("value currently invested"));
-        Portfolio portfolio = new Portfolio(balance, valueCurrentlyInvested);
-        addStocks(portfolio, jsonObject);
+        if (portfolio == null) {
+            return Portfolio.ofMoney(balance, valueCurrentlyInvested);
+        }
+        portfolio.setBalanceMoney(balance);
+        if (recompute) {
+            portfolio.updateValue();
+        }
         return portfolio;
     }
 
     // MODIFIES: portfolio
-    // EFFECTS: parses thingies from JSON object and adds them to portfolio
-    private void addStocks(Portfolio portfolio, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("portfolio");
-        for (Object json : JSONArray) {
-            JSONObject nextStock = (JSONObject) json;
-            addStock(portfolio, nextStock);
+    // EFFECTS: parses stocks from a JSON array and adds them to portfolio
+    private void addStocks(Portfolio portfolio, JsonTokenizer json) throws IOException {
+        if (json.getToken() != Token.BEGIN_ARRAY) {
+            throw new IOException("Expected a list of stocks at byte " + json.getPosition());
+        }
+        while (json.next() == Token.BEGIN_OBJECT) {
+            addStock(portfolio, json);
+        }
+        if (json.getToken() != Token.END_ARRAY) {
+            throw new IOException("Expected a stock at byte " + json.getPosition());
         }
     }
 
     // MODIFIES: portfolio
-    // EFFECTS: parses thingy from JSON object and adds it to portfolio
-    private void addStock(Portfolio portfolio, JSONObject jsonObject) {
-        String symbol = jsonObject.getString("symbol");
-        double stockPriceCurrent = Double.parseDouble(jsonObject.getDouble("stock price current"));
-        double stockPricePrevious = Double.parseDouble(jsonObject.getDouble("stock price previous"));
-        double currentInvestmentWorth = Double.parseDouble(jsonObject.getDouble("current investment worth"));
-        double initialInvestment = Double.parseDouble(jsonObject.getDouble("initial investment"));
-        double sharesBought = Double.parseDouble(jsonObject.getDouble("shares bought"));
-        int daysToInvest = jsonObject.getInt("days to invest");
-        int risk = jsonObject.getInt("risk");
-        double marketCap = Double.parseDouble(jsonObject.getDouble("market cap"));
-        Stock stock = new Stock(symbol, stockPriceCurrent, stockPricePrevious, currentInvestmentWorth,
+    // EFFECTS: parses a stock from the fields of a JSON object and adds it to portfolio
+    private void addStock(Portfolio portfolio, JsonTokenizer json) throws IOException {
+        String symbol = "";
+        double stockPriceCurrent = 0;
+        double stockPricePrevious = 0;
+        long currentInvestmentWorth = 0;
+        long initialInvestment = 0;
+        double sharesBought = 0;
+        int daysToInvest = 0;
+        int risk = 0;
+        long marketCap = 0;
+
+        while (json.next() == Token.NAME) {
+            String name = json.getString();
+            json.next();
+            switch (name) {
+                case "symbol":
+                    symbol = json.getString();
+                    break;
+                case "stock price current":
+                    stockPriceCurrent = readDouble(json);
+                    break;
+                case "stock price previous":
+                    stockPricePrevious = readDouble(json);
+                    break;
+                case "current investment worth":
+                    currentInvestmentWorth = readMoney(json);
+                    break;
+                case "initial investment":
+                    initialInvestment = readMoney(json);
+                    break;
+                case "shares bought":
+                    sharesBought = readDouble(json);
+                    break;
+                case "days to invest":
+                    daysToInvest = (int) readDouble(json);
+                    break;
+                case "risk":
+                    risk = (int) readDouble(json);
+                    break;
+                case "market cap":
+                    marketCap = readMoney(json);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        Stock stock = Stock.ofMoney(symbol, stockPriceCurrent, stockPricePrevious, currentInvestmentWorth,
                 initialInvestment, sharesBought, daysToInvest, risk, marketCap);
-        portfolio.addStock(stock);
+        portfolio.loadStock(stock);
+    }
+
+    // EFFECTS: returns the number json is at, also accepting a number written as a string, as JsonWriter writes NaN
+    //          and the infinities, and NaN written as null, as older versions wrote it;
+    //          throws IOException if it is none of these
+    private double readDouble(JsonTokenizer json) throws IOException {
+        if (json.getToken() == Token.NULL) {
+            return Double.NaN;
+        }
+        if (json.getToken() != Token.NUMBER && json.getToken() != Token.STRING) {
+            throw new IOException("Expected a number at byte " + json.getPosition());
+        }
+        return json.getDouble();
     }
-}
 
+    // EFFECTS: returns the amount of money json is at in micro-units, read exactly from its digits, also accepting
+    //          one written as a string, and null, which older versions wrote for NaN, as zero since an amount of
+    //          money cannot be NaN; throws IOException if it is none of these
+    private long readMoney(JsonTokenizer json) throws IOException {
+        if (json.getToken() == Token.NULL) {
+            return 0;
+        }
+        if (json.getToken() != Token.NUMBER && json.getToken() != Token.STRING) {
+            throw new IOException("Expected an amount of money at byte " + json.getPosition());
+        }
+        return json.getMoney();
+    }
+}
@@ -0,0 +1,413 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Pull parser that reads JSON one token at a time. Only the current buffer and the text of the current token are
+// held in memory, so a file of any size is read in constant space. Small files and other channels are read through
+// a reused buffer; big files are mapped into memory a window at a time.
+public class JsonTokenizer implements Closeable {
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT
+    }
+
+    static final long MAP_THRESHOLD = 16L << 20;
+    private static final long MAP_WINDOW = 64L << 20;
+    private static final int BUFFER_SIZE = 64 << 10;
+
+    // Fields:
+    private final ReadableByteChannel channel;
+    private final FileChannel file;
+    private ByteBuffer buffer;
+    private long bufferStart;
+    private byte[] text;
+    private int textLength;
+    private boolean[] inObject;
+    private int depth;
+    private boolean expectingName;
+    private boolean afterValue;
+    private boolean afterName;
+    private Token token;
+
+    // EFFECTS: opens file for reading; files of MAP_THRESHOLD bytes or more are memory mapped.
+    //          throws IOException if file cannot be opened
+    public JsonTokenizer(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    // EFFECTS: reads JSON from channel, which is closed with this tokenizer
+    public JsonTokenizer(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.file = channel instanceof FileChannel && ((FileChannel) channel).size() >= MAP_THRESHOLD
+                ? (FileChannel) channel : null;
+        this.buffer = file == null ? ByteBuffer.allocate(BUFFER_SIZE).flip() : ByteBuffer.allocate(0);
+        this.text = new byte[64];
+        this.inObject = new boolean[16];
+    }
+
+    // Getters:
+    public Token getToken() {
+        return token;
+    }
+
+    // REQUIRES: the current token is NAME, STRING or NUMBER
+    // EFFECTS: returns the text of the current token
+    public String getString() {
+        return new String(text, 0, textLength, StandardCharsets.UTF_8);
+    }
+
+    // REQUIRES: the current token is NUMBER
+    // EFFECTS: returns the value of the current token; throws IOException if it is not a valid number
+    public double getDouble() throws IOException {
+        try {
+            return Double.parseDouble(getString());
+        } catch (NumberFormatException e) {
+            throw malformed("expected a number but found " + getString());
+        }
+    }
+
+    // REQUIRES: the current token is NUMBER or STRING
+    // EFFECTS: returns the value of the current token as an amount of money in micro-units (see Money), exactly as
+    //          written; throws IOException if it is not a valid number or too large to hold
+    public long getMoney() throws IOException {
+        try {
+            return Money.parse(getString());
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw malformed("expected an amount of money but found " + getString());
+        }
+    }
+
+    // EFFECTS: returns the number of bytes read so far
+    public long getPosition() {
+        return bufferStart + buffer.position();
+    }
+
+    // Methods:
+
+    // MODIFIES: this
+    // EFFECTS: reads the next token and returns it. Commas and colons are checked and skipped; object keys are
+    //          returned as NAME. throws IOException if the input cannot be read or is not valid JSON, including a
+    //          comma before a closing bracket and a name without a value
+    public Token next() throws IOException {
+        int c = skipSpaces();
+        boolean afterComma = false;
+        if (afterValue && depth > 0 && c != '}' && c != ']') {
+            if (c != ',') {
+                throw malformed("expected , or a closing bracket");
+            }
+            c = skipSpaces();
+            expectingName = inObject[depth - 1];
+            afterComma = true;
+        }
+        if ((afterComma || afterName) && (c == '}' || c == ']')) {
+            throw malformed("expected a " + (afterName ? "value" : "name or value") + " before " + (char) c);
+        }
+        afterValue = false;
+        afterName = false;
+
+        if (expectingName) {
+            return readName(c);
+        }
+        switch (c) {
+            case -1:
+                if (depth > 0) {
+                    throw malformed("unexpected end of input");
+                }
+                return token = Token.END_DOCUMENT;
+            case '{':
+                push(true);
+                return token = Token.BEGIN_OBJECT;
+            case '[':
+                push(false);
+                return token = Token.BEGIN_ARRAY;
+            case '}':
+            case ']':
+                return close(c);
+            case '"':
+                readString();
+                return value(Token.STRING);
+            case 't':
+                expectWord("rue");
+                return value(Token.TRUE);
+            case 'f':
+                expectWord("alse");
+                return value(Token.FALSE);
+            case 'n':
+                expectWord("ull");
+                return value(Token.NULL);
+            default:
+                readNumber(c);
+                return value(Token.NUMBER);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips the value that starts with the current token, including everything nested inside it
+    public void skipValue() throws IOException {
+        if (token != Token.BEGIN_OBJECT && token != Token.BEGIN_ARRAY) {
+            return;
+        }
+        int target = depth - 1;
+        while (depth > target) {
+            if (next() == Token.END_DOCUMENT) {
+                throw malformed("unexpected end of input");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next token and throws IOException unless it is expected
+    public void expect(Token expected) throws IOException {
+        if (next() != expected) {
+            throw malformed("expected " + expected + " but found " + token);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads an object key starting at c and the colon after it
+    private Token readName(int c) throws IOException {
+        if (c == '}') {
+            return close(c);
+        }
+        if (c != '"') {
+            throw malformed("expected a quoted name");
+        }
+        readString();
+        if (skipSpaces() != ':') {
+            throw malformed("expected :");
+        }
+        expectingName = false;
+        afterName = true;
+        return token = Token.NAME;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that a value token was read and returns it
+    private Token value(Token value) {
+        afterValue = true;
+        return token = value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens an object or array
+    private void push(boolean object) {
+        if (depth == inObject.length) {
+            inObject = Arrays.copyOf(inObject, depth * 2);
+        }
+        inObject[depth++] = object;
+        expectingName = object;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the innermost object or array with c
+    private Token close(int c) throws IOException {
+        if (depth == 0 || inObject[depth - 1] != (c == '}')) {
+            throw malformed("unexpected " + (char) c);
+        }
+        depth--;
+        expectingName = false;
+        afterValue = true;
+        return token = c == '}' ? Token.END_OBJECT : Token.END_ARRAY;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a string after its opening quote into text, decoding escapes
+    private void readString() throws IOException {
+        textLength = 0;
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            } else if (c == -1) {
+                throw malformed("unterminated string");
+            } else if (c == '\\') {
+                readEscape();
+            } else {
+                append(c);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the escape after a backslash and appends the character it stands for to text
+    private void readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                append(c);
+                break;
+            case 'b':
+                append('\b');
+                break;
+            case 'f':
+                append('\f');
+                break;
+            case 'n':
+                append('\n');
+                break;
+            case 'r':
+                append('\r');
+                break;
+            case 't':
+                append('\t');
+                break;
+            case 'u':
+                appendCodePoint(readUnicodeEscape());
+                break;
+            default:
+                throw malformed("bad escape");
+        }
+    }
+
+    // EFFECTS: reads the four hex digits of a \\u escape, and a following low surrogate if it starts a pair,
+    //          and returns the code point
+    private int readUnicodeEscape() throws IOException {
+        int unit = readHex();
+        if (Character.isHighSurrogate((char) unit)) {
+            if (read() != '\\' || read() != 'u') {
+                throw malformed("unpaired surrogate");
+            }
+            return Character.toCodePoint((char) unit, (char) readHex());
+        }
+        return unit;
+    }
+
+    // EFFECTS: reads four hex digits and returns their value
+    private int readHex() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw malformed("bad unicode escape");
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the characters of a number starting with c into text
+    private void readNumber(int c) throws IOException {
+        if (!isNumberCharacter(c)) {
+            throw malformed(c == -1 ? "unexpected end of input" : "unexpected " + (char) c);
+        }
+        textLength = 0;
+        append(c);
+        while (isNumberCharacter(peek())) {
+            append(read());
+        }
+    }
+
+    // EFFECTS: returns true if c can be part of a number
+    private static boolean isNumberCharacter(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    // EFFECTS: reads the rest of true, false or null and throws IOException if it is not word
+    private void expectWord(String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (read() != word.charAt(i)) {
+                throw malformed("unknown word");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends one byte to text
+    private void append(int b) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, textLength * 2);
+        }
+        text[textLength++] = (byte) b;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends codePoint to text as UTF-8
+    private void appendCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            append(codePoint);
+        } else if (codePoint < 0x800) {
+            append(0xC0 | (codePoint >> 6));
+            append(0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            append(0xE0 | (codePoint >> 12));
+            append(0x80 | ((codePoint >> 6) & 0x3F));
+            append(0x80 | (codePoint & 0x3F));
+        } else {
+            append(0xF0 | (codePoint >> 18));
+            append(0x80 | ((codePoint >> 12) & 0x3F));
+            append(0x80 | ((codePoint >> 6) & 0x3F));
+            append(0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips white space and returns the next byte, or -1 at the end of input
+    private int skipSpaces() throws IOException {
+        int c = read();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            c = read();
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next byte and moves past it, or -1 at the end of input
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next byte without moving past it, or -1 at the end of input
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads the next part of the input into the buffer, returning false if there is none left
+    private boolean fill() throws IOException {
+        bufferStart += buffer.position();
+        if (file != null) {
+            long size = file.size();
+            if (bufferStart >= size) {
+                return false;
+            }
+            buffer = file.map(FileChannel.MapMode.READ_ONLY, bufferStart, Math.min(MAP_WINDOW, size - bufferStart));
+            return true;
+        }
+        buffer.clear();
+        int read = channel.read(buffer);
+        while (read == 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        return read > 0;
+    }
+
+    // EFFECTS: returns an IOException describing what is wrong with the input at the current position
+    private IOException malformed(String problem) {
+        return new IOException("Malformed JSON at byte " + getPosition() + ": " + problem);
+    }
+}
@@ -1,51 +1,241 @@
 package objectOrientedProgram.StockAccountManagement.main.persistance;
 
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
 import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
-import objectOrientedProgram.StockAccountManagement.test.model.JSONObject;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
+// Writes a portfolio as JSON by walking its fields and encoding them straight into a reused buffer that is flushed to
+// the file whenever it fills up, so saving never builds a tree or a string of the whole portfolio.
 public class JsonWriter {
     private static final int TAB = 4;
-    private PrintWriter writer;
+    private static final int BUFFER_SIZE = 256 << 10;
+
     private final String destination;
+    private final boolean compact;
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+    private int indent;
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write indented JSON to destination file
     public JsonWriter(String destination) {
+        this(destination, false);
+    }
 
+    // EFFECTS: constructs writer to write to destination file, without any indentation or line breaks if compact
+    public JsonWriter(String destination, boolean compact) {
         this.destination = destination;
+        this.compact = compact;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
-    // be opened for writing
-    public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+    // EFFECTS: opens writer, replacing anything already in the destination file; throws IOException if destination
+    // file cannot be opened for writing
+    public void open() throws IOException {
+        try {
+            channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (InvalidPathException e) {
+            throw new IOException("Cannot open " + destination + ": " + e.getReason(), e);
+        }
+        buffer.clear();
+        indent = 0;
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of portfolio to file
-    public void write(Portfolio portfolio) {
-        JSONObject json = portfolio.toJson();
-        saveToFile(json.toString(TAB));
+    // EFFECTS: writes JSON representation of portfolio to file; throws IOException if it cannot be written
+    public void write(Portfolio portfolio) throws IOException {
+        beginObject('{');
+        name("balance");
+        money(portfolio.getBalanceMoney());
+        next();
+        name("value currently invested");
+        money(portfolio.getValueCurrentlyInvestedMoney());
+        next();
+        name("portfolio");
+        if (portfolio.size() == 0) {
+            ascii("[]");
+        } else {
+            beginObject('[');
+            for (int i = 0; i < portfolio.size(); i++) {
+                if (i > 0) {
+                    next();
+                }
+                writeStock(portfolio.getStock(i));
+            }
+            endObject(']');
+        }
+        endObject('}');
+        flush();
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
+    // EFFECTS: writes whatever is still buffered and closes writer; throws IOException if it cannot be written
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
 
-        writer.close();
+    // MODIFIES: this
+    // EFFECTS: writes the JSON representation of stock, with the same fields as Stock.toJson
+    private void writeStock(Stock stock) throws IOException {
+        beginObject('{');
+        name("symbol");
+        string(stock.getSymbol());
+        next();
+        name("stock price current");
+        number(stock.getStockPriceCurrent());
+        next();
+        name("stock price previous");
+        number(stock.getStockPricePrevious());
+        next();
+        name("current investment worth");
+        money(stock.getCurrentInvestmentWorthMoney());
+        next();
+        name("initial investment");
+        money(stock.getInitialInvestmentMoney());
+        next();
+        name("shares bought");
+        number(stock.getSharesBought());
+        next();
+        name("days to invest");
+        ascii(Integer.toString(stock.getDaysToInvest()));
+        next();
+        name("risk");
+        ascii(Integer.toString(stock.getRisk()));
+        next();
+        name("market cap");
+        money(stock.getMarketCapMoney());
+        endObject('}');
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
+    // EFFECTS: opens an object or array with bracket and starts its first line
+    private void beginObject(char bracket) throws IOException {
+        put(bracket);
+        indent++;
+        newLine();
+    }
 
-        writer.print(json);
+    // MODIFIES: this
+    // EFFECTS: closes an object or array with bracket on its own line
+    private void endObject(char bracket) throws IOException {
+        indent--;
+        newLine();
+        put(bracket);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: separates one value from the next
+    private void next() throws IOException {
+        put(',');
+        newLine();
     }
-}
 
+    // MODIFIES: this
+    // EFFECTS: writes a field name and its colon
+    private void name(String name) throws IOException {
+        string(name);
+        put(':');
+        if (!compact) {
+            put(' ');
+        }
+    }
 
+    // MODIFIES: this
+    // EFFECTS: starts a new line at the current indentation, unless compact
+    private void newLine() throws IOException {
+        if (!compact) {
+            put('\n');
+            for (int i = 0; i < indent * TAB; i++) {
+                put(' ');
+            }
+        }
+    }
 
+    // MODIFIES: this
+    // EFFECTS: writes value as a JSON number, or as the string "NaN", "Infinity" or "-Infinity" if it is not a
+    //          finite number, which JSON has no number for
+    private void number(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            string(Double.toString(value));
+        } else {
+            ascii(Double.toString(value));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an amount of money in micro-units as an exact decimal number of dollars
+    private void money(long amount) throws IOException {
+        ascii(Money.toString(amount));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes text as a quoted JSON string in UTF-8, escaping quotes, backslashes and control characters
+    private void string(String text) throws IOException {
+        put('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                put('\\');
+                put(c);
+            } else if (c < 0x20) {
+                ascii(String.format("\\u%04x", (int) c));
+            } else if (c < 0x80) {
+                put(c);
+            } else {
+                int end = Character.isHighSurrogate(c) && i + 1 < text.length() ? i + 2 : i + 1;
+                byte[] bytes = text.substring(i, end).getBytes(StandardCharsets.UTF_8);
+                for (byte b : bytes) {
+                    put(b);
+                }
+                i = end - 1;
+            }
+        }
+        put('"');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes text, which only has ASCII characters
+    private void ascii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            put(text.charAt(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes one ASCII character
+    private void put(char c) throws IOException {
+        put((byte) c);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds b to the buffer, flushing it first if it is full
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes everything in the buffer to the file and empties it
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,158 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.model.StockSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// The stocks of a mapped snapshot, decoded one at a time straight from its columns. Opening one only walks the symbol
+// dictionary and the symbol column to build an index from each symbol to the rows holding it: the offset of every
+// symbol in the dictionary, an open addressing table over the hashes of their bytes, and every row of a symbol kept
+// together in one array. Symbols are only turned into strings when a stock is decoded.
+public class LazySnapshot implements StockSource {
+    private final ByteBuffer snapshot;
+    private final SnapshotLayout layout;
+    private final int[] symbolOffsets;
+    private final int[] firstRows;
+    private final int[] rows;
+    private final int[] table;
+
+    // EFFECTS: opens the stocks of snapshot, which has layout; throws IOException if the dictionary is malformed or a
+    //          stock refers to a symbol that is not in it
+    LazySnapshot(ByteBuffer snapshot, SnapshotLayout layout) throws IOException {
+        this.snapshot = snapshot;
+        this.layout = layout;
+        int symbolCount = layout.getSymbolCount();
+        this.symbolOffsets = new int[symbolCount];
+        this.firstRows = new int[symbolCount + 1];
+        this.rows = new int[layout.getCount()];
+        this.table = new int[Integer.highestOneBit(Math.max(symbolCount, 1) * 2) * 2];
+
+        int position = (int) layout.getDictionaryOffset();
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int length = snapshot.getShort(position);
+            if (length < 0 || position + Short.BYTES + length > layout.getDoubleColumnOffset(0)) {
+                throw new IOException("Bad symbol dictionary in portfolio snapshot");
+            }
+            symbolOffsets[symbol] = position;
+            int slot = start(hash(snapshot, position + Short.BYTES, length));
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = symbol + 1;
+            position += Short.BYTES + length;
+        }
+
+        int symbolColumn = (int) layout.getIntColumnOffset(SnapshotLayout.SYMBOL);
+        for (int row = 0; row < rows.length; row++) {
+            int symbol = snapshot.getInt(symbolColumn + row * Integer.BYTES);
+            if (symbol < 0 || symbol >= symbolCount) {
+                throw new IOException("Bad symbol in portfolio snapshot");
+            }
+            firstRows[symbol + 1]++;
+        }
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            firstRows[symbol + 1] += firstRows[symbol];
+        }
+        int[] next = Arrays.copyOf(firstRows, symbolCount);
+        for (int row = 0; row < rows.length; row++) {
+            rows[next[snapshot.getInt(symbolColumn + row * Integer.BYTES)]++] = row;
+        }
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+
+    @Override
+    public String getSymbol(int row) {
+        int position = symbolOffsets[getInt(SnapshotLayout.SYMBOL, row)];
+        byte[] bytes = new byte[snapshot.getShort(position)];
+        snapshot.get(position + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int[] getRows(String symbol) {
+        int entry = table[find(symbol.getBytes(StandardCharsets.UTF_8))];
+        if (entry == 0) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(rows, firstRows[entry - 1], firstRows[entry]);
+    }
+
+    @Override
+    public long getInvestmentWorth(int row) {
+        return getMoney(SnapshotLayout.INVESTMENT_WORTH, row);
+    }
+
+    @Override
+    public Stock load(int row) {
+        return Stock.ofMoney(getSymbol(row), getDouble(SnapshotLayout.PRICE_CURRENT, row),
+                getDouble(SnapshotLayout.PRICE_PREVIOUS, row), getMoney(SnapshotLayout.INVESTMENT_WORTH, row),
+                getMoney(SnapshotLayout.INITIAL_INVESTMENT, row), getDouble(SnapshotLayout.SHARES_BOUGHT, row),
+                getInt(SnapshotLayout.DAYS_TO_INVEST, row), getInt(SnapshotLayout.RISK, row),
+                getMoney(SnapshotLayout.MARKET_CAP, row));
+    }
+
+    // EFFECTS: returns the slot of the table to start looking for a symbol with hash from
+    private int start(int hash) {
+        return (hash ^ hash >>> 16) & (table.length - 1);
+    }
+
+    // EFFECTS: returns the slot of the table holding the symbol whose UTF-8 bytes are bytes, or the empty slot
+    //          where it would go. Symbols in the dictionary are distinct, so the first match is the only one
+    private int find(byte[] bytes) {
+        int slot = start(hash(ByteBuffer.wrap(bytes), 0, bytes.length));
+        while (table[slot] != 0 && !matches(table[slot] - 1, bytes)) {
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return slot;
+    }
+
+    // EFFECTS: returns true if the symbol in the dictionary is made of bytes
+    private boolean matches(int symbol, byte[] bytes) {
+        int position = symbolOffsets[symbol];
+        if (snapshot.getShort(position) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (snapshot.get(position + Short.BYTES + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns a well mixed hash of the length bytes of in from offset
+    private static int hash(ByteBuffer in, int offset, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = hash * 31 + in.get(offset + i);
+        }
+        return hash * 0x9E3779B9;
+    }
+
+    // EFFECTS: returns the entry for row in a double column
+    private double getDouble(int column, int row) {
+        return snapshot.getDouble((int) layout.getDoubleColumnOffset(column) + row * Double.BYTES);
+    }
+
+    // EFFECTS: returns the entry for row in a money column, in micro-units
+    private long getMoney(int column, int row) {
+        if (!layout.hasMoneyColumns()) {
+            return Money.of(getDouble(column, row));
+        }
+        return snapshot.getLong((int) layout.getDoubleColumnOffset(column) + row * Long.BYTES);
+    }
+
+    // EFFECTS: returns the entry for row in an int column
+    private int getInt(int column, int row) {
+        return snapshot.getInt((int) layout.getIntColumnOffset(column) + row * Integer.BYTES);
+    }
+}
@@ -0,0 +1,377 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.PortfolioListener;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+// Keeps a portfolio saved in a directory as a checkpoint snapshot plus an append-only journal of every change made
+// since. Changes are buffered in memory as they happen and written with one fsync per commit, so saving after a
+// deposit or a new stock appends a few bytes instead of rewriting the whole portfolio. Several changes to the same
+// stock before a commit are written once. When the journal grows past CHECKPOINT_SIZE a new checkpoint is taken and
+// the journal starts over.
+//
+// Journal file: magic, generation of the checkpoint it follows, then records of
+//   int length, byte type, payload, int CRC32 of type and payload
+// Replay stops at the first record that is incomplete or fails its check, which is where a crash cut it off.
+// Amounts of money are longs in micro-units; a journal with OLD_JOURNAL_MAGIC was written when they were doubles and
+// is replayed and then replaced by a checkpoint.
+public class PortfolioJournal implements PortfolioListener, Closeable {
+    public static final String CHECKPOINT_FILE = "checkpoint.snap";
+    public static final String JOURNAL_FILE = "journal.log";
+
+    static final long CHECKPOINT_SIZE = 32L << 20;
+    private static final int JOURNAL_MAGIC = 0x504A4E32;
+    private static final int OLD_JOURNAL_MAGIC = 0x504A4E4C;
+    private static final int JOURNAL_HEADER_SIZE = 12;
+    private static final int PENDING_SIZE = 64 << 10;
+    private static final int RECORD_OVERHEAD = Integer.BYTES + 1 + Integer.BYTES;
+
+    private static final byte BALANCE = 1;
+    private static final byte ADD = 2;
+    private static final byte CHANGE = 3;
+    private static final byte SELL = 4;
+    private static final byte SELL_MANY = 5;
+    private static final byte SELL_ALL = 6;
+
+    // Fields:
+    private final Path directory;
+    private final BitSet changedSlots;
+    private final CRC32 checksum;
+    private Portfolio portfolio;
+    private FileChannel journal;
+    private ByteBuffer pending;
+    private boolean balanceChanged;
+    private long generation;
+    private boolean replayedOldJournal;
+
+    // EFFECTS: creates a journal kept in directory; nothing is read or written until load or attach
+    public PortfolioJournal(Path directory) {
+        this.directory = directory;
+        this.changedSlots = new BitSet();
+        this.checksum = new CRC32();
+        this.pending = ByteBuffer.allocate(PENDING_SIZE);
+    }
+
+    // Getters:
+    public long getGeneration() {
+        return generation;
+    }
+
+    // Methods:
+
+    // MODIFIES: this
+    // EFFECTS: reads the last checkpoint in the directory (an empty portfolio if there is none), replays every
+    //          complete journal record written after it, and returns the portfolio, now recorded by this journal.
+    //          A torn record at the end of the journal is cut off.
+    //          throws IOException if the files cannot be read or written
+    public synchronized Portfolio load() throws IOException {
+        Files.createDirectories(directory);
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            SnapshotReader reader = new SnapshotReader(checkpoint.toString());
+            portfolio = reader.read();
+            generation = reader.getGeneration();
+        } else {
+            portfolio = new Portfolio();
+            generation = 0;
+        }
+
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        long end = Files.exists(journalFile) ? replay(journalFile) : -1;
+        if (end < 0) {
+            startJournal();
+        } else if (replayedOldJournal) {
+            checkpoint();
+        } else {
+            journal = FileChannel.open(journalFile, StandardOpenOption.WRITE);
+            journal.truncate(end);
+            journal.position(end);
+        }
+        portfolio.setListener(this);
+        return portfolio;
+    }
+
+    // MODIFIES: this, portfolio
+    // EFFECTS: starts recording portfolio in the directory, replacing whatever was saved there, by taking a
+    //          checkpoint of it right away; throws IOException if it cannot be written
+    public synchronized void attach(Portfolio portfolio) throws IOException {
+        Files.createDirectories(directory);
+        if (this.portfolio != null) {
+            this.portfolio.setListener(null);
+        }
+        this.portfolio = portfolio;
+        portfolio.setListener(this);
+        checkpoint();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every change made since the last commit to the journal and forces it to disk, taking a new
+    //          checkpoint instead if the journal has grown past CHECKPOINT_SIZE;
+    //          throws IOException if it cannot be written
+    public synchronized void commit() throws IOException {
+        writeChanges();
+        writePending();
+        if (journal.size() >= CHECKPOINT_SIZE) {
+            checkpoint();
+        } else {
+            journal.force(false);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a snapshot of the whole portfolio under the next generation and starts an empty journal after
+    //          it. The snapshot replaces the old one atomically, so a crash leaves either the old checkpoint with its
+    //          journal or the new one; throws IOException if it cannot be written
+    public synchronized void checkpoint() throws IOException {
+        changedSlots.clear();
+        balanceChanged = false;
+        pending.clear();
+
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        SnapshotWriter writer = new SnapshotWriter(temporary.toString());
+        writer.setGeneration(generation + 1);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+        sync(temporary);
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        generation++;
+
+        startJournal();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: commits and closes the journal, and stops recording the portfolio
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (journal != null && journal.isOpen()) {
+                commit();
+            }
+        } finally {
+            if (portfolio != null) {
+                portfolio.setListener(null);
+            }
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void balanceChanged(long balance) {
+        balanceChanged = true;
+    }
+
+    @Override
+    public synchronized void stockAdded(Stock stock) {
+        writeChanges();
+        int record = beginRecord(ADD, StockRecord.size(stock));
+        StockRecord.put(pending, stock);
+        endRecord(record);
+    }
+
+    @Override
+    public synchronized void stockChanged(Stock stock, int slot) {
+        changedSlots.set(slot);
+    }
+
+    @Override
+    public synchronized void stockSold(int slot) {
+        writeChanges();
+        int record = beginRecord(SELL, Integer.BYTES);
+        pending.putInt(slot);
+        endRecord(record);
+    }
+
+    @Override
+    public synchronized void stocksSold(int[] slots) {
+        writeChanges();
+        int record = beginRecord(SELL_MANY, Integer.BYTES * (slots.length + 1));
+        pending.putInt(slots.length);
+        for (int slot : slots) {
+            pending.putInt(slot);
+        }
+        endRecord(record);
+    }
+
+    @Override
+    public synchronized void allStocksSold() {
+        changedSlots.clear();
+        endRecord(beginRecord(SELL_ALL, 0));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a record of every stock that changed since the last one was added, and of the balance if it
+    //          changed, to the pending records
+    private void writeChanges() {
+        List<Stock> stocks = portfolio.getPortfolioList();
+        for (int slot = changedSlots.nextSetBit(0); slot >= 0; slot = changedSlots.nextSetBit(slot + 1)) {
+            if (slot < stocks.size()) {
+                Stock stock = stocks.get(slot);
+                int record = beginRecord(CHANGE, Integer.BYTES + StockRecord.size(stock));
+                pending.putInt(slot);
+                StockRecord.put(pending, stock);
+                endRecord(record);
+            }
+        }
+        changedSlots.clear();
+
+        if (balanceChanged) {
+            int record = beginRecord(BALANCE, Long.BYTES);
+            pending.putLong(portfolio.getBalanceMoney());
+            endRecord(record);
+            balanceChanged = false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes room for a record with a payload of size bytes in the pending records, puts its length and
+    //          type, and returns where the record starts. The payload goes into pending next.
+    private int beginRecord(byte type, int size) {
+        int needed = RECORD_OVERHEAD + size;
+        if (pending.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        int start = pending.position();
+        pending.putInt(1 + size);
+        pending.put(type);
+        return start;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts the checksum after the record that starts at start
+    private void endRecord(int start) {
+        int body = start + Integer.BYTES;
+        checksum.reset();
+        checksum.update(pending.array(), body, pending.position() - body);
+        pending.putInt((int) checksum.getValue());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the pending records to the end of the journal
+    private void writePending() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            journal.write(pending);
+        }
+        pending.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the journal with an empty one for the current generation
+    private void startJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+        Path temporary = directory.resolve(JOURNAL_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+            header.putInt(JOURNAL_MAGIC).putLong(generation).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        }
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        Files.move(temporary, journalFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        journal = FileChannel.open(journalFile, StandardOpenOption.WRITE);
+        journal.position(journal.size());
+        pending.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies every complete record of journalFile to the portfolio and returns the offset just after the
+    //          last one, or -1 if journalFile does not follow the loaded checkpoint. Notes whether it was a journal
+    //          with amounts of money as doubles
+    private long replay(Path journalFile) throws IOException {
+        ByteBuffer log = SnapshotReader.map(journalFile.toString());
+        if (log.limit() < JOURNAL_HEADER_SIZE || log.getLong(4) != generation
+                || log.getInt(0) != JOURNAL_MAGIC && log.getInt(0) != OLD_JOURNAL_MAGIC) {
+            return -1;
+        }
+        replayedOldJournal = log.getInt(0) == OLD_JOURNAL_MAGIC;
+        int position = JOURNAL_HEADER_SIZE;
+        while (log.limit() - position >= RECORD_OVERHEAD) {
+            int length = log.getInt(position);
+            if (length < 1 || length > log.limit() - position - RECORD_OVERHEAD + 1) {
+                break;
+            }
+            byte[] body = new byte[length];
+            log.position(position + Integer.BYTES);
+            log.get(body);
+            checksum.reset();
+            checksum.update(body, 0, length);
+            if (log.getInt() != (int) checksum.getValue()) {
+                break;
+            }
+            apply(ByteBuffer.wrap(body), !replayedOldJournal);
+            position += RECORD_OVERHEAD + length - 1;
+        }
+        return position;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies one journal record, starting with its type, to the portfolio; money is false for a record
+    //          with amounts of money as doubles
+    private void apply(ByteBuffer record, boolean money) throws IOException {
+        List<Stock> stocks = portfolio.getPortfolioList();
+        byte type = record.get();
+        if (type == BALANCE) {
+            portfolio.setBalanceMoney(StockRecord.getMoney(record, money));
+        } else if (type == ADD) {
+            portfolio.addStock(StockRecord.get(record, money));
+        } else if (type == CHANGE) {
+            int slot = record.getInt();
+            stocks.get(checkSlot(slot)).restore(StockRecord.get(record, money));
+        } else if (type == SELL) {
+            portfolio.sellStock(stocks.get(checkSlot(record.getInt())));
+        } else if (type == SELL_MANY) {
+            Set<Stock> sold = Collections.newSetFromMap(new IdentityHashMap<>());
+            int count = record.getInt();
+            for (int i = 0; i < count; i++) {
+                sold.add(stocks.get(checkSlot(record.getInt())));
+            }
+            portfolio.sellMatching(sold::contains);
+        } else if (type == SELL_ALL) {
+            portfolio.sellAll();
+        } else {
+            throw new IOException("Unknown journal record " + type);
+        }
+    }
+
+    // EFFECTS: returns slot, throwing IOException if there is no stock there
+    private int checkSlot(int slot) throws IOException {
+        if (slot < 0 || slot >= portfolio.size()) {
+            throw new IOException("Journal refers to a stock that does not exist");
+        }
+        return slot;
+    }
+
+    // EFFECTS: forces the contents of file to disk
+    private static void sync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+}
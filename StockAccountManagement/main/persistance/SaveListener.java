@@ -0,0 +1,13 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import java.io.IOException;
+
+// Told how each save made by a SaveService went. Called on the save thread, not the thread that asked for the save.
+public interface SaveListener {
+    // EFFECTS: called once destination holds the saved portfolio, with the nanoseconds from the first of the requests
+    //          it covered until it was safely on disk, and how many requests it covered
+    void saved(String destination, long latencyNanos, int requests);
+
+    // EFFECTS: called when a save could not be written; destination still holds what it held before
+    void saveFailed(String destination, IOException e);
+}
@@ -0,0 +1,161 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Saves portfolios as JSON on a thread of its own, so asking for a save never waits on the disk. Only a portfolio
+// changed since it was last saved is copied and queued. A save waits COALESCE_MILLIS before writing and takes in any
+// requests made meanwhile, so a burst of changes is written once, with the latest state. Each save is written to a
+// temporary file, forced to disk and renamed over the destination, so a crash leaves the old file or the new one but
+// never half of one.
+public class SaveService implements Closeable {
+    static final long COALESCE_MILLIS = 200;
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+
+    private final String destination;
+    private final SaveListener listener;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private Portfolio requested;
+    private long requestedModifications;
+    private Portfolio pending;
+    private long pendingSince;
+    private int pendingRequests;
+    private boolean scheduled;
+    private volatile long lastLatencyNanos;
+
+    // EFFECTS: constructs a service that saves to destination file and tells listener how each save went
+    public SaveService(String destination, SaveListener listener) {
+        this.destination = destination;
+        this.listener = listener;
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    // Getters:
+
+    // EFFECTS: returns the nanoseconds the last successful save took from request until it was on disk, or 0 if
+    //          nothing has been saved yet
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    // EFFECTS: returns true if portfolio has changed since it was last saved or marked as saved
+    public synchronized boolean hasUnsavedChanges(Portfolio portfolio) {
+        return portfolio != requested || portfolio.getModificationCount() != requestedModifications;
+    }
+
+    // Methods:
+
+    // REQUIRES: portfolio is not being changed by another thread
+    // MODIFIES: this
+    // EFFECTS: queues a copy of portfolio to be saved and returns true, or returns false without doing anything if
+    //          it has not changed since it was last saved
+    public synchronized boolean requestSave(Portfolio portfolio) {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("Save service is closed");
+        }
+        if (!hasUnsavedChanges(portfolio)) {
+            return false;
+        }
+        requested = portfolio;
+        requestedModifications = portfolio.getModificationCount();
+        if (pending == null) {
+            pendingSince = System.nanoTime();
+            pendingRequests = 0;
+        }
+        pending = portfolio.copy();
+        pendingRequests++;
+        if (!scheduled) {
+            scheduled = true;
+            executor.schedule(this::writePending, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that portfolio, as it is now, is what the destination file holds, such as right after it was
+    //          read from there
+    public synchronized void markSaved(Portfolio portfolio) {
+        requested = portfolio;
+        requestedModifications = portfolio.getModificationCount();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes any save still queued right away, waits for it to finish and stops the save thread
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            executor.execute(this::writePending);
+            executor.shutdown();
+        }
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes the queued save, if there still is one, writes it and tells the listener how it went
+    private void writePending() {
+        Portfolio portfolio;
+        long since;
+        int requests;
+        synchronized (this) {
+            portfolio = pending;
+            since = pendingSince;
+            requests = pendingRequests;
+            pending = null;
+            scheduled = false;
+        }
+        if (portfolio == null) {
+            return;
+        }
+
+        try {
+            write(portfolio);
+            lastLatencyNanos = System.nanoTime() - since;
+            listener.saved(destination, lastLatencyNanos, requests);
+        } catch (IOException e) {
+            synchronized (this) {
+                if (pending == null) {
+                    requested = null;
+                }
+            }
+            listener.saveFailed(destination, e);
+        }
+    }
+
+    // EFFECTS: writes portfolio to a temporary file, forces it to disk and renames it over the destination;
+    //          throws IOException if it cannot be written
+    private void write(Portfolio portfolio) throws IOException {
+        Path file = Paths.get(destination);
+        Path temporary = Paths.get(destination + ".tmp");
+        JsonWriter writer = new JsonWriter(temporary.toString());
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
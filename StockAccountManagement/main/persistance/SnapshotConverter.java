@@ -0,0 +1,45 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+
+import java.io.IOException;
+
+// Converts saved portfolios between JSON and binary snapshots, deciding the direction from the file extensions.
+public class SnapshotConverter {
+    public static final String SNAPSHOT_EXTENSION = ".snap";
+
+    // EFFECTS: reads the portfolio saved as JSON in source and writes it as a snapshot to destination;
+    //          throws IOException if either file cannot be read or written
+    public static void jsonToSnapshot(String source, String destination) throws IOException {
+        Portfolio portfolio = new JsonReader(source).read();
+        SnapshotWriter writer = new SnapshotWriter(destination);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+    }
+
+    // EFFECTS: reads the portfolio saved as a snapshot in source and writes it as JSON to destination;
+    //          throws IOException if either file cannot be read or written
+    public static void snapshotToJson(String source, String destination) throws IOException {
+        Portfolio portfolio = new SnapshotReader(source).read();
+        JsonWriter writer = new JsonWriter(destination);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+    }
+
+    // EFFECTS: converts <source> to <destination>, from a snapshot to JSON if source ends in .snap, otherwise from
+    //          JSON to a snapshot
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: SnapshotConverter <source> <destination>");
+            return;
+        }
+        if (args[0].endsWith(SNAPSHOT_EXTENSION)) {
+            snapshotToJson(args[0], args[1]);
+        } else {
+            jsonToSnapshot(args[0], args[1]);
+        }
+        System.out.println("Converted " + args[0] + " to " + args[1]);
+    }
+}
@@ -0,0 +1,177 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Layout of a binary portfolio snapshot. All numbers are big endian.
+//
+//   header      magic, version, generation, balance, value currently invested, stock count, symbol count and
+//               dictionary size (HEADER_SIZE bytes)
+//   dictionary  every distinct symbol once, as a short byte length followed by its UTF-8 bytes
+//   columns     padded to 8 bytes, then one column per stock field with an entry for every stock in order: the
+//               8 byte columns first, then the int columns (index into the dictionary, days to invest, risk)
+//
+// From version 2 the balance, the value and the money columns (see isMoney) are longs in micro-units (see Money);
+// in version 1 they were doubles. The other 8 byte columns are doubles in both.
+public class SnapshotLayout {
+    public static final int MAGIC = 0x50534E50;
+    public static final short VERSION = 2;
+    public static final short MONEY_VERSION = 2;
+    public static final int HEADER_SIZE = 48;
+
+    public static final int PRICE_CURRENT = 0;
+    public static final int PRICE_PREVIOUS = 1;
+    public static final int INVESTMENT_WORTH = 2;
+    public static final int INITIAL_INVESTMENT = 3;
+    public static final int SHARES_BOUGHT = 4;
+    public static final int MARKET_CAP = 5;
+    public static final int DOUBLE_COLUMNS = 6;
+
+    public static final int SYMBOL = 0;
+    public static final int DAYS_TO_INVEST = 1;
+    public static final int RISK = 2;
+    public static final int INT_COLUMNS = 3;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int BALANCE_OFFSET = 16;
+    private static final int VALUE_OFFSET = 24;
+    private static final int COUNT_OFFSET = 32;
+    private static final int SYMBOL_COUNT_OFFSET = 36;
+    private static final int DICTIONARY_SIZE_OFFSET = 40;
+
+    // Fields:
+    private final short version;
+    private final long generation;
+    private final long balance;
+    private final long valueCurrentlyInvested;
+    private final int count;
+    private final int symbolCount;
+    private final int dictionarySize;
+
+    // EFFECTS: describes a snapshot of this version of count stocks whose symbols take dictionarySize bytes, with
+    //          the balance and value currently invested in micro-units
+    public SnapshotLayout(long generation, long balance, long valueCurrentlyInvested, int count, int symbolCount,
+                          int dictionarySize) {
+        this(VERSION, generation, balance, valueCurrentlyInvested, count, symbolCount, dictionarySize);
+    }
+
+    private SnapshotLayout(short version, long generation, long balance, long valueCurrentlyInvested, int count,
+                           int symbolCount, int dictionarySize) {
+        this.version = version;
+        this.generation = generation;
+        this.balance = balance;
+        this.valueCurrentlyInvested = valueCurrentlyInvested;
+        this.count = count;
+        this.symbolCount = symbolCount;
+        this.dictionarySize = dictionarySize;
+    }
+
+    // EFFECTS: reads the header at the start of snapshot; throws IOException if it is not a snapshot, its version is
+    //          not one from 1 to VERSION, or it is shorter than its header says
+    public static SnapshotLayout readHeader(ByteBuffer snapshot) throws IOException {
+        if (snapshot.limit() < HEADER_SIZE || snapshot.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("Not a portfolio snapshot");
+        }
+        short version = snapshot.getShort(VERSION_OFFSET);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        boolean money = version >= MONEY_VERSION;
+        SnapshotLayout layout = new SnapshotLayout(version, snapshot.getLong(GENERATION_OFFSET),
+                money ? snapshot.getLong(BALANCE_OFFSET) : Money.of(snapshot.getDouble(BALANCE_OFFSET)),
+                money ? snapshot.getLong(VALUE_OFFSET) : Money.of(snapshot.getDouble(VALUE_OFFSET)),
+                snapshot.getInt(COUNT_OFFSET), snapshot.getInt(SYMBOL_COUNT_OFFSET),
+                snapshot.getInt(DICTIONARY_SIZE_OFFSET));
+        if (layout.count < 0 || layout.symbolCount < 0 || layout.dictionarySize < 0
+                || snapshot.limit() < layout.getSize()) {
+            throw new IOException("Truncated portfolio snapshot");
+        }
+        return layout;
+    }
+
+    // EFFECTS: returns true if column, one of the 8 byte columns, holds an amount of money
+    public static boolean isMoney(int column) {
+        return column == INVESTMENT_WORTH || column == INITIAL_INVESTMENT || column == MARKET_CAP;
+    }
+
+    // Getters:
+    public short getVersion() {
+        return version;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    // EFFECTS: returns the balance in micro-units
+    public long getBalance() {
+        return balance;
+    }
+
+    // EFFECTS: returns the value currently invested in micro-units
+    public long getValueCurrentlyInvested() {
+        return valueCurrentlyInvested;
+    }
+
+    // EFFECTS: returns true if the money columns hold longs in micro-units rather than doubles
+    public boolean hasMoneyColumns() {
+        return version >= MONEY_VERSION;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+
+    // EFFECTS: returns the offset of the first dictionary entry
+    public long getDictionaryOffset() {
+        return HEADER_SIZE;
+    }
+
+    // REQUIRES: 0 <= column < DOUBLE_COLUMNS
+    // EFFECTS: returns the offset of the first entry of a double column
+    public long getDoubleColumnOffset(int column) {
+        return getColumnsOffset() + (long) column * count * Double.BYTES;
+    }
+
+    // REQUIRES: 0 <= column < INT_COLUMNS
+    // EFFECTS: returns the offset of the first entry of an int column
+    public long getIntColumnOffset(int column) {
+        return getDoubleColumnOffset(DOUBLE_COLUMNS) + (long) column * count * Integer.BYTES;
+    }
+
+    // EFFECTS: returns the size of the whole snapshot in bytes
+    public long getSize() {
+        return getIntColumnOffset(INT_COLUMNS);
+    }
+
+    // Methods:
+
+    // MODIFIES: out
+    // REQUIRES: this describes a snapshot of the current version
+    // EFFECTS: puts the header into out at its current position
+    public void writeHeader(ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putShort((short) 0);
+        out.putLong(generation);
+        out.putLong(balance);
+        out.putLong(valueCurrentlyInvested);
+        out.putInt(count);
+        out.putInt(symbolCount);
+        out.putInt(dictionarySize);
+        out.putInt(0);
+    }
+
+    // EFFECTS: returns the offset of the first column, after the dictionary rounded up to a multiple of 8 bytes
+    private long getColumnsOffset() {
+        return (HEADER_SIZE + (long) dictionarySize + Double.BYTES - 1) & -Double.BYTES;
+    }
+}
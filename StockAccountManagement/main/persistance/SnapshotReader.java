@@ -0,0 +1,145 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Reads a portfolio from a binary snapshot written by SnapshotWriter. The file is mapped into memory and every column
+// is copied out in bulk, so no numbers have to be parsed from text.
+public class SnapshotReader {
+    private final String source;
+    private long generation;
+
+    // EFFECTS: constructs reader to read from source file
+    public SnapshotReader(String source) {
+        this.source = source;
+    }
+
+    // Getters:
+
+    // EFFECTS: returns the generation recorded in the last snapshot read
+    public long getGeneration() {
+        return generation;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads portfolio from file and returns it;
+    // throws IOException if an error occurs reading data from file or the file is not a snapshot this version reads
+    public Portfolio read() throws IOException {
+        ByteBuffer snapshot = map(source);
+        SnapshotLayout layout = SnapshotLayout.readHeader(snapshot);
+        generation = layout.getGeneration();
+
+        Portfolio portfolio = Portfolio.ofMoney(layout.getBalance(), layout.getValueCurrentlyInvested());
+        for (Stock stock : readStocks(snapshot, layout)) {
+            portfolio.loadStock(stock);
+        }
+        return portfolio;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens portfolio from file without decoding any stocks: each one is decoded from the mapped file the
+    //          first time the portfolio is asked for it. Opening still takes time and memory in proportion to the
+    //          size of the portfolio, if little of each: the symbol column is walked once to index the rows of each
+    //          symbol, and the index and the portfolio's empty slots take about 8 bytes per stock plus about 20 per
+    //          distinct symbol. Only the stocks decoded take memory beyond that. The file must not be rewritten in place while stocks are still
+    //          loaded from it; renaming a new file over it is fine.
+    // throws IOException if an error occurs reading data from file or the file is not a snapshot this version reads
+    public Portfolio readLazily() throws IOException {
+        ByteBuffer snapshot = map(source);
+        SnapshotLayout layout = SnapshotLayout.readHeader(snapshot);
+        generation = layout.getGeneration();
+        return Portfolio.ofMoney(layout.getBalance(), layout.getValueCurrentlyInvested(),
+                new LazySnapshot(snapshot, layout));
+    }
+
+    // EFFECTS: decodes every stock in snapshot, in order; throws IOException if one refers to a missing symbol
+    static Stock[] readStocks(ByteBuffer snapshot, SnapshotLayout layout) throws IOException {
+        String[] symbols = readDictionary(snapshot, layout);
+        int count = layout.getCount();
+        double[][] doubles = new double[SnapshotLayout.DOUBLE_COLUMNS][];
+        long[][] money = new long[SnapshotLayout.DOUBLE_COLUMNS][];
+        int[][] ints = new int[SnapshotLayout.INT_COLUMNS][count];
+        for (int column = 0; column < SnapshotLayout.DOUBLE_COLUMNS; column++) {
+            snapshot.position((int) layout.getDoubleColumnOffset(column));
+            if (!SnapshotLayout.isMoney(column)) {
+                doubles[column] = new double[count];
+                snapshot.asDoubleBuffer().get(doubles[column]);
+            } else if (layout.hasMoneyColumns()) {
+                money[column] = new long[count];
+                snapshot.asLongBuffer().get(money[column]);
+            } else {
+                money[column] = readOldMoney(snapshot, count);
+            }
+        }
+        for (int column = 0; column < SnapshotLayout.INT_COLUMNS; column++) {
+            snapshot.position((int) layout.getIntColumnOffset(column));
+            snapshot.asIntBuffer().get(ints[column]);
+        }
+
+        Stock[] stocks = new Stock[count];
+        for (int i = 0; i < count; i++) {
+            int symbol = ints[SnapshotLayout.SYMBOL][i];
+            if (symbol < 0 || symbol >= symbols.length) {
+                throw new IOException("Bad symbol in portfolio snapshot");
+            }
+            stocks[i] = Stock.ofMoney(symbols[symbol],
+                    doubles[SnapshotLayout.PRICE_CURRENT][i], doubles[SnapshotLayout.PRICE_PREVIOUS][i],
+                    money[SnapshotLayout.INVESTMENT_WORTH][i], money[SnapshotLayout.INITIAL_INVESTMENT][i],
+                    doubles[SnapshotLayout.SHARES_BOUGHT][i], ints[SnapshotLayout.DAYS_TO_INVEST][i],
+                    ints[SnapshotLayout.RISK][i], money[SnapshotLayout.MARKET_CAP][i]);
+        }
+        return stocks;
+    }
+
+    // EFFECTS: reads count doubles from the position of snapshot and returns them in micro-units, for a money column
+    //          of a snapshot written before money columns were in micro-units
+    private static long[] readOldMoney(ByteBuffer snapshot, int count) {
+        double[] dollars = new double[count];
+        snapshot.asDoubleBuffer().get(dollars);
+        long[] money = new long[count];
+        for (int i = 0; i < count; i++) {
+            money[i] = Money.of(dollars[i]);
+        }
+        return money;
+    }
+
+    // EFFECTS: maps the whole of source into memory; throws IOException if it cannot be read or is over 2 GB
+    static MappedByteBuffer map(String source) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Portfolio snapshot too large");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // EFFECTS: decodes every symbol in the dictionary of snapshot
+    static String[] readDictionary(ByteBuffer snapshot, SnapshotLayout layout) throws IOException {
+        String[] symbols = new String[layout.getSymbolCount()];
+        int position = (int) layout.getDictionaryOffset();
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < symbols.length; i++) {
+            int length = snapshot.getShort(position);
+            if (length < 0 || position + Short.BYTES + length > layout.getDoubleColumnOffset(0)) {
+                throw new IOException("Bad symbol dictionary in portfolio snapshot");
+            }
+            if (length > bytes.length) {
+                bytes = new byte[length];
+            }
+            snapshot.position(position + Short.BYTES);
+            snapshot.get(bytes, 0, length);
+            symbols[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            position += Short.BYTES + length;
+        }
+        return symbols;
+    }
+}
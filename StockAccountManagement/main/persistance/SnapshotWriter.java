@@ -0,0 +1,173 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+// Writes a portfolio as a binary snapshot laid out as described in SnapshotLayout, through a reused buffer that is
+// flushed to the file whenever it fills up.
+public class SnapshotWriter {
+    private static final int BUFFER_SIZE = 256 << 10;
+
+    private final String destination;
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+    private long generation;
+
+    // EFFECTS: constructs writer to write to destination file
+    public SnapshotWriter(String destination) {
+        this.destination = destination;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    // Setters:
+
+    // MODIFIES: this
+    // EFFECTS: sets the generation recorded in the header of the next snapshot written
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer, replacing anything already in the destination file; throws IOException if destination
+    // file cannot be opened for writing
+    public void open() throws IOException {
+        channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a snapshot of portfolio to file; throws IOException if it cannot be written
+    public void write(Portfolio portfolio) throws IOException {
+        List<Stock> stocks = portfolio.getPortfolioList();
+        int[] symbolIds = new int[stocks.size()];
+        List<byte[]> dictionary = new ArrayList<>();
+        int dictionarySize = encodeSymbols(stocks, symbolIds, dictionary);
+
+        SnapshotLayout layout = new SnapshotLayout(generation, portfolio.getBalanceMoney(),
+                portfolio.getValueCurrentlyInvestedMoney(), stocks.size(), dictionary.size(), dictionarySize);
+        layout.writeHeader(buffer);
+        for (byte[] symbol : dictionary) {
+            ensureRoom(Short.BYTES + symbol.length);
+            buffer.putShort((short) symbol.length);
+            buffer.put(symbol);
+        }
+        while (position() < layout.getDoubleColumnOffset(0)) {
+            ensureRoom(1);
+            buffer.put((byte) 0);
+        }
+
+        putDoubles(stocks, Stock::getStockPriceCurrent);
+        putDoubles(stocks, Stock::getStockPricePrevious);
+        putLongs(stocks, Stock::getCurrentInvestmentWorthMoney);
+        putLongs(stocks, Stock::getInitialInvestmentMoney);
+        putDoubles(stocks, Stock::getSharesBought);
+        putLongs(stocks, Stock::getMarketCapMoney);
+        for (int id : symbolIds) {
+            ensureRoom(Integer.BYTES);
+            buffer.putInt(id);
+        }
+        putInts(stocks, Stock::getDaysToInvest);
+        putInts(stocks, Stock::getRisk);
+        flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes whatever is still buffered and closes writer; throws IOException if it cannot be written
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // MODIFIES: symbolIds, dictionary
+    // EFFECTS: gives every distinct symbol an id in order of first use, adds its UTF-8 bytes to dictionary and
+    //          sets symbolIds to the id of each stock's symbol. Returns the size of the dictionary in bytes.
+    //          throws IOException if a symbol is too long to store
+    private static int encodeSymbols(List<Stock> stocks, int[] symbolIds, List<byte[]> dictionary)
+            throws IOException {
+        HashMap<String, Integer> ids = new HashMap<>();
+        int size = 0;
+        for (int i = 0; i < stocks.size(); i++) {
+            String symbol = stocks.get(i).getSymbol();
+            Integer id = ids.get(symbol);
+            if (id == null) {
+                byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > Short.MAX_VALUE) {
+                    throw new IOException("Symbol too long for a snapshot");
+                }
+                id = dictionary.size();
+                ids.put(symbol, id);
+                dictionary.add(bytes);
+                size += Short.BYTES + bytes.length;
+            }
+            symbolIds[i] = id;
+        }
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes one double column
+    private void putDoubles(List<Stock> stocks, ToDoubleFunction<Stock> field) throws IOException {
+        for (Stock stock : stocks) {
+            ensureRoom(Double.BYTES);
+            buffer.putDouble(field.applyAsDouble(stock));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes one long column
+    private void putLongs(List<Stock> stocks, ToLongFunction<Stock> field) throws IOException {
+        for (Stock stock : stocks) {
+            ensureRoom(Long.BYTES);
+            buffer.putLong(field.applyAsLong(stock));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes one int column
+    private void putInts(List<Stock> stocks, ToIntFunction<Stock> field) throws IOException {
+        for (Stock stock : stocks) {
+            ensureRoom(Integer.BYTES);
+            buffer.putInt(field.applyAsInt(stock));
+        }
+    }
+
+    // EFFECTS: returns the number of bytes written so far, including those still buffered
+    private long position() throws IOException {
+        return channel.position() + buffer.position();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes the buffer if it has less than bytes bytes of room left
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes everything in the buffer to the file and empties it
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package objectOrientedProgram.StockAccountManagement.main.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Binary form of a single stock used inside journal and delta records: the symbol as a short byte length followed by
+// its UTF-8 bytes, then the 8 byte fields in the order of the snapshot columns, then days to invest and risk. As in a
+// snapshot, amounts of money are longs in micro-units (see Money); records written before that hold doubles.
+public class StockRecord {
+    // EFFECTS: returns the number of bytes put puts for stock
+    static int size(Stock stock) {
+        return Short.BYTES + stock.getSymbol().getBytes(StandardCharsets.UTF_8).length
+                + SnapshotLayout.DOUBLE_COLUMNS * Double.BYTES + 2 * Integer.BYTES;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: puts every saved field of stock into out
+    static void put(ByteBuffer out, Stock stock) {
+        byte[] symbol = stock.getSymbol().getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) symbol.length);
+        out.put(symbol);
+        out.putDouble(stock.getStockPriceCurrent());
+        out.putDouble(stock.getStockPricePrevious());
+        out.putLong(stock.getCurrentInvestmentWorthMoney());
+        out.putLong(stock.getInitialInvestmentMoney());
+        out.putDouble(stock.getSharesBought());
+        out.putLong(stock.getMarketCapMoney());
+        out.putInt(stock.getDaysToInvest());
+        out.putInt(stock.getRisk());
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a stock put by put, or by the version before it if money is false
+    static Stock get(ByteBuffer in, boolean money) {
+        byte[] symbol = new byte[in.getShort()];
+        in.get(symbol);
+        double priceCurrent = in.getDouble();
+        double pricePrevious = in.getDouble();
+        long worth = getMoney(in, money);
+        long initialInvestment = getMoney(in, money);
+        double shares = in.getDouble();
+        long marketCap = getMoney(in, money);
+        int days = in.getInt();
+        int risk = in.getInt();
+        return Stock.ofMoney(new String(symbol, StandardCharsets.UTF_8), priceCurrent, pricePrevious, worth,
+                initialInvestment, shares, days, risk, marketCap);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads an amount in micro-units, held as a long if money is true or as a double of dollars if not
+    static long getMoney(ByteBuffer in, boolean money) {
+        return money ? in.getLong() : Money.of(in.getDouble());
+    }
+}
@@ -0,0 +1,59 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+import java.util.Arrays;
+
+// Price history held in fixed size double[] chunks, so recording never copies the days already stored
+public class ChunkedPriceHistory implements PriceHistory {
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private double[][] chunks;
+    private long size;
+
+    public ChunkedPriceHistory() {
+        this.chunks = new double[4][];
+        this.size = 0;
+    }
+
+    @Override
+    public void append(double price) {
+        int chunk = (int) (size >>> CHUNK_SHIFT);
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new double[CHUNK_SIZE];
+        }
+        chunks[chunk][(int) (size & CHUNK_MASK)] = price;
+        size++;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public double get(long day) {
+        if (day < 0 || day >= size) {
+            throw new IndexOutOfBoundsException("No price recorded for day " + day);
+        }
+        return chunks[(int) (day >>> CHUNK_SHIFT)][(int) (day & CHUNK_MASK)];
+    }
+
+    @Override
+    public void read(long fromDay, long toDay, double[] destination, int offset) {
+        if (fromDay < 0 || fromDay > toDay || toDay > size) {
+            throw new IndexOutOfBoundsException("Days " + fromDay + " to " + toDay + " not recorded");
+        }
+        long day = fromDay;
+        while (day < toDay) {
+            int inChunk = (int) (day & CHUNK_MASK);
+            int length = (int) Math.min(CHUNK_SIZE - inChunk, toDay - day);
+            System.arraycopy(chunks[(int) (day >>> CHUNK_SHIFT)], inChunk, destination, offset, length);
+            offset += length;
+            day += length;
+        }
+    }
+}
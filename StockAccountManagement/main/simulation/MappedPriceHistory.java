@@ -0,0 +1,142 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Price history stored in a file that is memory-mapped one chunk at a time, for horizons too long to keep on the
+// heap. The file starts with the number of days recorded, a little-endian long written on close, followed by the
+// prices as little-endian doubles, so reopening it continues the recorded path. The file grows a whole chunk at a
+// time and is never truncated: a mapping stays live until its buffer is garbage collected, and truncating a file
+// under a live mapping can crash the JVM (or fail outright on Windows). The unused tail of the last chunk is left in
+// the file instead and ignored on reading, as it is past the recorded number of days.
+public class MappedPriceHistory implements PriceHistory, Closeable {
+    private static final int HEADER_BYTES = Long.BYTES;
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> mapped;
+    private final List<DoubleBuffer> chunks;
+    private long size;
+
+    // EFFECTS: opens or creates file and continues the path already recorded in it;
+    //          throws IOException if the file cannot be opened or is not a price history
+    public MappedPriceHistory(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.mapped = new ArrayList<>();
+        this.chunks = new ArrayList<>();
+        try {
+            this.size = readSize();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void append(double price) {
+        chunk(size).put((int) (size & CHUNK_MASK), price);
+        size++;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public double get(long day) {
+        if (day < 0 || day >= size) {
+            throw new IndexOutOfBoundsException("No price recorded for day " + day);
+        }
+        return chunk(day).get((int) (day & CHUNK_MASK));
+    }
+
+    @Override
+    public void read(long fromDay, long toDay, double[] destination, int offset) {
+        if (fromDay < 0 || fromDay > toDay || toDay > size) {
+            throw new IndexOutOfBoundsException("Days " + fromDay + " to " + toDay + " not recorded");
+        }
+        long day = fromDay;
+        while (day < toDay) {
+            int inChunk = (int) (day & CHUNK_MASK);
+            int length = (int) Math.min(CHUNK_SIZE - inChunk, toDay - day);
+            chunk(day).get(inChunk, destination, offset, length);
+            offset += length;
+            day += length;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the recorded prices out to the file and then writes the number of days recorded in the header;
+    //          the history cannot be used afterwards
+    @Override
+    public void close() throws IOException {
+        try {
+            for (MappedByteBuffer buffer : mapped) {
+                buffer.force();
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(0, size);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+        } finally {
+            mapped.clear();
+            chunks.clear();
+            channel.close();
+        }
+    }
+
+    // EFFECTS: returns the number of days recorded in the header, 0 for an empty file;
+    //          throws IOException if the header is cut short or does not fit the file
+    private long readSize() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Price history header is cut short");
+            }
+        }
+        long recorded = header.getLong(0);
+        if (recorded < 0 || recorded > (fileSize - HEADER_BYTES) / Double.BYTES) {
+            throw new IOException("Price history records " + recorded + " days but the file is " + fileSize
+                    + " bytes");
+        }
+        return recorded;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the mapped chunk holding day, mapping it (and growing the file) the first time it is used
+    private DoubleBuffer chunk(long day) {
+        int index = (int) (day >>> CHUNK_SHIFT);
+        try {
+            while (chunks.size() <= index) {
+                long position = HEADER_BYTES + (long) chunks.size() * CHUNK_SIZE * Double.BYTES;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                        (long) CHUNK_SIZE * Double.BYTES);
+                mapped.add(buffer);
+                chunks.add(buffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return chunks.get(index);
+    }
+}
@@ -0,0 +1,208 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.NegativeIntException;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+public class MonteCarloSimulator {
+    private static final int PATHS_PER_TASK = 256;
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MonteCarloSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // REQUIRES: paths > 0
+    // EFFECTS: runs paths independent random walks of days days for every stock, split across the pool.
+    //          Stocks are read once up front and never modified, so the portfolio is left as it was.
+    //          throws NegativeIntException if days < 0
+    public SimulationResult simulate(List<Stock> stocks, int days, int paths) {
+        return simulate(stocks, days, paths, new SplittableRandomSource());
+    }
+
+    // REQUIRES: paths > 0
+    // EFFECTS: same as simulate(stocks, days, paths), but every task draws from a generator split off random in a
+    //          fixed order, so the same seeded source always produces the same result on any number of threads.
+    //          throws NegativeIntException if days < 0
+    public SimulationResult simulate(List<Stock> stocks, int days, int paths, RandomSource random) {
+        Walk walk = new Walk(stocks, days);
+        double[][] stockOutcomes = new double[walk.size()][paths];
+        double[] portfolioOutcomes = new double[paths];
+
+        pool.invoke(new PathTask(walk, stockOutcomes, portfolioOutcomes, random, 0, paths));
+
+        return new SimulationResult(days, paths, stockOutcomes, portfolioOutcomes);
+    }
+
+    // REQUIRES: paths > 0
+    // EFFECTS: same walks as simulate(stocks, days, paths), but every task feeds the end worths into its own
+    //          streaming statistics and the tasks merge them, so memory stays the same however many paths are run.
+    //          throws NegativeIntException if days < 0
+    public RiskReport summarize(List<Stock> stocks, int days, int paths) {
+        return summarize(stocks, days, paths, new SplittableRandomSource());
+    }
+
+    // REQUIRES: paths > 0
+    // EFFECTS: same as summarize(stocks, days, paths), reproducible for the same seeded source.
+    //          throws NegativeIntException if days < 0
+    public RiskReport summarize(List<Stock> stocks, int days, int paths, RandomSource random) {
+        Walk walk = new Walk(stocks, days);
+        return pool.invoke(new StatisticsTask(walk, random, 0, paths));
+    }
+
+    // Starting state of every stock, copied into columns so the tasks never touch the stock objects
+    private static class Walk {
+        private final int days;
+        private final double[] prices;
+        private final double[] worths;
+        private final double[] riskFactors;
+        private final double[] marketCaps;
+
+        // EFFECTS: copies the fields needed to walk every stock; throws NegativeIntException if days < 0
+        Walk(List<Stock> stocks, int days) {
+            if (days < 0) {
+                throw new NegativeIntException();
+            }
+            int count = stocks.size();
+            this.days = days;
+            this.prices = new double[count];
+            this.worths = new double[count];
+            this.riskFactors = new double[count];
+            this.marketCaps = new double[count];
+
+            for (int i = 0; i < count; i++) {
+                Stock stock = stocks.get(i);
+                prices[i] = stock.getStockPriceCurrent();
+                worths[i] = stock.getCurrentInvestmentWorth();
+                riskFactors[i] = stock.getRiskFactor();
+                marketCaps[i] = stock.getMarketCap();
+            }
+        }
+
+        int size() {
+            return prices.length;
+        }
+
+        // EFFECTS: returns the worth of the stock at index i after one random walk of days days
+        double endWorth(int i, RandomSource random) {
+            if (days == 0) {
+                return worths[i];
+            }
+            double shares = worths[i] / prices[i];
+            double price = prices[i];
+            for (int day = 0; day < days; day++) {
+                price = Stock.nextPrice(price, riskFactors[i], marketCaps[i], random.nextDouble());
+            }
+            return price * shares;
+        }
+
+        // EFFECTS: returns the total worth of all stocks at the start of the walk
+        double startTotal() {
+            double total = 0;
+            for (double worth : worths) {
+                total += worth;
+            }
+            return total;
+        }
+    }
+
+    private static class PathTask extends RecursiveAction {
+        private final Walk walk;
+        private final double[][] stockOutcomes;
+        private final double[] portfolioOutcomes;
+        private final RandomSource random;
+        private final int from;
+        private final int to;
+
+        PathTask(Walk walk, double[][] stockOutcomes, double[] portfolioOutcomes, RandomSource random,
+                 int from, int to) {
+            this.walk = walk;
+            this.stockOutcomes = stockOutcomes;
+            this.portfolioOutcomes = portfolioOutcomes;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+        }
+
+        // EFFECTS: splits the path range in half until it is small enough, then simulates it directly.
+        //          The left half always gets the split generator so the tree of generators is fixed.
+        @Override
+        protected void compute() {
+            if (to - from <= PATHS_PER_TASK) {
+                simulatePaths();
+            } else {
+                int middle = (from + to) >>> 1;
+                RandomSource left = random.split();
+                invokeAll(new PathTask(walk, stockOutcomes, portfolioOutcomes, left, from, middle),
+                        new PathTask(walk, stockOutcomes, portfolioOutcomes, random, middle, to));
+            }
+        }
+
+        // MODIFIES: stockOutcomes, portfolioOutcomes
+        // EFFECTS: walks every stock for each path in [from, to) and records the end worths
+        private void simulatePaths() {
+            for (int path = from; path < to; path++) {
+                double total = 0;
+                for (int i = 0; i < walk.size(); i++) {
+                    double worth = walk.endWorth(i, random);
+                    stockOutcomes[i][path] = worth;
+                    total += worth;
+                }
+                portfolioOutcomes[path] = total;
+            }
+        }
+    }
+
+    private static class StatisticsTask extends RecursiveTask<RiskReport> {
+        private final Walk walk;
+        private final RandomSource random;
+        private final int from;
+        private final int to;
+
+        StatisticsTask(Walk walk, RandomSource random, int from, int to) {
+            this.walk = walk;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+        }
+
+        // EFFECTS: splits the path range like PathTask and merges the statistics of both halves
+        @Override
+        protected RiskReport compute() {
+            if (to - from <= PATHS_PER_TASK) {
+                return summarizePaths();
+            }
+            int middle = (from + to) >>> 1;
+            StatisticsTask left = new StatisticsTask(walk, random.split(), from, middle);
+            StatisticsTask right = new StatisticsTask(walk, random, middle, to);
+            left.fork();
+            RiskReport report = right.compute();
+            report.merge(left.join());
+            return report;
+        }
+
+        // EFFECTS: walks every stock for each path in [from, to) and returns statistics of the end worths
+        private RiskReport summarizePaths() {
+            RiskReport report = new RiskReport(walk.days, walk.startTotal(), walk.worths.clone());
+            for (int path = from; path < to; path++) {
+                double total = 0;
+                for (int i = 0; i < walk.size(); i++) {
+                    double worth = walk.endWorth(i, random);
+                    report.getStockStatistics(i).accept(worth);
+                    total += worth;
+                }
+                report.getPortfolioStatistics().accept(total);
+            }
+            return report;
+        }
+    }
+}
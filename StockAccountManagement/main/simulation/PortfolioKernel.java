@@ -0,0 +1,112 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.NegativeIntException;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.util.List;
+
+// Invests every stock of a portfolio at once with the stock fields laid out as primitive columns, one array per
+// field. Each pass advances all stocks by one day in a tight loop over the columns, which the JIT can unroll and
+// vectorize, instead of walking each stock object through all of its days.
+public class PortfolioKernel {
+    // Fields:
+    private final List<Stock> stocks;
+    private final int size;
+    private final double[] prices;
+    private final double[] shares;
+    private final double[] riskFactors;
+    private final double[] marketCaps;
+    private final double[] draws;
+    private final RandomSource[] randomSources;
+    private final PriceHistory[] priceHistories;
+    private boolean recording;
+
+    // EFFECTS: copies the fields of every stock currently in portfolio into columns.
+    //          Create a new kernel after stocks are added to or sold from the portfolio.
+    public PortfolioKernel(Portfolio portfolio) {
+        this.stocks = portfolio.getPortfolioList();
+        this.size = stocks.size();
+        this.prices = new double[size];
+        this.shares = new double[size];
+        this.riskFactors = new double[size];
+        this.marketCaps = new double[size];
+        this.draws = new double[size];
+        this.randomSources = new RandomSource[size];
+        this.priceHistories = new PriceHistory[size];
+
+        for (int i = 0; i < size; i++) {
+            Stock stock = stocks.get(i);
+            riskFactors[i] = stock.getRiskFactor();
+            marketCaps[i] = stock.getMarketCap();
+            randomSources[i] = stock.getRandomSource();
+            priceHistories[i] = stock.getPriceHistory();
+            recording |= priceHistories[i] != null;
+        }
+    }
+
+    // Methods:
+
+    // MODIFIES: this, portfolio and all of its stocks
+    // EFFECTS: invests every stock for days days, same as setting the days on each stock and calling
+    //          investIndividualStock. Each stock passes its change in worth on to the portfolio value.
+    //          Each stock still draws from its own random source in the same order, so a seeded stock ends up with
+    //          exactly the same price either way.
+    //          throws NegativeIntException if days < 0
+    public void invest(int days) {
+        if (days < 0) {
+            throw new NegativeIntException();
+        }
+        long[] startWorths = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            Stock stock = stocks.get(i);
+            prices[i] = stock.getStockPriceCurrent();
+            startWorths[i] = stock.getCurrentInvestmentWorthMoney();
+            shares[i] = Stock.sharesFor(startWorths[i], prices[i]);
+            if (priceHistories[i] != null && priceHistories[i].size() == 0) {
+                priceHistories[i].append(prices[i]);
+            }
+        }
+
+        for (int day = 0; day < days; day++) {
+            advanceDay();
+            if (recording) {
+                recordDay();
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            Stock stock = stocks.get(i);
+            stock.setDaysToInvest(days);
+            stock.setSharesBought(shares[i]);
+            stock.setInitialInvestmentMoney(startWorths[i]);
+            stock.setStockPricePrevious(stock.getStockPriceCurrent());
+            stock.setStockPriceCurrent(prices[i]);
+            if (days > 0) {
+                stock.setCurrentInvestmentWorth(prices[i] * shares[i]);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves every price in the columns forward by one simulated day
+    private void advanceDay() {
+        for (int i = 0; i < size; i++) {
+            draws[i] = randomSources[i].nextDouble();
+        }
+
+        for (int i = 0; i < size; i++) {
+            prices[i] = Stock.nextPrice(prices[i], riskFactors[i], marketCaps[i], draws[i]);
+        }
+    }
+
+    // EFFECTS: appends the current price column to the history of every stock that records one
+    private void recordDay() {
+        for (int i = 0; i < size; i++) {
+            if (priceHistories[i] != null) {
+                priceHistories[i].append(prices[i]);
+            }
+        }
+    }
+}
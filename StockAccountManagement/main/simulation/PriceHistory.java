@@ -0,0 +1,28 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+// Daily price path of one stock, kept as primitive doubles. Day 0 is the price before the first simulated day.
+public interface PriceHistory {
+    // MODIFIES: this
+    // EFFECTS: records price as the next day of the path
+    void append(double price);
+
+    // EFFECTS: returns the number of days recorded
+    long size();
+
+    // REQUIRES: 0 <= day < size()
+    // EFFECTS: returns the price recorded for day
+    double get(long day);
+
+    // REQUIRES: 0 <= fromDay <= toDay <= size(), destination has room for toDay - fromDay prices after offset
+    // MODIFIES: destination
+    // EFFECTS: copies the prices of days [fromDay, toDay) into destination starting at offset
+    void read(long fromDay, long toDay, double[] destination, int offset);
+
+    // REQUIRES: 0 <= fromDay <= toDay <= size()
+    // EFFECTS: returns the prices of days [fromDay, toDay) in a new array
+    default double[] read(long fromDay, long toDay) {
+        double[] prices = new double[Math.toIntExact(toDay - fromDay)];
+        read(fromDay, toDay, prices, 0);
+        return prices;
+    }
+}
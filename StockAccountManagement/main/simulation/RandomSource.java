@@ -0,0 +1,22 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+public interface RandomSource {
+    // MODIFIES: this
+    // EFFECTS: returns the next uniformly distributed double in [0, 1)
+    double nextDouble();
+
+    // MODIFIES: this
+    // EFFECTS: returns the next uniformly distributed long
+    long nextLong();
+
+    // MODIFIES: this
+    // EFFECTS: returns a new generator whose sequence does not overlap with this one. Splitting the same seeded
+    //          generator in the same order always gives the same children, so split runs are reproducible.
+    RandomSource split();
+
+    // EFFECTS: returns an unseeded source backed by the calling thread's own generator, safe to share between
+    //          threads without contention
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+}
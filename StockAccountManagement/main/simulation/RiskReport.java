@@ -0,0 +1,73 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+public class RiskReport {
+    // Fields:
+    private final int days;
+    private final double initialPortfolioValue;
+    private final double[] initialStockValues;
+    private final RiskStatistics portfolioStatistics;
+    private final RiskStatistics[] stockStatistics;
+
+    // EFFECTS: creates an empty report for stocks starting at initialStockValues
+    public RiskReport(int days, double initialPortfolioValue, double[] initialStockValues) {
+        this.days = days;
+        this.initialPortfolioValue = initialPortfolioValue;
+        this.initialStockValues = initialStockValues;
+        this.portfolioStatistics = new RiskStatistics();
+        this.stockStatistics = new RiskStatistics[initialStockValues.length];
+        for (int i = 0; i < stockStatistics.length; i++) {
+            stockStatistics[i] = new RiskStatistics();
+        }
+    }
+
+    // Getters:
+    public int getDays() {
+        return days;
+    }
+
+    public long getPaths() {
+        return portfolioStatistics.getCount();
+    }
+
+    public double getInitialPortfolioValue() {
+        return initialPortfolioValue;
+    }
+
+    public RiskStatistics getPortfolioStatistics() {
+        return portfolioStatistics;
+    }
+
+    public RiskStatistics getStockStatistics(int stockIndex) {
+        return stockStatistics[stockIndex];
+    }
+
+    // Methods:
+
+    // REQUIRES: 0 < confidence < 1
+    // EFFECTS: returns the portfolio loss not exceeded with the given confidence at the end of the horizon
+    public double getValueAtRisk(double confidence) {
+        return portfolioStatistics.getValueAtRisk(confidence, initialPortfolioValue);
+    }
+
+    // REQUIRES: 0 < confidence < 1
+    // EFFECTS: returns the average portfolio loss over the worst (1 - confidence) share of paths
+    public double getExpectedShortfall(double confidence) {
+        return portfolioStatistics.getExpectedShortfall(confidence, initialPortfolioValue);
+    }
+
+    // REQUIRES: 0 < confidence < 1
+    // EFFECTS: returns the loss on the stock at stockIndex not exceeded with the given confidence
+    public double getStockValueAtRisk(int stockIndex, double confidence) {
+        return stockStatistics[stockIndex].getValueAtRisk(confidence, initialStockValues[stockIndex]);
+    }
+
+    // REQUIRES: other covers the same stocks as this
+    // MODIFIES: this
+    // EFFECTS: adds every path counted in other to this report
+    public void merge(RiskReport other) {
+        portfolioStatistics.merge(other.portfolioStatistics);
+        for (int i = 0; i < stockStatistics.length; i++) {
+            stockStatistics[i].merge(other.stockStatistics[i]);
+        }
+    }
+}
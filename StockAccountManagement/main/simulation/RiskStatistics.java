@@ -0,0 +1,225 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+// Streaming summary of simulated end values that answers percentile, Value-at-Risk and expected shortfall queries
+// in bounded memory. Values are counted in logarithmic buckets (each bucket covers values within a fixed relative
+// accuracy of each other), so memory depends only on the range of values seen, never on how many were added.
+// Two summaries with the same accuracy can be merged, so every simulation worker can keep its own and combine them.
+public class RiskStatistics {
+    public static final double DEFAULT_ACCURACY = 0.005;
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    // Fields:
+    private final double accuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final Buckets positive;
+    private final Buckets negative;
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min;
+    private double max;
+
+    public RiskStatistics() {
+        this(DEFAULT_ACCURACY);
+    }
+
+    // REQUIRES: 0 < accuracy < 1
+    // EFFECTS: creates an empty summary whose percentiles are within accuracy (relative) of the true value
+    public RiskStatistics(double accuracy) {
+        this.accuracy = accuracy;
+        this.gamma = (1 + accuracy) / (1 - accuracy);
+        this.logGamma = Math.log(gamma);
+        this.positive = new Buckets();
+        this.negative = new Buckets();
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    // Getters:
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count == 0 ? 0.00 : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? 0.00 : max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.00 : sum / count;
+    }
+
+    // Methods:
+
+    // MODIFIES: this
+    // EFFECTS: adds one value to the summary
+    public void accept(double value) {
+        if (value > MIN_INDEXABLE) {
+            positive.add(key(value), 1);
+        } else if (value < -MIN_INDEXABLE) {
+            negative.add(key(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    // REQUIRES: other has the same accuracy as this
+    // MODIFIES: this
+    // EFFECTS: adds every value counted by other to this summary
+    public void merge(RiskStatistics other) {
+        if (other.accuracy != accuracy) {
+            throw new IllegalArgumentException("Cannot merge statistics with different accuracy");
+        }
+        positive.addAll(other.positive);
+        negative.addAll(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // REQUIRES: 0 <= percentile <= 100
+    // EFFECTS: returns the value that percentile percent of the values fall below, 0 if nothing was added
+    public double getPercentile(double percentile) {
+        if (count == 0) {
+            return 0.00;
+        }
+        long rank = (long) Math.floor(percentile / 100 * (count - 1));
+        long seen = 0;
+
+        for (int key = negative.maxKey; key >= negative.firstKey(); key--) {
+            seen += negative.get(key);
+            if (seen > rank) {
+                return clamp(-value(key));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return clamp(0.00);
+        }
+        for (int key = positive.firstKey(); key <= positive.maxKey; key++) {
+            seen += positive.get(key);
+            if (seen > rank) {
+                return clamp(value(key));
+            }
+        }
+        return max;
+    }
+
+    // REQUIRES: 0 < confidence < 1
+    // EFFECTS: returns the loss from initialValue that is not exceeded with the given confidence (Value-at-Risk).
+    //          A negative result means even the bad outcomes end above initialValue.
+    public double getValueAtRisk(double confidence, double initialValue) {
+        return initialValue - getPercentile((1 - confidence) * 100);
+    }
+
+    // REQUIRES: 0 < confidence < 1
+    // EFFECTS: returns the average loss from initialValue over the worst (1 - confidence) share of the values
+    //          (expected shortfall, also called CVaR), 0 if nothing was added
+    public double getExpectedShortfall(double confidence, double initialValue) {
+        if (count == 0) {
+            return 0.00;
+        }
+        double tail = Math.max(1, (1 - confidence) * count);
+        double remaining = tail;
+        double tailSum = 0;
+
+        for (int key = negative.maxKey; key >= negative.firstKey() && remaining > 0; key--) {
+            double taken = Math.min(remaining, negative.get(key));
+            tailSum += taken * clamp(-value(key));
+            remaining -= taken;
+        }
+        if (remaining > 0) {
+            remaining -= Math.min(remaining, zeroCount);
+        }
+        for (int key = positive.firstKey(); key <= positive.maxKey && remaining > 0; key++) {
+            double taken = Math.min(remaining, positive.get(key));
+            tailSum += taken * clamp(value(key));
+            remaining -= taken;
+        }
+        return initialValue - tailSum / tail;
+    }
+
+    // EFFECTS: returns the bucket key of a positive value
+    private int key(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    // EFFECTS: returns the value in the middle (relative to accuracy) of the bucket with the given key
+    private double value(int key) {
+        return 2 * Math.pow(gamma, key) / (gamma + 1);
+    }
+
+    // EFFECTS: keeps an estimated value inside the exact range seen so far
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    // Dense counts for a contiguous range of bucket keys starting at minKey, grown at either end as new keys arrive
+    private static class Buckets {
+        private long[] counts = new long[0];
+        private int minKey;
+        private int maxKey = -1;
+
+        // EFFECTS: returns the lowest key that may hold a count, greater than maxKey if there are no counts
+        int firstKey() {
+            return counts.length == 0 ? maxKey + 1 : minKey;
+        }
+
+        // EFFECTS: returns the count in the bucket with the given key
+        long get(int key) {
+            return counts[key - minKey];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds amount to the bucket with the given key
+        void add(int key, long amount) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                minKey = key;
+                maxKey = key;
+            } else if (key < minKey || key >= minKey + counts.length) {
+                grow(key);
+            }
+            counts[key - minKey] += amount;
+            maxKey = Math.max(maxKey, key);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds every count in other to this
+        void addAll(Buckets other) {
+            for (int key = other.firstKey(); key <= other.maxKey; key++) {
+                long amount = other.get(key);
+                if (amount != 0) {
+                    add(key, amount);
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: resizes the count array so that key fits, leaving room to grow further in that direction
+        private void grow(int key) {
+            int low = Math.min(minKey, key);
+            int high = Math.max(minKey + counts.length - 1, key);
+            int length = Math.max(counts.length * 2, high - low + 1);
+            int newMinKey = key < minKey ? high - length + 1 : low;
+            long[] grown = new long[length];
+            System.arraycopy(counts, 0, grown, minKey - newMinKey, counts.length);
+            counts = grown;
+            minKey = newMinKey;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+import java.util.Arrays;
+
+public class SimulationResult {
+    // Fields:
+    private final int days;
+    private final int paths;
+    private final double[][] stockOutcomes;
+    private final double[] portfolioOutcomes;
+
+    // REQUIRES: every row of stockOutcomes and portfolioOutcomes has length paths
+    public SimulationResult(int days, int paths, double[][] stockOutcomes, double[] portfolioOutcomes) {
+        this.days = days;
+        this.paths = paths;
+        this.stockOutcomes = stockOutcomes;
+        this.portfolioOutcomes = portfolioOutcomes;
+    }
+
+    // Getters:
+    public int getDays() {
+        return days;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    public int getStockCount() {
+        return stockOutcomes.length;
+    }
+
+    // EFFECTS: returns the investment worth of the stock at stockIndex at the end of every path
+    public double[] getStockOutcomes(int stockIndex) {
+        return stockOutcomes[stockIndex];
+    }
+
+    // EFFECTS: returns the total worth of all simulated stocks at the end of every path
+    public double[] getPortfolioOutcomes() {
+        return portfolioOutcomes;
+    }
+
+    // Methods:
+
+    // EFFECTS: returns the average end worth of the stock at stockIndex over all paths
+    public double getStockMean(int stockIndex) {
+        return mean(stockOutcomes[stockIndex]);
+    }
+
+    // EFFECTS: returns the average end worth of the portfolio over all paths
+    public double getPortfolioMean() {
+        return mean(portfolioOutcomes);
+    }
+
+    // REQUIRES: 0 <= percentile <= 100
+    // EFFECTS: returns the end worth of the stock at stockIndex that percentile percent of paths fall below
+    public double getStockPercentile(int stockIndex, double percentile) {
+        return percentile(stockOutcomes[stockIndex], percentile);
+    }
+
+    // REQUIRES: 0 <= percentile <= 100
+    // EFFECTS: returns the end worth of the portfolio that percentile percent of paths fall below
+    public double getPortfolioPercentile(double percentile) {
+        return percentile(portfolioOutcomes, percentile);
+    }
+
+    // EFFECTS: returns the average of values, 0 if there are none
+    private static double mean(double[] values) {
+        if (values.length == 0) {
+            return 0.00;
+        }
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    // EFFECTS: returns the nearest-rank percentile of values without reordering them, 0 if there are none
+    private static double percentile(double[] values, double percentile) {
+        if (values.length == 0) {
+            return 0.00;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
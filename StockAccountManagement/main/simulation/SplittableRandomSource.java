@@ -0,0 +1,34 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+import java.util.SplittableRandom;
+
+public class SplittableRandomSource implements RandomSource {
+    private final SplittableRandom random;
+
+    public SplittableRandomSource() {
+        this.random = new SplittableRandom();
+    }
+
+    public SplittableRandomSource(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    private SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+}
@@ -0,0 +1,26 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ThreadLocalRandomSource implements RandomSource {
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    private ThreadLocalRandomSource() {
+    }
+
+    @Override
+    public double nextDouble() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    // EFFECTS: returns this, every thread already draws from its own generator
+    @Override
+    public RandomSource split() {
+        return this;
+    }
+}
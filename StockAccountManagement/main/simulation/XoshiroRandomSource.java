@@ -0,0 +1,91 @@
+package objectOrientedProgram.StockAccountManagement.main.simulation;
+
+// xoshiro256++ generator (Blackman and Vigna). Seeded through splitmix64 and split with the 2^128 jump function.
+public class XoshiroRandomSource implements RandomSource {
+    private static final long[] JUMP = {
+            0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL};
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    public XoshiroRandomSource(long seed) {
+        long x = seed;
+        x += 0x9e3779b97f4a7c15L;
+        this.s0 = mix(x);
+        x += 0x9e3779b97f4a7c15L;
+        this.s1 = mix(x);
+        x += 0x9e3779b97f4a7c15L;
+        this.s2 = mix(x);
+        x += 0x9e3779b97f4a7c15L;
+        this.s3 = mix(x);
+    }
+
+    private XoshiroRandomSource(long s0, long s1, long s2, long s3) {
+        this.s0 = s0;
+        this.s1 = s1;
+        this.s2 = s2;
+        this.s3 = s3;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s0 + s3, 23) + s0;
+        long t = s1 << 17;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hands the current sequence to the child and moves this generator 2^128 draws ahead
+    @Override
+    public RandomSource split() {
+        XoshiroRandomSource child = new XoshiroRandomSource(s0, s1, s2, s3);
+        jump();
+        return child;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances the state as if nextLong had been called 2^128 times
+    private void jump() {
+        long j0 = 0;
+        long j1 = 0;
+        long j2 = 0;
+        long j3 = 0;
+        for (long jump : JUMP) {
+            for (int b = 0; b < 64; b++) {
+                if ((jump & (1L << b)) != 0) {
+                    j0 ^= s0;
+                    j1 ^= s1;
+                    j2 ^= s2;
+                    j3 ^= s3;
+                }
+                nextLong();
+            }
+        }
+        s0 = j0;
+        s1 = j1;
+        s2 = j2;
+        s3 = j3;
+    }
+
+    // EFFECTS: splitmix64 finalizer, spreads the bits of a seed over the whole state
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
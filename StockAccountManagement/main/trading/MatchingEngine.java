@@ -0,0 +1,220 @@
+package objectOrientedProgram.StockAccountManagement.main.trading;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.OrderRejectedException;
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.util.HashMap;
+
+// Trades a portfolio against the rest of the market through one OrderBook per symbol. The portfolio's orders and
+// everyone else's are matched in the same books; as the portfolio's orders fill, its balance is charged or paid the
+// price of each trade and its stock in the symbol (the first one, as checkForTicker finds) gains or loses the shares:
+//     - a buy adds what it cost to the stock's worth and initial investment, adding the stock if there is none
+//     - a sell takes the sold shares' part of the worth and initial investment off, and sells the stock once no
+//       shares are left
+//     - the stock's price is set to the price of the trade
+// So that resting orders can always be settled, the cost of the portfolio's orders to buy is held back from its
+// balance and the shares of its orders to sell from its stocks until they fill or are cancelled. Stocks with orders
+// to sell resting should not be sold through the portfolio in the meantime.
+//
+// Not thread safe, like Portfolio.
+public class MatchingEngine {
+    public static final int PORTFOLIO = 0;
+    public static final int MARKET = 1;
+    private static final long MARKET_CAP = 10000000 * Money.UNIT;
+
+    // Fields:
+    private final Portfolio portfolio;
+    private final HashMap<String, Market> markets;
+    private long reserved;
+
+    public MatchingEngine(Portfolio portfolio) {
+        this.portfolio = portfolio;
+        this.markets = new HashMap<>();
+    }
+
+    // Getters:
+
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    // EFFECTS: returns the book for symbol, empty if no order has been placed in it yet
+    public OrderBook getBook(String symbol) {
+        return market(symbol).book;
+    }
+
+    // EFFECTS: returns the part of the balance held back for the portfolio's resting orders to buy, in micro-units
+    public long getReservedMoney() {
+        return reserved;
+    }
+
+    // EFFECTS: returns the number of shares of symbol the portfolio has resting orders to sell
+    public long getSharesOffered(String symbol) {
+        Market market = markets.get(symbol);
+        return market == null ? 0 : market.offered;
+    }
+
+    // Methods:
+
+    // REQUIRES: price > 0, quantity > 0
+    // MODIFIES: this, portfolio
+    // EFFECTS: places an order for the portfolio to buy quantity shares of symbol at price dollars or less, filling
+    //          what it can now and resting the rest. Returns the id of the resting order, or OrderBook.NO_ORDER if it
+    //          filled completely. throws OrderRejectedException if the balance not already held back is less than
+    //          price times quantity
+    public long buy(String symbol, double price, long quantity) {
+        return submit(symbol, true, Money.of(price), quantity, PORTFOLIO);
+    }
+
+    // REQUIRES: price > 0, quantity > 0
+    // MODIFIES: this, portfolio
+    // EFFECTS: places an order for the portfolio to sell quantity shares of symbol at price dollars or more, like
+    //          buy. throws OrderRejectedException if the portfolio holds fewer whole shares of symbol not already
+    //          offered than quantity
+    public long sell(String symbol, double price, long quantity) {
+        return submit(symbol, false, Money.of(price), quantity, PORTFOLIO);
+    }
+
+    // REQUIRES: price > 0, quantity > 0
+    // MODIFIES: this, portfolio
+    // EFFECTS: places an order from someone else in the market to buy (or sell) quantity shares of symbol at price
+    //          dollars or better, which the portfolio's orders can trade against. Returns the id of the resting
+    //          order, or OrderBook.NO_ORDER if it filled completely
+    public long quote(String symbol, boolean buy, double price, long quantity) {
+        return submit(symbol, buy, Money.of(price), quantity, MARKET);
+    }
+
+    // REQUIRES: price > 0, quantity > 0
+    // MODIFIES: this, portfolio
+    // EFFECTS: places an order to buy (or sell) quantity shares of symbol at price micro-units or better for owner,
+    //          PORTFOLIO or anyone else, checked and settled as buy and sell describe when owner is PORTFOLIO
+    public long submit(String symbol, boolean buy, long price, long quantity, int owner) {
+        Market market = market(symbol);
+        if (owner == PORTFOLIO) {
+            if (buy) {
+                long cost = Math.multiplyExact(price, quantity);
+                long available = Money.subtract(portfolio.getBalanceMoney(), reserved);
+                if (cost > available) {
+                    throw new OrderRejectedException("cannot buy " + quantity + " " + symbol + " for "
+                            + Money.toString(cost) + " with " + Money.toString(available) + " available");
+                }
+                reserved = Money.add(reserved, cost);
+            } else {
+                Stock stock = portfolio.checkForTicker(symbol);
+                long available = (stock == null ? 0 : (long) stock.getSharesBought()) - market.offered;
+                if (quantity > available) {
+                    throw new OrderRejectedException("cannot sell " + quantity + " " + symbol + " with "
+                            + Math.max(available, 0) + " shares available");
+                }
+                market.offered += quantity;
+            }
+        }
+        return market.book.submit(buy, price, quantity, owner);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels order in symbol, releasing what was held back for it if it is the portfolio's, and returns
+    //          true; returns false if order is not resting in symbol
+    public boolean cancel(String symbol, long order) {
+        Market market = markets.get(symbol);
+        if (market == null) {
+            return false;
+        }
+        OrderBook book = market.book;
+        long left = book.getRemaining(order);
+        boolean portfolios = left > 0 && book.getOwner(order) == PORTFOLIO;
+        boolean buy = left > 0 && book.isBuy(order);
+        long price = left > 0 ? book.getPrice(order) : 0;
+        if (!book.cancel(order)) {
+            return false;
+        }
+
+        if (portfolios && buy) {
+            reserved = Money.subtract(reserved, Math.multiplyExact(price, left));
+        } else if (portfolios) {
+            market.offered -= left;
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the market for symbol, adding one with an empty book if there is none
+    private Market market(String symbol) {
+        Market market = markets.get(symbol);
+        if (market == null) {
+            market = new Market(symbol);
+            markets.put(symbol, market);
+        }
+        return market;
+    }
+
+    // MODIFIES: portfolio
+    // EFFECTS: pays for quantity shares of symbol bought at price micro-units and adds them to the portfolio's stock
+    private void bought(String symbol, long price, long quantity) {
+        long cost = Math.multiplyExact(price, quantity);
+        portfolio.setBalanceMoney(Money.subtract(portfolio.getBalanceMoney(), cost));
+
+        Stock stock = portfolio.checkForTicker(symbol);
+        double dollars = Money.toDouble(price);
+        if (stock == null) {
+            portfolio.addStock(Stock.ofMoney(symbol, dollars, dollars, cost, cost, quantity, 0, 1, MARKET_CAP));
+        } else {
+            stock.setSharesBought(stock.getSharesBought() + quantity);
+            stock.setInitialInvestmentMoney(Money.add(stock.getInitialInvestmentMoney(), cost));
+            stock.setCurrentInvestmentWorthMoney(Money.add(stock.getCurrentInvestmentWorthMoney(), cost));
+            traded(stock, dollars);
+        }
+    }
+
+    // REQUIRES: the portfolio holds at least quantity shares of symbol
+    // MODIFIES: portfolio
+    // EFFECTS: takes quantity shares of symbol sold at price micro-units off the portfolio's stock and pays the
+    //          balance for them
+    private void sold(String symbol, long price, long quantity) {
+        Stock stock = portfolio.checkForTicker(symbol);
+        double shares = stock.getSharesBought();
+        if (shares <= quantity) {
+            stock.setCurrentInvestmentWorthMoney(0);
+            portfolio.sellStock(stock);
+        } else {
+            double kept = (shares - quantity) / shares;
+            stock.setSharesBought(shares - quantity);
+            stock.setInitialInvestmentMoney(Money.multiply(stock.getInitialInvestmentMoney(), kept));
+            stock.setCurrentInvestmentWorthMoney(Money.multiply(stock.getCurrentInvestmentWorthMoney(), kept));
+            traded(stock, Money.toDouble(price));
+        }
+        portfolio.setBalanceMoney(Money.add(portfolio.getBalanceMoney(), Math.multiplyExact(price, quantity)));
+    }
+
+    // MODIFIES: stock
+    // EFFECTS: makes price, the price stock just traded at, its current price
+    private static void traded(Stock stock, double price) {
+        stock.setStockPricePrevious(stock.getStockPriceCurrent());
+        stock.setStockPriceCurrent(price);
+    }
+
+    // The book for one symbol and the shares of it the portfolio has offered for sale, settling the portfolio's
+    // side of every trade made in the book
+    private final class Market implements TradeListener {
+        private final OrderBook book;
+        private long offered;
+
+        private Market(String symbol) {
+            this.book = new OrderBook(symbol, this);
+        }
+
+        @Override
+        public void traded(OrderBook book, long buyOrder, long sellOrder, long price, long quantity) {
+            if (book.getOwner(buyOrder) == PORTFOLIO) {
+                reserved = Money.subtract(reserved, Math.multiplyExact(book.getPrice(buyOrder), quantity));
+                bought(book.getSymbol(), price, quantity);
+            }
+            if (book.getOwner(sellOrder) == PORTFOLIO) {
+                offered -= quantity;
+                sold(book.getSymbol(), price, quantity);
+            }
+        }
+    }
+}
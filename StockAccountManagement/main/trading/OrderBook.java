@@ -0,0 +1,345 @@
+package objectOrientedProgram.StockAccountManagement.main.trading;
+
+import java.util.Arrays;
+
+// A limit order book for one symbol. Orders rest at their limit price in micro-units (see Money) until they are
+// matched against an order on the other side or cancelled, best price first and, at the same price, in the order
+// they arrived. A trade is always at the price of the order that was resting.
+//
+// Everything is kept in primitive arrays so matching does not allocate. Orders live in slots of parallel arrays,
+// linked in arrival order within their price level, and freed slots are reused. The price levels of each side are a
+// sorted array with the best price last, so taking out the best level and adding one near it, which is most of the
+// work, moves few entries. An order id is its slot with a generation in the high bits, so an id stops working as soon
+// as its order is filled or cancelled, without any lookup table.
+//
+// Not thread safe: each book is meant to be driven by one thread.
+public class OrderBook {
+    public static final long NO_ORDER = -1;
+    public static final long NO_PRICE = -1;
+    private static final int NONE = -1;
+    private static final int INITIAL_ORDERS = 64;
+    private static final int INITIAL_LEVELS = 16;
+
+    // Fields:
+    private final String symbol;
+    private final TradeListener listener;
+    private final Levels bids;
+    private final Levels asks;
+    private long[] prices;
+    private long[] remaining;
+    private int[] owners;
+    private boolean[] buys;
+    private int[] next;
+    private int[] previous;
+    private int[] generations;
+    private int used;
+    private int free;
+    private int resting;
+
+    // EFFECTS: creates an empty book for symbol that tells listener, if not null, about every trade
+    public OrderBook(String symbol, TradeListener listener) {
+        this.symbol = symbol;
+        this.listener = listener;
+        this.bids = new Levels(true);
+        this.asks = new Levels(false);
+        this.prices = new long[INITIAL_ORDERS];
+        this.remaining = new long[INITIAL_ORDERS];
+        this.owners = new int[INITIAL_ORDERS];
+        this.buys = new boolean[INITIAL_ORDERS];
+        this.next = new int[INITIAL_ORDERS];
+        this.previous = new int[INITIAL_ORDERS];
+        this.generations = new int[INITIAL_ORDERS];
+        this.free = NONE;
+    }
+
+    // Getters:
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // EFFECTS: returns the highest price someone is bidding, NO_PRICE if no one is
+    public long getBestBid() {
+        return bids.bestPrice();
+    }
+
+    // EFFECTS: returns the lowest price someone is asking, NO_PRICE if no one is
+    public long getBestAsk() {
+        return asks.bestPrice();
+    }
+
+    // EFFECTS: returns the number of prices with orders resting to buy if buy is true, otherwise to sell
+    public int getLevels(boolean buy) {
+        return (buy ? bids : asks).count;
+    }
+
+    // EFFECTS: returns the number of shares resting to buy at price if buy is true, otherwise to sell at price
+    public long getQuantity(boolean buy, long price) {
+        Levels levels = buy ? bids : asks;
+        int level = levels.find(price);
+        return level < 0 ? 0 : levels.quantities[level];
+    }
+
+    // EFFECTS: returns the number of orders resting on the book
+    public int size() {
+        return resting;
+    }
+
+    // EFFECTS: returns the number of shares of order still to be filled, 0 if it has been filled or cancelled
+    public long getRemaining(long order) {
+        return isKnown(order) ? remaining[(int) order] : 0;
+    }
+
+    // REQUIRES: order is resting on the book or is one of the orders of the trade being reported
+    // EFFECTS: returns the limit price of order
+    public long getPrice(long order) {
+        return prices[(int) order];
+    }
+
+    // REQUIRES: order is resting on the book or is one of the orders of the trade being reported
+    // EFFECTS: returns the owner order was submitted with
+    public int getOwner(long order) {
+        return owners[(int) order];
+    }
+
+    // REQUIRES: order is resting on the book or is one of the orders of the trade being reported
+    // EFFECTS: returns true if order is to buy, false if it is to sell
+    public boolean isBuy(long order) {
+        return buys[(int) order];
+    }
+
+    // Methods:
+
+    // REQUIRES: price > 0, quantity > 0
+    // MODIFIES: this
+    // EFFECTS: matches an order to buy (or sell) quantity shares at price or better against the orders resting on
+    //          the other side, reporting each trade to the listener, and rests what is left of it on the book.
+    //          Returns the id of the resting order, or NO_ORDER if it was filled completely.
+    public long submit(boolean buy, long price, long quantity, int owner) {
+        int order = allocate(buy, price, quantity, owner);
+        long id = idOf(order);
+        Levels opposite = buy ? asks : bids;
+        while (remaining[order] > 0 && opposite.count > 0) {
+            long best = opposite.bestPrice();
+            if (buy ? best > price : best < price) {
+                break;
+            }
+            matchBest(order, id, opposite, best);
+        }
+
+        if (remaining[order] == 0) {
+            release(order);
+            return NO_ORDER;
+        }
+        rest(order, buy ? bids : asks);
+        return id;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes order off the book and returns true, or returns false if it is not resting on the book
+    public boolean cancel(long order) {
+        if (!isKnown(order) || remaining[(int) order] == 0) {
+            return false;
+        }
+        int slot = (int) order;
+        Levels levels = buys[slot] ? bids : asks;
+        int level = levels.find(prices[slot]);
+
+        if (previous[slot] == NONE) {
+            levels.heads[level] = next[slot];
+        } else {
+            next[previous[slot]] = next[slot];
+        }
+        if (next[slot] == NONE) {
+            levels.tails[level] = previous[slot];
+        } else {
+            previous[next[slot]] = previous[slot];
+        }
+        levels.quantities[level] -= remaining[slot];
+        if (levels.heads[level] == NONE) {
+            levels.remove(level);
+        }
+        resting--;
+        release(slot);
+        return true;
+    }
+
+    // REQUIRES: levels has a level at price, the best one, which order crosses
+    // MODIFIES: this
+    // EFFECTS: fills order against the orders at the best level of levels, oldest first, until either runs out,
+    //          taking the level out if it is left empty
+    private void matchBest(int order, long id, Levels levels, long price) {
+        int level = levels.count - 1;
+        int other = levels.heads[level];
+        while (other != NONE && remaining[order] > 0) {
+            long quantity = Math.min(remaining[order], remaining[other]);
+            remaining[order] -= quantity;
+            remaining[other] -= quantity;
+            levels.quantities[level] -= quantity;
+            if (listener != null) {
+                long otherId = idOf(other);
+                if (buys[order]) {
+                    listener.traded(this, id, otherId, price, quantity);
+                } else {
+                    listener.traded(this, otherId, id, price, quantity);
+                }
+            }
+
+            if (remaining[other] == 0) {
+                int following = next[other];
+                resting--;
+                release(other);
+                other = following;
+            }
+        }
+
+        levels.heads[level] = other;
+        if (other == NONE) {
+            levels.remove(level);
+        } else {
+            previous[other] = NONE;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds order after the others at its price in levels, adding the level if there is none
+    private void rest(int order, Levels levels) {
+        long price = prices[order];
+        int level = levels.find(price);
+        if (level < 0) {
+            level = levels.insert(-level - 1, price);
+        }
+        int tail = levels.tails[level];
+        if (tail == NONE) {
+            levels.heads[level] = order;
+        } else {
+            next[tail] = order;
+            previous[order] = tail;
+        }
+        levels.tails[level] = order;
+        levels.quantities[level] += remaining[order];
+        resting++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a free slot holding a new unlinked order
+    private int allocate(boolean buy, long price, long quantity, int owner) {
+        int slot = free;
+        if (slot != NONE) {
+            free = next[slot];
+        } else {
+            if (used == prices.length) {
+                grow();
+            }
+            slot = used++;
+        }
+        prices[slot] = price;
+        remaining[slot] = quantity;
+        owners[slot] = owner;
+        buys[slot] = buy;
+        next[slot] = NONE;
+        previous[slot] = NONE;
+        return slot;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: frees slot for a later order, so the id of the order in it stops working
+    private void release(int slot) {
+        remaining[slot] = 0;
+        generations[slot] = (generations[slot] + 1) & Integer.MAX_VALUE;
+        next[slot] = free;
+        free = slot;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the number of order slots
+    private void grow() {
+        int capacity = prices.length * 2;
+        prices = Arrays.copyOf(prices, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        buys = Arrays.copyOf(buys, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+    }
+
+    // EFFECTS: returns the id of the order in slot
+    private long idOf(int slot) {
+        return (long) generations[slot] << 32 | slot;
+    }
+
+    // EFFECTS: returns true if order is the id of the order now in its slot, whether or not it has been filled yet
+    private boolean isKnown(long order) {
+        int slot = (int) order;
+        return order >= 0 && slot < used && generations[slot] == (int) (order >>> 32);
+    }
+
+    // The price levels of one side of the book. Levels are sorted by key, the price for bids and minus the price for
+    // asks, so the best level is always the last one. Each level has the first and last order resting at it and the
+    // shares they add up to.
+    private static final class Levels {
+        private final boolean buy;
+        private long[] keys;
+        private int[] heads;
+        private int[] tails;
+        private long[] quantities;
+        private int count;
+
+        private Levels(boolean buy) {
+            this.buy = buy;
+            this.keys = new long[INITIAL_LEVELS];
+            this.heads = new int[INITIAL_LEVELS];
+            this.tails = new int[INITIAL_LEVELS];
+            this.quantities = new long[INITIAL_LEVELS];
+        }
+
+        // EFFECTS: returns the price of the best level, NO_PRICE if there are no levels
+        private long bestPrice() {
+            if (count == 0) {
+                return NO_PRICE;
+            }
+            long key = keys[count - 1];
+            return buy ? key : -key;
+        }
+
+        // EFFECTS: returns the index of the level at price, or -(the index it would be inserted at) - 1 if none
+        private int find(long price) {
+            return Arrays.binarySearch(keys, 0, count, buy ? price : -price);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds an empty level at price at index, moving the levels after it up one, and returns index
+        private int insert(int index, long price) {
+            if (count == keys.length) {
+                int capacity = count * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                heads = Arrays.copyOf(heads, capacity);
+                tails = Arrays.copyOf(tails, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+            }
+            int moved = count - index;
+            System.arraycopy(keys, index, keys, index + 1, moved);
+            System.arraycopy(heads, index, heads, index + 1, moved);
+            System.arraycopy(tails, index, tails, index + 1, moved);
+            System.arraycopy(quantities, index, quantities, index + 1, moved);
+            keys[index] = buy ? price : -price;
+            heads[index] = NONE;
+            tails[index] = NONE;
+            quantities[index] = 0;
+            count++;
+            return index;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: takes out the level at index, moving the levels after it down one
+        private void remove(int index) {
+            int moved = count - index - 1;
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(heads, index + 1, heads, index, moved);
+            System.arraycopy(tails, index + 1, tails, index, moved);
+            System.arraycopy(quantities, index + 1, quantities, index, moved);
+            count--;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package objectOrientedProgram.StockAccountManagement.main.trading;
+
+// Told about every trade an OrderBook makes, while it is matching. Both orders can still be looked up on the book
+// during the call, even one that the trade fills completely. Must not submit to or cancel on the same book.
+public interface TradeListener {
+
+    // EFFECTS: handles quantity shares of the book's symbol trading at price micro-units between the orders buyOrder
+    //          and sellOrder, one of which was resting on the book (and set the price) and the other just submitted
+    void traded(OrderBook book, long buyOrder, long sellOrder, long price, long quantity);
+}
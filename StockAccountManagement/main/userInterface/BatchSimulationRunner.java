@@ -0,0 +1,147 @@
+package objectOrientedProgram.StockAccountManagement.main.userInterface;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonReader;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonWriter;
+import objectOrientedProgram.StockAccountManagement.main.simulation.PortfolioKernel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless runner that invests every portfolio file in a directory and writes the results to another directory.
+// Files are read and written on I/O threads (virtual threads when the JVM has them) and simulated on a pool with one
+// thread per core. Only a bounded number of portfolios are in memory at once; the next file is not read until one
+// in flight has been written out.
+public class BatchSimulationRunner {
+    private final Path inputDirectory;
+    private final Path outputDirectory;
+    private final int days;
+    private final int maxInFlight;
+    private final AtomicInteger succeeded;
+    private final AtomicInteger failed;
+
+    // REQUIRES: days >= 0
+    public BatchSimulationRunner(Path inputDirectory, Path outputDirectory, int days) {
+        this.inputDirectory = inputDirectory;
+        this.outputDirectory = outputDirectory;
+        this.days = days;
+        this.maxInFlight = Runtime.getRuntime().availableProcessors() * 2;
+        this.succeeded = new AtomicInteger();
+        this.failed = new AtomicInteger();
+    }
+
+    // Getters:
+    public int getSucceeded() {
+        return succeeded.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads, invests and writes every .json portfolio in the input directory and waits until all are done.
+    //          A portfolio that fails is counted and reported but does not stop the others.
+    //          throws IOException if the directories cannot be listed or created
+    public void run() throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ExecutorService ioExecutor = newIoExecutor();
+        ExecutorService cpuExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inputDirectory, "*.json")) {
+            for (Path file : files) {
+                inFlight.acquire();
+                Path destination = outputDirectory.resolve(file.getFileName());
+
+                CompletableFuture.supplyAsync(() -> read(file), ioExecutor)
+                        .thenApplyAsync(this::invest, cpuExecutor)
+                        .thenAcceptAsync(portfolio -> write(portfolio, destination), ioExecutor)
+                        .whenComplete((done, e) -> {
+                            if (e == null) {
+                                succeeded.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                                System.out.println("Unable to simulate " + file + ": " + e.getCause());
+                            }
+                            inFlight.release();
+                        });
+            }
+            inFlight.acquire(maxInFlight);
+        } finally {
+            ioExecutor.shutdown();
+            cpuExecutor.shutdown();
+        }
+    }
+
+    // EFFECTS: reads the portfolio saved in file
+    private Portfolio read(Path file) {
+        try {
+            return new JsonReader(file.toString()).read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // MODIFIES: portfolio
+    // EFFECTS: invests every stock of portfolio for the runner's number of days
+    private Portfolio invest(Portfolio portfolio) {
+        new PortfolioKernel(portfolio).invest(days);
+        return portfolio;
+    }
+
+    // EFFECTS: writes portfolio to destination
+    private void write(Portfolio portfolio, Path destination) {
+        try {
+            JsonWriter writer = new JsonWriter(destination.toString());
+            writer.open();
+            try {
+                writer.write(portfolio);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: returns an executor that starts a virtual thread per task when the JVM supports them (Java 21+),
+    //          otherwise a pool of daemon threads that grows with the number of blocked reads and writes
+    private static ExecutorService newIoExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "portfolio-io");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // EFFECTS: runs the batch with arguments <input directory> <output directory> <days>
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 3) {
+            System.out.println("Usage: BatchSimulationRunner <input directory> <output directory> <days>");
+            return;
+        }
+        BatchSimulationRunner runner = new BatchSimulationRunner(Paths.get(args[0]), Paths.get(args[1]),
+                Integer.parseInt(args[2]));
+
+        long start = System.nanoTime();
+        runner.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Simulated " + runner.getSucceeded() + " portfolios (" + runner.getFailed()
+                + " failed) in " + millis + " ms");
+    }
+}
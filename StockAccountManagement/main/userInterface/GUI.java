@@ -1,15 +1,22 @@
 package objectOrientedProgram.StockAccountManagement.main.userInterface;
 
+import objectOrientedProgram.StockAccountManagement.main.model.Allocation;
 import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.PriceUpdateBus;
+import objectOrientedProgram.StockAccountManagement.main.persistance.AllocationReader;
 import objectOrientedProgram.StockAccountManagement.main.persistance.JsonReader;
-import objectOrientedProgram.StockAccountManagement.main.persistance.JsonWriter;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SaveListener;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SaveService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.ArrayList;
 
+import objectOrientedProgram.StockAccountManagement.main.exceptions.InvalidAllocationException;
 import objectOrientedProgram.StockAccountManagement.main.exceptions.NegativeDoubleException;
 import objectOrientedProgram.StockAccountManagement.main.exceptions.NonCapLetterException;
 import objectOrientedProgram.StockAccountManagement.main.exceptions.RiskOutOfBoundaryException;
@@ -21,13 +28,15 @@ import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
 import java.awt.event.ActionEvent;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 
-public class GUI extends JFrame implements ActionListener {
+public class GUI extends JFrame implements ActionListener, SaveListener {
     private static final String JSON_STORE = "./data/portfolio.json";
+    private static final int MAX_INVEST_FIELDS = 25;
+    private static final long PRICE_REFRESH_MILLIS = 100;
     private Portfolio portfolio;
-    private JsonWriter jsonWriter;
+    private SaveService saveService;
+    private PriceUpdateBus priceBus;
     private JsonReader jsonReader;
 
     private JPanel mainMenu;
@@ -55,19 +64,37 @@ public class GUI extends JFrame implements ActionListener {
     private JPanel investStocksMenu;
     private ArrayList<JTextField> investTextFields;
     private JTextField investDays;
+    private JTextField allocationFile;
+    private JTextField allocationTotal;
+    private JButton investStocksButton;
+    private JButton cancelInvestingButton;
+    private JLabel investProgressLabel;
+    private InvestmentWorker investmentWorker;
 
-    private JLabel stockList;
+    private StockTableModel stockTableModel;
+    private JLabel stockCountLabel;
 
 
     public GUI() {
         super("Stock Portfolio");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
+        saveService = new SaveService(JSON_STORE, this);
+        priceBus = new PriceUpdateBus();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                priceBus.close();
+                saveService.close();
+            }
+        });
         setPreferredSize(new Dimension(800, 500));
         ((JPanel) getContentPane()).setBorder(new EmptyBorder(13, 13, 13, 13));
 
         initializeMainMenu();
 
         initializeSubMenus();
+
+        priceBus.subscribe(stockTableModel::pricesChanged, EventQueue::invokeLater, PRICE_REFRESH_MILLIS);
     }
 
     // REQUIRES:
@@ -75,6 +102,7 @@ public class GUI extends JFrame implements ActionListener {
     // EFFECTS: creates the main menu ui and initializes a new portfolio
     public void initializeMainMenu() {
         portfolio = new Portfolio();
+        portfolio.setPriceBus(priceBus);
 
         mainMenu = new JPanel();
         mainMenu.setLayout(new BoxLayout(mainMenu, BoxLayout.Y_AXIS));
@@ -223,7 +251,7 @@ public class GUI extends JFrame implements ActionListener {
 
         investTextFields = createInvestFields();
 
-        JButton investStocksButton = new JButton("Invest Stocks");
+        investStocksButton = new JButton("Invest Stocks");
         investStocksButton.setFont(new Font("Georgia", Font.BOLD, 12));
         investStocksButton.setBackground((Color.BLACK));
         investStocksMenu.add(investStocksButton);
@@ -231,6 +259,20 @@ public class GUI extends JFrame implements ActionListener {
         investStocksButton.setActionCommand("Invest Stocks");
         investStocksButton.addActionListener(this);
 
+        cancelInvestingButton = new JButton("Cancel Investing");
+        cancelInvestingButton.setFont(new Font("Georgia", Font.BOLD, 12));
+        cancelInvestingButton.setBackground((Color.BLACK));
+        cancelInvestingButton.setEnabled(false);
+        investStocksMenu.add(cancelInvestingButton);
+        cancelInvestingButton.setActionCommand("Cancel Investing");
+        cancelInvestingButton.addActionListener(this);
+
+        investProgressLabel = new JLabel();
+        investProgressLabel.setFont(new Font("Georgia", Font.BOLD, 12));
+        investStocksMenu.add(investProgressLabel);
+
+        createAllocationFields();
+
         JButton mainMenuButton = new JButton("Back to Main Menu");
         mainMenuButton.setFont(new Font("Georgia", Font.BOLD, 12));
         mainMenuButton.setBackground((Color.BLACK));
@@ -244,10 +286,18 @@ public class GUI extends JFrame implements ActionListener {
     // MODIFIES: this
     // EFFECTS: for each stock in portfolio it will create a label and text field asking for amount to invest in
     // - also creates label and field for how many days to invest in all the stocks
+    //              - past MAX_INVEST_FIELDS stocks no fields are made and the allocation fields are used instead
     private ArrayList<JTextField> createInvestFields() {
         ArrayList<JTextField> labelList = new ArrayList<>();
 
-        for (Stock stock : portfolio.getPortfolioList()) {
+        if (portfolio.size() > MAX_INVEST_FIELDS) {
+            JLabel label = new JLabel("You have " + portfolio.size()
+                    + " stocks, use an allocation file or rule below to choose how much to invest in each");
+            label.setFont(new Font("Georgia", Font.BOLD, 12));
+            investStocksMenu.add(label);
+        }
+        for (int i = 0; i < portfolio.size() && i < MAX_INVEST_FIELDS; i++) {
+            Stock stock = portfolio.getStock(i);
             JLabel label = new JLabel("How much would you like to invest int stock " + stock.getSymbol() + "?");
             label.setFont(new Font("Georgia", Font.BOLD, 12));
             JTextField textField = new JTextField(5);
@@ -268,6 +318,38 @@ public class GUI extends JFrame implements ActionListener {
         return labelList;
     }
 
+    // MODIFIES: this
+    // EFFECTS: creates the fields and buttons for investing by an allocation file or a percentage rule
+    private void createAllocationFields() {
+        JLabel fileLabel = new JLabel("Allocation file (CSV of symbol,amount or JSON of \"symbol\": amount):");
+        fileLabel.setFont(new Font("Georgia", Font.BOLD, 12));
+        allocationFile = new JTextField(20);
+        allocationFile.setMaximumSize(new Dimension(1200, 40));
+        investStocksMenu.add(fileLabel);
+        investStocksMenu.add(allocationFile);
+        addInvestStocksButton("Invest From File");
+
+        JLabel totalLabel = new JLabel("Total to split over all stocks:");
+        totalLabel.setFont(new Font("Georgia", Font.BOLD, 12));
+        allocationTotal = new JTextField(5);
+        allocationTotal.setMaximumSize(new Dimension(1200, 40));
+        investStocksMenu.add(totalLabel);
+        investStocksMenu.add(allocationTotal);
+        addInvestStocksButton("Invest Equal Weight");
+        addInvestStocksButton("Invest By Risk");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a button with the given text and action command to the invest stocks menu
+    private void addInvestStocksButton(String text) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Georgia", Font.BOLD, 12));
+        button.setBackground((Color.BLACK));
+        investStocksMenu.add(button);
+        button.setActionCommand(text);
+        button.addActionListener(this);
+    }
+
     // REQUIRES:
     // MODIFIES: this
     // EFFECTS: for each stock in portfolio it will create a label and text field asking for amount to invest in
@@ -279,13 +361,24 @@ public class GUI extends JFrame implements ActionListener {
         title.setFont(new Font("Georgia", Font.BOLD, 20));
         viewStockMenu.add(title);
 
-        stockList = new JLabel(convertToMultiline(portfolio.getStocksAsString()), SwingConstants.CENTER);
-        stockList.setFont(new Font("Georgia", Font.BOLD, 12));
+        stockTableModel = new StockTableModel(portfolio);
+        JTable stockTable = new JTable(stockTableModel);
+        stockTable.setFont(new Font("Georgia", Font.PLAIN, 12));
+        stockTable.setFillsViewportHeight(true);
 
-        JScrollPane pane = new JScrollPane(stockList);
+        JScrollPane pane = new JScrollPane(stockTable);
         pane.setPreferredSize(new Dimension(1200, 300));
         viewStockMenu.add(pane);
 
+        stockCountLabel = new JLabel();
+        stockCountLabel.setFont(new Font("Georgia", Font.BOLD, 12));
+        viewStockMenu.add(stockCountLabel);
+
+        addViewStockButton("Sort by P&L");
+        addViewStockButton("Sort by Risk");
+        addViewStockButton("Sort by Market Cap");
+        refreshStockList();
+
         JButton toMenu = new JButton("Back to Main Menu");
         toMenu.setFont(new Font("Georgia", Font.BOLD, 12));
         toMenu.setBackground((Color.BLACK));
@@ -295,6 +388,27 @@ public class GUI extends JFrame implements ActionListener {
         toMenu.setActionCommand("Back to Main Menu");
     }
 
+    // MODIFIES: this
+    // EFFECTS: adds a button with the given text and action command to the view stocks menu
+    private void addViewStockButton(String text) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Georgia", Font.BOLD, 12));
+        button.setBackground((Color.BLACK));
+        viewStockMenu.add(button);
+        button.setActionCommand(text);
+        button.addActionListener(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells the stock table that the portfolio changed. The table only reads the rows that are visible,
+    //          so this is as quick for a huge portfolio as for a small one (apart from re-sorting, if sorted).
+    //          While prices change, such as during an investment run, the table is instead given the conflated price
+    //          updates at most every PRICE_REFRESH_MILLIS and repaints only their rows; this runs once it is done
+    private void refreshStockList() {
+        stockTableModel.refresh();
+        stockCountLabel.setText(portfolio.size() + " stocks");
+    }
+
     // REQUIRES:
     // MODIFIES: this
     // EFFECTS:  Initializes the menu for adding stocks
@@ -393,8 +507,17 @@ public class GUI extends JFrame implements ActionListener {
     }
 
     // EFFECTS: calls methods when button pressed for each menu
+    //          - while stocks are being invested only cancelling is allowed, so nothing else changes the portfolio
     @Override
     public void actionPerformed(ActionEvent e) {
+        if (investmentWorker != null) {
+            if (e.getActionCommand().equals("Cancel Investing")) {
+                investmentWorker.requestStop();
+            } else {
+                System.out.println("Wait for investing to finish or cancel it");
+            }
+            return;
+        }
         mainMenuActions(e);
         viewStockMenuActions(e);
         addStockMenuActions(e);
@@ -409,7 +532,11 @@ public class GUI extends JFrame implements ActionListener {
     //              - one button returns to main menu
     private void addBalanceMenuActions(ActionEvent e) {
         if (e.getActionCommand().equals("Add Balance")) {
-            portfolio.setBalance(portfolio.getBalance() + Double.parseDouble(balanceField.getText()));
+            try {
+                portfolio.setBalance(portfolio.getBalance() + Double.parseDouble(balanceField.getText()));
+            } catch (ArithmeticException exception) {
+                System.out.println("Amount too large");
+            }
             balance.setText("Your available balance is: $" + portfolio.getBalance());
         } else if (e.getActionCommand().equals("Back to Main Menu")) {
             mainMenu.setVisible(true);
@@ -438,6 +565,7 @@ public class GUI extends JFrame implements ActionListener {
                 loadPortfolio();
                 break;
             case "Exit application":
+                saveService.close();
                 System.exit(0);
                 break;
             case "Invest in Your Stocks Now":
@@ -453,13 +581,13 @@ public class GUI extends JFrame implements ActionListener {
     }
 
     private void sellFirstStock() {
-        if (portfolio.getPortfolioList().size() > 0) {
-            Stock stock = portfolio.getPortfolioList().get(0);
+        if (portfolio.size() > 0) {
+            Stock stock = portfolio.getStock(0);
             portfolio.sellStock(stock);
 
             balance.setText("Your available balance is: $" + portfolio.getBalance());
 
-            stockList.setText(portfolio.getStocksAsString());
+            refreshStockList();
         }
     }
 
@@ -484,6 +612,12 @@ public class GUI extends JFrame implements ActionListener {
     private void investStocksMenuActions(ActionEvent e) {
         if (e.getActionCommand().equals("Invest Stocks")) {
             setInvestments();
+        } else if (e.getActionCommand().equals("Invest From File")) {
+            investFromFile();
+        } else if (e.getActionCommand().equals("Invest Equal Weight")) {
+            investByRule(false);
+        } else if (e.getActionCommand().equals("Invest By Risk")) {
+            investByRule(true);
         } else if (e.getActionCommand().equals("Back to Main Menu")) {
             mainMenu.setVisible(true);
             viewStockMenu.setVisible(false);
@@ -508,23 +642,82 @@ public class GUI extends JFrame implements ActionListener {
 
     // REQUIRES: the text in TextField can be parsed to be the correct type of field in stock
     // MODIFIES: this
-    // EFFECTS: invests in each stock depending on what is entered in textFields, changes balance label
+    // EFFECTS: invests in each stock depending on what is entered in textFields (stocks left blank are left as
+    //          they are), changes balance label, then invests the stocks on a background thread that can be cancelled
     private void setInvestments() {
-        for (int i = 0; i < portfolio.getPortfolioList().size(); i++) {
-            Stock stock = portfolio.getPortfolioList().get(i);
-            try {
-                stock.setCurrentInvestmentWorth(Double.parseDouble(investTextFields.get(i).getText()));
-                portfolio.subtractBalance(Double.parseDouble(investTextFields.get(i).getText()));
-            } catch (NegativeDoubleException e) {
-                System.out.println("cannot invest negative amount");
+        Allocation allocation = new Allocation(portfolio);
+        try {
+            for (int i = 0; i < investTextFields.size(); i++) {
+                String amount = investTextFields.get(i).getText().trim();
+                if (!amount.isEmpty()) {
+                    allocation.allocate(portfolio.getStock(i), Double.parseDouble(amount));
+                }
             }
-            balance.setText("Your available balance is: $" + portfolio.getBalance());
+            investWithAllocation(allocation);
+        } catch (InvalidAllocationException e) {
+            System.out.println("Unable to invest: " + e.getMessage());
+        }
+    }
 
+    // REQUIRES: the days field can be parsed to an int
+    // MODIFIES: this
+    // EFFECTS: reads the allocation file entered and invests with it, or reports every bad entry if it is invalid
+    private void investFromFile() {
+        try {
+            investWithAllocation(new AllocationReader(allocationFile.getText().trim()).read(portfolio));
+        } catch (IOException e) {
+            System.out.println("Unable to read from file: " + allocationFile.getText());
+        } catch (InvalidAllocationException e) {
+            System.out.println("Unable to invest:\n" + e.getMessage());
         }
+    }
+
+    // REQUIRES: the total and days fields can be parsed to a double and an int
+    // MODIFIES: this
+    // EFFECTS: splits the total entered over all stocks, weighted by risk if byRisk or evenly otherwise, and invests
+    private void investByRule(boolean byRisk) {
+        double total = Double.parseDouble(allocationTotal.getText());
+        try {
+            investWithAllocation(byRisk ? Allocation.byRisk(portfolio, total)
+                    : Allocation.equalWeight(portfolio, total));
+        } catch (InvalidAllocationException e) {
+            System.out.println("Unable to invest: " + e.getMessage());
+        }
+    }
+
+    // REQUIRES: the days field can be parsed to an int
+    // MODIFIES: this
+    // EFFECTS: applies allocation to the portfolio as one batch, changes balance label, then invests the stocks on a
+    //          background thread that can be cancelled. throws InvalidAllocationException if it cannot be applied
+    private void investWithAllocation(Allocation allocation) {
+        int days = Integer.parseInt(investDays.getText());
+        portfolio.applyAllocation(allocation);
+        balance.setText("Your available balance is: $" + portfolio.getBalance());
+
+        startInvesting(days);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts investing all stocks for days days in the background, showing progress on the invest menu.
+    //          Stocks not loaded yet are loaded here first, so the table never decodes one while the worker does
+    private void startInvesting(int days) {
+        portfolio.ensureLoaded();
+        investStocksButton.setEnabled(false);
+        cancelInvestingButton.setEnabled(true);
+        investProgressLabel.setText("Investing...");
 
-        portfolio.investStocksForDays(Integer.parseInt(investDays.getText()));
+        investmentWorker = new InvestmentWorker(portfolio, days, investProgressLabel, this::finishInvesting);
+        investmentWorker.execute();
+    }
 
-        stockList.setText(portfolio.getStocksAsString());
+    // MODIFIES: this
+    // EFFECTS: shows the results of the finished or cancelled investment run and allows new actions again
+    private void finishInvesting() {
+        investmentWorker = null;
+        investStocksButton.setEnabled(true);
+        cancelInvestingButton.setEnabled(false);
+        balance.setText("Your available balance is: $" + portfolio.getBalance());
+        refreshStockList();
     }
 
     // MODIFIES: this
@@ -533,26 +726,35 @@ public class GUI extends JFrame implements ActionListener {
         try {
             jsonReader = new JsonReader(JSON_STORE);
             portfolio = jsonReader.read();
+            portfolio.setPriceBus(priceBus);
+            saveService.markSaved(portfolio);
             System.out.println("Loaded portfolio saved at " + JSON_STORE);
-            stockList.setText(portfolio.getStocksAsString());
+            stockTableModel.setPortfolio(portfolio);
+            refreshStockList();
         } catch (IOException e) {
             System.out.println("Unable to read from file: " + JSON_STORE);
         }
     }
 
-    // EFFECTS: saves the portfolio to file in data folder
+    // EFFECTS: saves the portfolio to file in data folder in the background, if it changed since it was last saved
     private void savePortfolio() {
-        try {
-            jsonWriter = new JsonWriter(JSON_STORE);
-            jsonWriter.open();
-            jsonWriter.write(portfolio);
-            jsonWriter.close();
-            System.out.println("Saved portfolio to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
-            System.out.println("Unable to write to file: " + JSON_STORE);
+        if (!saveService.requestSave(portfolio)) {
+            System.out.println("No changes to save to " + JSON_STORE);
         }
     }
 
+    // EFFECTS: reports a finished save; called on the save thread
+    @Override
+    public void saved(String destination, long latencyNanos, int requests) {
+        System.out.printf("Saved portfolio to %s in %.1f ms%n", destination, latencyNanos / 1e6);
+    }
+
+    // EFFECTS: reports a save that failed; called on the save thread
+    @Override
+    public void saveFailed(String destination, IOException e) {
+        System.out.println("Unable to write to file: " + destination);
+    }
+
     // REQUIRES:
     // MODIFIES: this
     // EFFECTS: switches to addstock to portfolio menu
@@ -580,9 +782,16 @@ public class GUI extends JFrame implements ActionListener {
     // REQUIRES:
     // MODIFIES: this
     // EFFECTS: actions for button clicks in view stock menu
+    //              - sorts the stocks by P&L, risk or market cap, pressing again reverses the order
     //              - returns to main menu
     private void viewStockMenuActions(ActionEvent e) {
-        if (e.getActionCommand().equals("Back to Main Menu")) {
+        if (e.getActionCommand().equals("Sort by P&L")) {
+            stockTableModel.sortBy(StockTableModel.PROFIT_AND_LOSS);
+        } else if (e.getActionCommand().equals("Sort by Risk")) {
+            stockTableModel.sortBy(StockTableModel.RISK);
+        } else if (e.getActionCommand().equals("Sort by Market Cap")) {
+            stockTableModel.sortBy(StockTableModel.MARKET_CAP);
+        } else if (e.getActionCommand().equals("Back to Main Menu")) {
             mainMenu.setVisible(true);
             viewStockMenu.setVisible(false);
             addStockMenu.setVisible(false);
@@ -606,13 +815,15 @@ public class GUI extends JFrame implements ActionListener {
                 stock.setMarketCap(Double.parseDouble(marketCap.getText()));
                 stock.setRisk(Integer.parseInt(risk.getText()));
                 portfolio.addStock(stock);
-                stockList.setText(portfolio.getStocksAsString());
+                refreshStockList();
             } catch (NonCapLetterException exception) {
                 System.out.println("Only capital letters allowed");
             } catch (TicketLengthException exception) {
                 System.out.println("Invalid symbol: longer than 5 characters");
             } catch (NegativeDoubleException exception) {
                 System.out.println("Negative values not allowed");
+            } catch (ArithmeticException exception) {
+                System.out.println("Amount too large");
             } catch (RiskOutOfBoundaryException exception) {
                 System.out.println("Risk outside of boundary 1-5");
             }
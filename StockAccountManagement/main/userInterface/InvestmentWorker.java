@@ -0,0 +1,99 @@
+package objectOrientedProgram.StockAccountManagement.main.userInterface;
+
+import objectOrientedProgram.StockAccountManagement.main.model.InvestmentProgress;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+
+import javax.swing.JLabel;
+import javax.swing.SwingWorker;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+// Invests a portfolio on a background thread so the window stays responsive. Progress, by stock and by day within a
+// stock, is published at most every PUBLISH_INTERVAL_NANOS, so however fast stocks are invested the event thread only
+// repaints a few times a second. A stop request is seen within Stock.DAYS_PER_CHECK days, even on a long horizon.
+public class InvestmentWorker extends SwingWorker<Integer, String> implements InvestmentProgress {
+    private static final long PUBLISH_INTERVAL_NANOS = 100_000_000L;
+
+    private final Portfolio portfolio;
+    private final int days;
+    private final JLabel progressLabel;
+    private final Runnable whenDone;
+    private volatile boolean stopRequested;
+    private long lastPublished;
+    private int stocksDone;
+
+    // EFFECTS: creates a worker that invests every stock of portfolio for days days, shows progress in
+    //          progressLabel and runs whenDone on the event thread once it has finished or stopped
+    public InvestmentWorker(Portfolio portfolio, int days, JLabel progressLabel, Runnable whenDone) {
+        this.portfolio = portfolio;
+        this.days = days;
+        this.progressLabel = progressLabel;
+        this.whenDone = whenDone;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: asks the worker to stop within Stock.DAYS_PER_CHECK days of the stock it is investing now
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    @Override
+    public boolean shouldStop() {
+        return stopRequested;
+    }
+
+    // EFFECTS: publishes the number of stocks done if enough time has passed since the last update, or if done
+    @Override
+    public void stockInvested(int done, int total) {
+        stocksDone = done;
+        long now = System.nanoTime();
+        if (done == total || now - lastPublished >= PUBLISH_INTERVAL_NANOS) {
+            lastPublished = now;
+            setProgress(total == 0 ? 100 : (int) (100L * done / total));
+            publish("Invested " + done + " of " + total + " stocks");
+        }
+    }
+
+    // EFFECTS: publishes how far the stock being invested is if enough time has passed since the last update
+    @Override
+    public void daysInvested(int done, int days) {
+        long now = System.nanoTime();
+        if (now - lastPublished >= PUBLISH_INTERVAL_NANOS) {
+            lastPublished = now;
+            int total = portfolio.size();
+            setProgress((int) (100 * (stocksDone + done / (double) days) / total));
+            publish("Investing stock " + (stocksDone + 1) + " of " + total + ": day " + done + " of " + days);
+        }
+    }
+
+    // MODIFIES: portfolio
+    // EFFECTS: invests the portfolio off the event thread and returns how many stocks were invested
+    @Override
+    protected Integer doInBackground() {
+        return portfolio.investStocksForDays(days, this);
+    }
+
+    // EFFECTS: shows the latest progress only, earlier ones published in the same batch are skipped
+    @Override
+    protected void process(List<String> chunks) {
+        progressLabel.setText(chunks.get(chunks.size() - 1));
+    }
+
+    // EFFECTS: reports how the run ended and hands control back to the window
+    @Override
+    protected void done() {
+        try {
+            int invested = get();
+            int total = portfolio.size();
+            if (invested < total) {
+                progressLabel.setText("Stopped after investing " + invested + " of " + total + " stocks");
+            } else {
+                progressLabel.setText("Invested all " + total + " stocks for " + days + " days");
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            progressLabel.setText("Investing failed");
+            System.out.println("Investing failed: " + e.getCause());
+        }
+        whenDone.run();
+    }
+}
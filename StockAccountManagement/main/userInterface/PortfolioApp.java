@@ -7,7 +7,8 @@ import objectOrientedProgram.StockAccountManagement.main.exceptions.TicketLength
 import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
 import objectOrientedProgram.StockAccountManagement.main.model.Stock;
 import objectOrientedProgram.StockAccountManagement.main.persistance.JsonReader;
-import objectOrientedProgram.StockAccountManagement.main.persistance.JsonWriter;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SaveListener;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SaveService;
 
 import java.text.DecimalFormat;
 import java.util.Locale;
@@ -16,17 +17,17 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 
 
-public class PortfolioApp {
+public class PortfolioApp implements SaveListener {
     private static final String JSON_STORE = "./data/portfolio.json";
 
     private Portfolio portfolio;
     private Scanner input;
-    private JsonWriter jsonWriter;
+    private SaveService saveService;
     private JsonReader jsonReader;
 
 
     public PortfolioApp() throws FileNotFoundException {
-        jsonWriter = new JsonWriter(JSON_STORE);
+        saveService = new SaveService(JSON_STORE, this);
         jsonReader = new JsonReader(JSON_STORE);
         runPortfolio();
     }
@@ -47,6 +48,7 @@ public class PortfolioApp {
             // q is quit
             if (command.equals("9")) {
                 keepGoing = false;
+                saveService.close();
             } else {
                 processCommand(command);
             }
@@ -105,7 +107,11 @@ public class PortfolioApp {
         double amount = input.nextDouble();
 
         if (amount >= 0.0) {
-            portfolio.deposit(amount);
+            try {
+                portfolio.deposit(amount);
+            } catch (ArithmeticException exception) {
+                System.out.println("Cannot deposit that much...\n");
+            }
         } else {
             System.out.println("Cannot deposit negative amount...\n");
         }
@@ -130,8 +136,11 @@ public class PortfolioApp {
 
         Stock stock = portfolio.checkForTicker(ticker);
 
-        portfolio.sellStock(stock);
-
+        if (stock == null) {
+            System.out.println("No stock found with that symbol");
+        } else {
+            portfolio.sellStock(stock);
+        }
 
     }
 
@@ -193,6 +202,8 @@ public class PortfolioApp {
             stock.setStockPriceCurrent(stockPrice);
         } catch (NegativeDoubleException exception) {
             System.out.println("Negative stock price is invalid");
+        } catch (ArithmeticException exception) {
+            System.out.println("Stock price too large");
         }
 
     }
@@ -214,6 +225,8 @@ public class PortfolioApp {
 
         } catch (NegativeDoubleException e) {
             System.out.println("Input positive number for marketcap");
+        } catch (ArithmeticException e) {
+            System.out.println("Market cap too large");
         }
     }
 
@@ -259,6 +272,8 @@ public class PortfolioApp {
                 portfolio.subtractBalance(amount);
             } catch (NegativeDoubleException e) {
                 System.out.println("Cannot set negative amount to invest");
+            } catch (ArithmeticException e) {
+                System.out.println("Cannot invest that amount");
             }
         }
         System.out.println("For how many days would you like to invest?");
@@ -294,7 +309,9 @@ public class PortfolioApp {
 
         Stock stock = portfolio.checkForTicker(ticker);
 
-        if (!(stock == null)) {
+        if (stock == null) {
+            System.out.println("No stock found with that symbol");
+        } else {
             System.out.println("How much would you like to invest?");
             double amount = input.nextInt();
 
@@ -302,6 +319,8 @@ public class PortfolioApp {
                 stock.addInvestmentAmount(amount);
             } catch (NegativeDoubleException e) {
                 System.out.println("Inputted negative number");
+            } catch (ArithmeticException e) {
+                System.out.println("Cannot invest that amount");
             }
         }
     }
@@ -311,22 +330,30 @@ public class PortfolioApp {
     private void loadPortfolio() {
         try {
             portfolio = jsonReader.read();
+            saveService.markSaved(portfolio);
             System.out.println("Loaded portfolio saved at " + JSON_STORE);
         } catch (IOException e) {
             System.out.println("Unable to read from file: " + JSON_STORE);
         }
     }
 
-    // EFFECTS: saves the portfolio to file in data folder
+    // EFFECTS: saves the portfolio to file in data folder in the background, if it changed since it was last saved
     private void saveCurrentPortfolio() {
-        try {
-            jsonWriter.open();
-            jsonWriter.write(portfolio);
-            jsonWriter.close();
-            System.out.println("Saved portfolio to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
-            System.out.println("Unable to write to file: " + JSON_STORE);
+        if (!saveService.requestSave(portfolio)) {
+            System.out.println("No changes to save to " + JSON_STORE);
         }
     }
+
+    // EFFECTS: reports a finished save; called on the save thread
+    @Override
+    public void saved(String destination, long latencyNanos, int requests) {
+        System.out.printf("Saved portfolio to %s in %.1f ms%n", destination, latencyNanos / 1e6);
+    }
+
+    // EFFECTS: reports a save that failed; called on the save thread
+    @Override
+    public void saveFailed(String destination, IOException e) {
+        System.out.println("Unable to write to file: " + destination);
+    }
 }
 
@@ -0,0 +1,238 @@
+package objectOrientedProgram.StockAccountManagement.main.userInterface;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.PriceUpdate;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Table model that reads straight from the stocks of a portfolio. Nothing is copied or formatted up front; the table
+// only asks for the cells of the rows it is painting, so a portfolio of any size opens at once. When sorted, the model
+// keeps a primitive array of row -> stock index instead of reordering the portfolio.
+//
+// Price updates from a PriceUpdateBus are shown without touching the order: the price, previous price and worth of
+// the symbols in them are taken from the updates, which are snapshots, and only their rows are repainted. The stocks
+// can be changed on another thread in the meantime, as during an investment run; refresh once that is done.
+public class StockTableModel extends AbstractTableModel {
+    public static final int SYMBOL = 0;
+    public static final int PRICE = 1;
+    public static final int PREVIOUS_PRICE = 2;
+    public static final int WORTH = 3;
+    public static final int PROFIT_AND_LOSS = 4;
+    public static final int SHARES = 5;
+    public static final int RISK = 6;
+    public static final int MARKET_CAP = 7;
+
+    private static final String[] COLUMN_NAMES = {"Stock", "Current Price", "Price Before Investing",
+            "Amount Invested", "P&L", "Shares", "Risk (1-5)", "Market Cap"};
+    private static final Class<?>[] COLUMN_CLASSES = {String.class, Double.class, Double.class, Double.class,
+            Double.class, Double.class, Integer.class, Double.class};
+
+    // Fields:
+    private Portfolio portfolio;
+    private int sortColumn;
+    private boolean descending;
+    private int[] order;
+    private int[] rows;
+    private final Map<String, PriceUpdate> updates;
+
+    // EFFECTS: creates an unsorted model over the stocks of portfolio
+    public StockTableModel(Portfolio portfolio) {
+        this.portfolio = portfolio;
+        this.sortColumn = -1;
+        this.updates = new HashMap<>();
+    }
+
+    // Getters:
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Override
+    public int getRowCount() {
+        return portfolio.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_CLASSES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Stock stock = getStock(row);
+        if (column == SYMBOL) {
+            return stock.getSymbol();
+        } else if (column == RISK) {
+            return stock.getRisk();
+        }
+        PriceUpdate update = updates.isEmpty() ? null : updates.get(stock.getSymbol());
+        return update == null ? valueOf(stock, column) : valueOf(stock, update, column);
+    }
+
+    // REQUIRES: 0 <= row < getRowCount()
+    // EFFECTS: returns the stock shown in row
+    public Stock getStock(int row) {
+        if (order == null || order.length != portfolio.size()) {
+            return portfolio.getStock(row);
+        }
+        return portfolio.getStock(order[row]);
+    }
+
+    // Setters:
+
+    // MODIFIES: this
+    // EFFECTS: shows the stocks of portfolio instead, keeping the current sort
+    public void setPortfolio(Portfolio portfolio) {
+        this.portfolio = portfolio;
+        refresh();
+    }
+
+    // Methods:
+
+    // REQUIRES: column is PROFIT_AND_LOSS, RISK, MARKET_CAP or any other numeric column
+    // MODIFIES: this
+    // EFFECTS: sorts the rows by column, largest first. Sorting by the column already sorted on flips the direction.
+    public void sortBy(int column) {
+        descending = column != sortColumn || !descending;
+        sortColumn = column;
+        refresh();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the prices and worths in latest for their symbols and repaints only the rows of those symbols,
+    //          keeping the current order until the next refresh
+    public void pricesChanged(List<PriceUpdate> latest) {
+        for (PriceUpdate update : latest) {
+            updates.put(update.getSymbol(), update);
+            for (Stock stock = portfolio.checkForTicker(update.getSymbol()); stock != null;
+                    stock = stock.getNextWithSymbol()) {
+                int row = rowOf(stock.getSlot());
+                if (row < getRowCount()) {
+                    fireTableRowsUpdated(row, row);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-reads the portfolio after stocks were added, sold or invested, keeping the current sort
+    public void refresh() {
+        updates.clear();
+        if (sortColumn >= 0) {
+            sort();
+        }
+        fireTableDataChanged();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rebuilds the row order from the current values of the sort column
+    private void sort() {
+        int size = portfolio.size();
+        double[] keys = new double[size];
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = valueOf(portfolio.getStock(i), sortColumn);
+            indices[i] = i;
+        }
+        int[] buffer = new int[size];
+        mergeSort(indices, buffer, keys, 0, size);
+        order = indices;
+        rows = buffer;
+        for (int row = 0; row < size; row++) {
+            rows[order[row]] = row;
+        }
+    }
+
+    // EFFECTS: returns the row the stock at slot is shown in
+    private int rowOf(int slot) {
+        if (order == null || order.length != portfolio.size() || slot >= rows.length) {
+            return slot;
+        }
+        return rows[slot];
+    }
+
+    // MODIFIES: indices, buffer
+    // EFFECTS: stably sorts indices[from, to) by their keys in the current direction
+    private void mergeSort(int[] indices, int[] buffer, double[] keys, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(indices, buffer, keys, from, middle);
+        mergeSort(indices, buffer, keys, middle, to);
+        if (!before(keys[indices[middle]], keys[indices[middle - 1]])) {
+            return;
+        }
+        System.arraycopy(indices, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && !before(keys[buffer[right]], keys[buffer[left]]))) {
+                indices[i] = buffer[left++];
+            } else {
+                indices[i] = buffer[right++];
+            }
+        }
+    }
+
+    // EFFECTS: returns true if a row with key a belongs strictly before a row with key b
+    private boolean before(double a, double b) {
+        int compared = Double.compare(a, b);
+        return descending ? compared > 0 : compared < 0;
+    }
+
+    // EFFECTS: returns the numeric value of stock shown in column, with its price, previous price and worth as in
+    //          update
+    private static double valueOf(Stock stock, PriceUpdate update, int column) {
+        switch (column) {
+            case PRICE:
+                return update.getPrice();
+            case PREVIOUS_PRICE:
+                return update.getPreviousPrice();
+            case WORTH:
+                return update.getWorth();
+            case PROFIT_AND_LOSS:
+                return update.getWorth() - stock.getInitialInvestment();
+            default:
+                return valueOf(stock, column);
+        }
+    }
+
+    // EFFECTS: returns the numeric value of stock shown in column
+    private static double valueOf(Stock stock, int column) {
+        switch (column) {
+            case PRICE:
+                return stock.getStockPriceCurrent();
+            case PREVIOUS_PRICE:
+                return stock.getStockPricePrevious();
+            case WORTH:
+                return stock.getCurrentInvestmentWorth();
+            case PROFIT_AND_LOSS:
+                return stock.getCurrentInvestmentWorth() - stock.getInitialInvestment();
+            case SHARES:
+                return stock.getSharesBought();
+            case RISK:
+                return stock.getRisk();
+            default:
+                return stock.getMarketCap();
+        }
+    }
+}
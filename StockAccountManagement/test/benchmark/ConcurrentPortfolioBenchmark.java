@@ -0,0 +1,111 @@
+package objectOrientedProgram.StockAccountManagement.test.benchmark;
+
+import objectOrientedProgram.StockAccountManagement.main.model.ConcurrentPortfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contention benchmark for ConcurrentPortfolio. Every thread buys stocks in random symbols and sells its oldest one
+// once it holds HELD of them, for a fixed time, and the trades per second are printed for 1, 2, 4... threads up to
+// the number of cores (or the number given). The same trades on a Portfolio that every thread locks as a whole are measured alongside.
+//
+// Run with: java ...test.benchmark.ConcurrentPortfolioBenchmark [symbols] [milliseconds per run] [most threads]
+public class ConcurrentPortfolioBenchmark {
+    private static final int HELD = 64;
+    private static final double WORTH = 10;
+    private static final double BALANCE = 1e12;
+
+    private final String[] symbols;
+    private final long millis;
+
+    // REQUIRES: symbols > 0, millis > 0
+    public ConcurrentPortfolioBenchmark(int symbols, long millis) {
+        this.symbols = new String[symbols];
+        for (int i = 0; i < symbols; i++) {
+            StringBuilder symbol = new StringBuilder();
+            for (int rest = i; symbol.length() == 0 || rest > 0; rest /= 26) {
+                symbol.append((char) ('A' + rest % 26));
+            }
+            this.symbols[i] = symbol.toString();
+        }
+        this.millis = millis;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int symbols = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        ConcurrentPortfolioBenchmark benchmark = new ConcurrentPortfolioBenchmark(symbols, millis);
+
+        int cores = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        benchmark.run(cores, true);
+        benchmark.run(cores, false);
+        System.out.printf("%d symbols, %d ms per run%n", symbols, millis);
+        System.out.printf("%8s %16s %16s%n", "threads", "concurrent/s", "locked/s");
+        for (int threads = 1; threads <= cores; threads = threads < cores ? Math.min(threads * 2, cores) : threads + 1) {
+            System.out.printf("%8d %16.0f %16.0f%n", threads, benchmark.run(threads, true),
+                    benchmark.run(threads, false));
+        }
+    }
+
+    // EFFECTS: runs threads trading on one fresh portfolio for millis and returns the trades made per second, on a
+    //          ConcurrentPortfolio if concurrent is true or otherwise on a Portfolio locked for each trade
+    public double run(int threads, boolean concurrent) throws InterruptedException {
+        ConcurrentPortfolio concurrentPortfolio = new ConcurrentPortfolio(BALANCE);
+        Portfolio lockedPortfolio = new Portfolio(BALANCE, 0);
+        LongAdder trades = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] deadline = new long[1];
+
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            workers[t] = new Thread(() -> {
+                ArrayDeque<Stock> held = new ArrayDeque<>(HELD + 1);
+                long made = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while ((made & 255) != 0 || System.nanoTime() < deadline[0]) {
+                    Stock stock = new Stock(symbols[random.nextInt(symbols.length)], 1, 1, WORTH, WORTH,
+                            WORTH, 0, 1, 1000);
+                    if (concurrent) {
+                        concurrentPortfolio.buyStock(stock);
+                    } else {
+                        synchronized (lockedPortfolio) {
+                            lockedPortfolio.subtractBalance(WORTH);
+                            lockedPortfolio.addStock(stock);
+                        }
+                    }
+                    held.add(stock);
+                    if (held.size() > HELD) {
+                        Stock sold = held.remove();
+                        if (concurrent) {
+                            concurrentPortfolio.sellStock(sold);
+                        } else {
+                            synchronized (lockedPortfolio) {
+                                lockedPortfolio.sellStock(sold);
+                            }
+                        }
+                    }
+                    made++;
+                }
+                trades.add(made);
+            });
+            workers[t].start();
+        }
+
+        long started = System.nanoTime();
+        deadline[0] = started + millis * 1_000_000;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return trades.sum() * 1e9 / (System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,119 @@
+package objectOrientedProgram.StockAccountManagement.test.benchmark;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.trading.MatchingEngine;
+import objectOrientedProgram.StockAccountManagement.main.trading.OrderBook;
+import objectOrientedProgram.StockAccountManagement.main.trading.TradeListener;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Throughput and latency benchmark for OrderBook and MatchingEngine on one thread. A stream of random limit orders
+// is generated up front: prices a few cents either side of a slowly wandering mid price, so about half of the
+// orders cross and the rest rest, with one in CANCEL_EVERY cancelling a recent order instead. The stream is replayed
+// on a fresh book several times to warm up, then timed as a whole for throughput and one order at a time for the
+// latency percentiles, and then replayed through a MatchingEngine to include looking up the symbol's book.
+//
+// Run with: java ...test.benchmark.OrderBookBenchmark [orders] [ticks either side of the mid price]
+public class OrderBookBenchmark {
+    private static final long TICK = Money.UNIT / 100;
+    private static final int CANCEL_EVERY = 5;
+    private static final int RECENT = 1024;
+    private static final int WARM_UPS = 5;
+
+    private final boolean[] buys;
+    private final long[] prices;
+    private final long[] quantities;
+    private final int[] cancels;
+    private long trades;
+
+    // REQUIRES: orders > 0, spread > 0
+    // EFFECTS: generates orders random orders (or cancels) with prices up to spread ticks from the mid price
+    public OrderBookBenchmark(int orders, int spread) {
+        SplittableRandom random = new SplittableRandom(42);
+        buys = new boolean[orders];
+        prices = new long[orders];
+        quantities = new long[orders];
+        cancels = new int[orders];
+        long mid = 10000 * TICK;
+        for (int i = 0; i < orders; i++) {
+            mid += (random.nextInt(3) - 1) * TICK;
+            buys[i] = random.nextBoolean();
+            prices[i] = mid + (random.nextInt(2 * spread + 1) - spread) * TICK;
+            quantities[i] = 1 + random.nextInt(100);
+            cancels[i] = i % CANCEL_EVERY == CANCEL_EVERY - 1 ? random.nextInt(RECENT) : -1;
+        }
+    }
+
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int spread = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        OrderBookBenchmark benchmark = new OrderBookBenchmark(orders, spread);
+
+        for (int i = 0; i < WARM_UPS; i++) {
+            benchmark.runBook(null);
+            benchmark.runEngine();
+        }
+        long[] latencies = new long[orders];
+        double book = benchmark.runBook(null);
+        double engine = benchmark.runEngine();
+        benchmark.runBook(latencies);
+        Arrays.sort(latencies);
+
+        System.out.printf("%d orders, %d ticks either side of mid, %d trades per run%n", orders, spread,
+                benchmark.trades);
+        System.out.printf("order book:      %,14.0f orders/s%n", book);
+        System.out.printf("matching engine: %,14.0f orders/s%n", engine);
+        System.out.printf("latency ns: p50 %d  p99 %d  p99.9 %d  max %d%n", percentile(latencies, 0.5),
+                percentile(latencies, 0.99), percentile(latencies, 0.999), latencies[orders - 1]);
+    }
+
+    // EFFECTS: replays the orders on a fresh book and returns orders per second; if latencies is not null, times
+    //          each order on its own into latencies instead, which slows the run down
+    public double runBook(long[] latencies) {
+        long[] count = new long[1];
+        TradeListener listener = (book, buyOrder, sellOrder, price, quantity) -> count[0]++;
+        OrderBook book = new OrderBook("AAPL", listener);
+        long[] recent = new long[RECENT];
+
+        long started = System.nanoTime();
+        for (int i = 0; i < buys.length; i++) {
+            long before = latencies != null ? System.nanoTime() : 0;
+            if (cancels[i] >= 0) {
+                book.cancel(recent[cancels[i]]);
+            } else {
+                recent[i & (RECENT - 1)] = book.submit(buys[i], prices[i], quantities[i], MatchingEngine.MARKET);
+            }
+            if (latencies != null) {
+                latencies[i] = System.nanoTime() - before;
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        trades = count[0];
+        return buys.length * 1e9 / elapsed;
+    }
+
+    // EFFECTS: replays the orders through a MatchingEngine with an empty portfolio and returns orders per second
+    public double runEngine() {
+        MatchingEngine engine = new MatchingEngine(new Portfolio());
+        long[] recent = new long[RECENT];
+
+        long started = System.nanoTime();
+        for (int i = 0; i < buys.length; i++) {
+            if (cancels[i] >= 0) {
+                engine.cancel("AAPL", recent[cancels[i]]);
+            } else {
+                recent[i & (RECENT - 1)] = engine.submit("AAPL", buys[i], prices[i], quantities[i],
+                        MatchingEngine.MARKET);
+            }
+        }
+        return buys.length * 1e9 / (System.nanoTime() - started);
+    }
+
+    // REQUIRES: sorted is sorted and not empty, 0 <= fraction < 1
+    // EFFECTS: returns the value fraction of the way through sorted
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[(int) (sorted.length * fraction)];
+    }
+}
@@ -0,0 +1,103 @@
+package objectOrientedProgram.StockAccountManagement.test.benchmark;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonReader;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonWriter;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SnapshotReader;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SnapshotWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// Load time benchmark for the binary snapshot format against JSON. A portfolio with one stock in each of a number of
+// distinct symbols is saved both ways to a temporary directory, and each file is then read back several times: the
+// JSON file with JsonReader, the snapshot eagerly with SnapshotReader.read and lazily with readLazily, which decodes
+// no stocks until they are asked for. The first reads warm up the JIT and the page cache; the fastest of the rest is
+// printed with the heap the loaded portfolio keeps alive. The files are deleted when the run finishes.
+//
+// Run with: java ...test.benchmark.SnapshotBenchmark [stocks] [runs]
+public class SnapshotBenchmark {
+    private static final int WARM_UPS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int stocks = args.length > 0 ? Integer.parseInt(args[0]) : 400_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Path directory = Files.createTempDirectory("snapshot-benchmark");
+        Path json = directory.resolve("portfolio.json");
+        Path snapshot = directory.resolve("portfolio.snap");
+        try {
+            Portfolio portfolio = portfolio(stocks);
+            JsonWriter jsonWriter = new JsonWriter(json.toString());
+            jsonWriter.open();
+            jsonWriter.write(portfolio);
+            jsonWriter.close();
+            SnapshotWriter snapshotWriter = new SnapshotWriter(snapshot.toString());
+            snapshotWriter.open();
+            snapshotWriter.write(portfolio);
+            snapshotWriter.close();
+
+            System.out.printf("%,d stocks: JSON %,d KB, snapshot %,d KB%n", stocks, Files.size(json) >> 10,
+                    Files.size(snapshot) >> 10);
+            report("JSON read", runs, () -> new JsonReader(json.toString()).read());
+            report("snapshot read", runs, () -> new SnapshotReader(snapshot.toString()).read());
+            report("lazy open", runs, () -> new SnapshotReader(snapshot.toString()).readLazily());
+        } finally {
+            Files.deleteIfExists(json);
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    // EFFECTS: returns a portfolio with one stock in each of stocks distinct symbols
+    public static Portfolio portfolio(int stocks) {
+        SplittableRandom random = new SplittableRandom(3);
+        Portfolio portfolio = new Portfolio(1000000, 0);
+        for (int i = 0; i < stocks; i++) {
+            StringBuilder symbol = new StringBuilder();
+            for (int rest = i; symbol.length() == 0 || rest > 0; rest /= 26) {
+                symbol.append((char) ('A' + rest % 26));
+            }
+            double price = 1 + random.nextDouble() * 500;
+            double worth = Math.floor(random.nextDouble() * 1e6) / 100;
+            portfolio.addStock(new Stock(symbol.toString(), price, price * 0.98, worth, worth, worth / price,
+                    random.nextInt(30), 1 + random.nextInt(5), 1.0E9));
+        }
+        return portfolio;
+    }
+
+    // EFFECTS: reads with load runs times after warming up and prints the fastest time, the heap kept by the
+    //          portfolio read and the number of its stocks decoded
+    public static void report(String name, int runs, Load load) throws IOException {
+        for (int i = 0; i < WARM_UPS; i++) {
+            load.load();
+        }
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long started = System.nanoTime();
+            load.load();
+            fastest = Math.min(fastest, System.nanoTime() - started);
+        }
+
+        long before = usedHeap();
+        Portfolio portfolio = load.load();
+        long kept = usedHeap() - before;
+        System.out.printf("%-14s %8.1f ms %6d MB  (%,d of %,d stocks decoded)%n", name + ":", fastest / 1e6,
+                kept >> 20, portfolio.getLoadedCount(), portfolio.size());
+    }
+
+    // EFFECTS: returns the heap in use after a garbage collection
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Reads a portfolio from one of the benchmark's files
+    public interface Load {
+        Portfolio load() throws IOException;
+    }
+}
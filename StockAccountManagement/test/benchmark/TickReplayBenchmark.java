@@ -0,0 +1,135 @@
+package objectOrientedProgram.StockAccountManagement.test.benchmark;
+
+import objectOrientedProgram.StockAccountManagement.main.marketdata.ReplayResult;
+import objectOrientedProgram.StockAccountManagement.main.marketdata.TickReplay;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.model.SymbolIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+// Benchmark for TickReplay over a generated trading day. A file of random-walk ticks for a number of symbols, spread
+// over the 6.5 hours the market is open, is written once, and a portfolio holding one stock in every symbol is
+// replayed from it. For comparison the same file is also applied the simple way, reading it line by line and
+// updating the stock for every tick. Unless a file is given the ticks go to a temporary file, about 400 MB at the
+// default size, which is deleted when the run finishes.
+//
+// Run with: java ...test.benchmark.TickReplayBenchmark [ticks] [symbols] [file]
+public class TickReplayBenchmark {
+    private static final long OPEN_MILLIS = 34_200_000;
+    private static final long DAY_MILLIS = 23_400_000;
+    private static final int RUNS = 3;
+
+    private final String[] symbols;
+    private final Path file;
+
+    // REQUIRES: 0 < symbols <= 26^4
+    public TickReplayBenchmark(int symbols, Path file) {
+        this.symbols = new String[symbols];
+        for (int i = 0; i < symbols; i++) {
+            char[] letters = new char[4];
+            for (int j = 3, rest = i; j >= 0; j--, rest /= 26) {
+                letters[j] = (char) ('A' + rest % 26);
+            }
+            this.symbols[i] = new String(letters);
+        }
+        this.file = file;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000;
+        int symbols = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        Path file = args.length > 2 ? Paths.get(args[2]) : Files.createTempFile("benchmarkTicks", ".csv");
+        try {
+            new TickReplayBenchmark(symbols, file).run(ticks);
+        } finally {
+            if (args.length <= 2) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // EFFECTS: writes ticks ticks to the file, then times replaying them and prints the results
+    public void run(long ticks) throws IOException {
+        long started = System.nanoTime();
+        write(ticks);
+        System.out.printf("wrote %,d ticks for %d symbols, %,d MB, in %.1f s%n", ticks, symbols.length,
+                Files.size(file) >> 20, (System.nanoTime() - started) / 1e9);
+
+        for (int run = 0; run < RUNS; run++) {
+            Portfolio portfolio = portfolio();
+            started = System.nanoTime();
+            ReplayResult result = new TickReplay(portfolio).replay(file);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("replay:       %.2f s, %,14.0f ticks/s, %d batches, %,d stock updates, value %.2f%n",
+                    seconds, result.getTicks() / seconds, result.getBatches(), result.getStockUpdates(),
+                    portfolio.getValueCurrentlyInvested());
+        }
+
+        Portfolio portfolio = portfolio();
+        started = System.nanoTime();
+        long applied = replayLineByLine(portfolio);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("line by line: %.2f s, %,14.0f ticks/s, value %.2f%n", seconds, applied / seconds,
+                portfolio.getValueCurrentlyInvested());
+    }
+
+    // EFFECTS: writes ticks ticks to the file, each moving a random symbol's price up or down a cent
+    public void write(long ticks) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] cents = new long[symbols.length];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = 1000 + random.nextInt(50000);
+        }
+        StringBuilder line = new StringBuilder(32);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            out.write("timestamp,symbol,price\n".getBytes(StandardCharsets.US_ASCII));
+            for (long i = 0; i < ticks; i++) {
+                int symbol = random.nextInt(symbols.length);
+                cents[symbol] = Math.max(1, cents[symbol] + random.nextInt(3) - 1);
+                line.setLength(0);
+                line.append(OPEN_MILLIS + i * DAY_MILLIS / ticks).append(',').append(symbols[symbol]).append(',')
+                        .append(cents[symbol] / 100).append('.');
+                if (cents[symbol] % 100 < 10) {
+                    line.append('0');
+                }
+                line.append(cents[symbol] % 100).append('\n');
+                for (int c = 0; c < line.length(); c++) {
+                    out.write(line.charAt(c));
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns a portfolio holding ten shares of every symbol at a price of 1
+    public Portfolio portfolio() {
+        Portfolio portfolio = new Portfolio(0, 0);
+        for (String symbol : symbols) {
+            portfolio.addStock(new Stock(symbol, 1, 1, 10, 10, 10, 0, 1, 1.0E9));
+        }
+        return portfolio;
+    }
+
+    // MODIFIES: portfolio
+    // EFFECTS: applies every tick in the file to the portfolio one at a time, and returns how many there were
+    public long replayLineByLine(Portfolio portfolio) throws IOException {
+        long applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            reader.readLine();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(",");
+                portfolio.updatePrice(SymbolIndex.encode(fields[1]), Double.parseDouble(fields[2]));
+                applied++;
+            }
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,193 @@
+package objectOrientedProgram.StockAccountManagement.test.marketdata;
+
+import objectOrientedProgram.StockAccountManagement.main.marketdata.ReplayResult;
+import objectOrientedProgram.StockAccountManagement.main.marketdata.TickReplay;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.model.SymbolIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickReplayTest {
+    @TempDir
+    Path directory;
+
+    private Portfolio testPortfolio;
+    private Stock apple;
+    private Stock google;
+    private Path file;
+
+    @BeforeEach
+    void runBefore() {
+        testPortfolio = new Portfolio(1000, 0);
+        apple = new Stock("AAPL", 100, 100, 1000, 1000, 10, 0, 1, 1.0E9);
+        google = new Stock("GOOGL", 50, 50, 500, 500, 10, 0, 1, 1.0E9);
+        testPortfolio.addStock(apple);
+        testPortfolio.addStock(google);
+        file = directory.resolve("testTicks.csv");
+    }
+
+    @Test
+    void testReplayAppliesLastPrices() throws IOException {
+        write("timestamp,symbol,price",
+                "34200000,AAPL,101.5",
+                "34200001,MSFT,300",
+                "34200002,GOOGL,49.25",
+                "34200003,AAPL,102",
+                "34200004,AAPL,99.75");
+        ReplayResult result = new TickReplay(testPortfolio).replay(file);
+
+        assertEquals(5, result.getTicks());
+        assertEquals(1, result.getSkipped());
+        assertEquals(0, result.getInvalidSymbols());
+        assertEquals(1, result.getBatches());
+        assertEquals(3, result.getSymbolUpdates());
+        assertEquals(2, result.getStockUpdates());
+        assertEquals(34200004, result.getLastTimestamp());
+
+        assertEquals(99.75, apple.getStockPriceCurrent());
+        assertEquals(997.5, apple.getCurrentInvestmentWorth());
+        assertEquals(49.25, google.getStockPriceCurrent());
+        assertEquals(492.5, google.getCurrentInvestmentWorth());
+        assertEquals(1490, testPortfolio.getValueCurrentlyInvested());
+        assertEquals(1000, testPortfolio.getBalance());
+    }
+
+    @Test
+    void testSmallChunksMatchOneChunk() throws IOException {
+        List<String> lines = new ArrayList<>();
+        List<Double> prices = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            prices.add(100 + i % 17 + i % 100 / 100.0);
+            lines.add(i + "," + (i % 3 == 0 ? "GOOGL" : "AAPL") + "," + prices.get(i));
+        }
+        write(lines.toArray(new String[0]));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<Double> values = new ArrayList<>();
+        ReplayResult result = new TickReplay(testPortfolio, pool, 100).replay(file,
+                () -> values.add(testPortfolio.getValueCurrentlyInvested()));
+        pool.shutdown();
+
+        Portfolio expected = new Portfolio(1000, 0);
+        Stock expectedApple = new Stock("AAPL", 100, 100, 1000, 1000, 10, 0, 1, 1.0E9);
+        Stock expectedGoogle = new Stock("GOOGL", 50, 50, 500, 500, 10, 0, 1, 1.0E9);
+        expected.addStock(expectedApple);
+        expected.addStock(expectedGoogle);
+        for (int i = 0; i < 2000; i++) {
+            expected.updatePrice(SymbolIndex.encode(i % 3 == 0 ? "GOOGL" : "AAPL"), prices.get(i));
+        }
+
+        assertEquals(2000, result.getTicks());
+        assertEquals(0, result.getSkipped());
+        assertEquals(0, result.getInvalidSymbols());
+        assertTrue(result.getBatches() > 100);
+        assertEquals(result.getBatches(), values.size());
+        assertEquals(1999, result.getLastTimestamp());
+        assertEquals(expectedApple.getStockPriceCurrent(), apple.getStockPriceCurrent());
+        assertEquals(expectedApple.getStockPricePrevious(), apple.getStockPricePrevious());
+        assertEquals(expectedGoogle.getStockPriceCurrent(), google.getStockPriceCurrent());
+        assertEquals(expectedGoogle.getStockPricePrevious(), google.getStockPricePrevious());
+        assertEquals(expected.getValueCurrentlyInvested(), testPortfolio.getValueCurrentlyInvested());
+        assertEquals(expected.getValueCurrentlyInvested(), (double) values.get(values.size() - 1));
+    }
+
+    @Test
+    void testSkipsBadLines() throws IOException {
+        write("1,AAPL,1.5e2",
+                "2,aapl,10",
+                "3,TOOLONG,10",
+                "x,AAPL,10",
+                "4,AAPL,-3",
+                "5,AAPL,",
+                "",
+                "6,GOOGL,12.5\r");
+        ReplayResult result = new TickReplay(testPortfolio).replay(file);
+
+        assertEquals(2, result.getTicks());
+        assertEquals(3, result.getSkipped());
+        assertEquals(2, result.getInvalidSymbols());
+        assertEquals(150, apple.getStockPriceCurrent());
+        assertEquals(12.5, google.getStockPriceCurrent());
+    }
+
+    @Test
+    void testCountsInvalidSymbols() throws IOException {
+        write("1,AAPL,101",
+                "2,,10",
+                "3,AB1,10",
+                "4,Aapl,10",
+                "5,ABCDEFGHIJKLMNOP,10",
+                "6,AAPL",
+                "7,AAPL1");
+        ReplayResult result = new TickReplay(testPortfolio).replay(file);
+
+        assertEquals(1, result.getTicks());
+        assertEquals(4, result.getInvalidSymbols());
+        assertEquals(2, result.getSkipped());
+        assertEquals(101, apple.getStockPriceCurrent());
+    }
+
+    @Test
+    void testPreviousPriceMatchesTickByTick() throws IOException {
+        write("1,AAPL,101", "2,AAPL,102", "3,AAPL,103", "4,GOOGL,51");
+        new TickReplay(testPortfolio).replay(file);
+
+        assertEquals(103, apple.getStockPriceCurrent());
+        assertEquals(102, apple.getStockPricePrevious());
+        assertEquals(51, google.getStockPriceCurrent());
+        assertEquals(50, google.getStockPricePrevious());
+    }
+
+    @Test
+    void testSkipsPricesTooLarge() throws IOException {
+        write("1,AAPL,Infinity",
+                "2,AAPL,NaN",
+                "3,AAPL,1e30",
+                "4,GOOGL,1e12",
+                "5,AAPL,101");
+        ReplayResult result = new TickReplay(testPortfolio).replay(file);
+
+        assertEquals(2, result.getTicks());
+        assertEquals(4, result.getSkipped());
+        assertEquals(101, apple.getStockPriceCurrent());
+        assertEquals(1010, apple.getCurrentInvestmentWorth());
+        assertEquals(50, google.getStockPriceCurrent());
+        assertEquals(500, google.getCurrentInvestmentWorth());
+        assertEquals(1510, testPortfolio.getValueCurrentlyInvested());
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        write();
+        ReplayResult result = new TickReplay(testPortfolio).replay(file);
+        assertEquals(0, result.getTicks());
+        assertEquals(0, result.getBatches());
+        assertEquals(TickReplay.NO_TIMESTAMP, result.getLastTimestamp());
+        assertEquals(100, apple.getStockPriceCurrent());
+    }
+
+    @Test
+    void testMissingFile() {
+        assertThrows(IOException.class, () -> new TickReplay(testPortfolio).replay(directory.resolve("noTicks.csv")));
+    }
+
+    // EFFECTS: writes lines to the tick file, each ended by a new line
+    private void write(String... lines) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,80 @@
+package objectOrientedProgram.StockAccountManagement.test.model;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.InvalidAllocationException;
+import objectOrientedProgram.StockAccountManagement.main.model.Allocation;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AllocationTest {
+    private Portfolio testPortfolio;
+    private Stock safeStock;
+    private Stock riskyStock;
+
+    @BeforeEach
+    void runBefore() {
+        testPortfolio = new Portfolio(1000, 0);
+        safeStock = new Stock("AAPL", 10, 10, 0, 0, 0, 0, 1, 1.0E8);
+        riskyStock = new Stock("GOOGL", 10, 10, 0, 0, 0, 0, 5, 1.0E8);
+        testPortfolio.addStock(safeStock);
+        testPortfolio.addStock(riskyStock);
+    }
+
+    @Test
+    void testEqualWeight() {
+        Allocation allocation = Allocation.equalWeight(testPortfolio, 600);
+        assertEquals(300, allocation.getAmount(0));
+        assertEquals(300, allocation.getAmount(1));
+        assertEquals(600, allocation.getTotal());
+    }
+
+    @Test
+    void testByRisk() {
+        Allocation allocation = Allocation.byRisk(testPortfolio, 600);
+        assertEquals(500, allocation.getAmount(0));
+        assertEquals(100, allocation.getAmount(1));
+    }
+
+    @Test
+    void testApplyAllocation() {
+        Allocation allocation = new Allocation(testPortfolio);
+        allocation.allocate(riskyStock, 250);
+        testPortfolio.applyAllocation(allocation);
+
+        assertEquals(750, testPortfolio.getBalance());
+        assertEquals(250, testPortfolio.getValueCurrentlyInvested());
+        assertEquals(0, safeStock.getCurrentInvestmentWorth());
+        assertEquals(250, riskyStock.getCurrentInvestmentWorth());
+    }
+
+    @Test
+    void testAllocateInvalidEntries() {
+        Allocation allocation = new Allocation(testPortfolio);
+        allocation.allocate(safeStock, 100);
+
+        assertThrows(InvalidAllocationException.class, () -> allocation.allocate(safeStock, 100));
+        assertThrows(InvalidAllocationException.class, () -> allocation.allocate(riskyStock, -1));
+        assertThrows(InvalidAllocationException.class, () -> allocation.allocate(new Stock(), 1));
+        assertThrows(InvalidAllocationException.class, () -> allocation.allocate(riskyStock, 1e13));
+        assertEquals(100, allocation.getTotal());
+        assertEquals(1, allocation.getCount());
+    }
+
+    @Test
+    void testAllocateTooLarge() {
+        assertThrows(InvalidAllocationException.class, () -> Allocation.equalWeight(testPortfolio, 1e20));
+        assertThrows(InvalidAllocationException.class, () -> Allocation.byRisk(testPortfolio, Double.MAX_VALUE));
+    }
+
+    @Test
+    void testApplyAllocationOverBalance() {
+        Allocation allocation = Allocation.equalWeight(testPortfolio, 2000);
+
+        assertThrows(InvalidAllocationException.class, () -> testPortfolio.applyAllocation(allocation));
+        assertEquals(1000, testPortfolio.getBalance());
+        assertEquals(0, safeStock.getCurrentInvestmentWorth());
+    }
+}
@@ -0,0 +1,156 @@
+package objectOrientedProgram.StockAccountManagement.test.model;
+
+import objectOrientedProgram.StockAccountManagement.main.model.ConcurrentPortfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentPortfolioTest {
+    private ConcurrentPortfolio testPortfolio;
+
+    @BeforeEach
+    void runBefore() {
+        testPortfolio = new ConcurrentPortfolio();
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(0.0, testPortfolio.getBalance());
+        assertEquals(0.0, testPortfolio.getValueCurrentlyInvested());
+        assertEquals(0, testPortfolio.size());
+    }
+
+    @Test
+    void testDepositAndSubtract() {
+        testPortfolio.deposit(432.32);
+        testPortfolio.deposit(32.43);
+        assertEquals(464.75, testPortfolio.getBalance());
+        testPortfolio.subtractBalance(500);
+        assertEquals(-35.25, testPortfolio.getBalance());
+    }
+
+    @Test
+    void testWithdraw() {
+        testPortfolio.deposit(100);
+        assertTrue(testPortfolio.withdraw(60.5));
+        assertFalse(testPortfolio.withdraw(40));
+        assertEquals(39.5, testPortfolio.getBalance());
+    }
+
+    @Test
+    void testBuyAndSellStock() {
+        testPortfolio.deposit(1000);
+        Stock apple = new Stock("AAPL", 100, 100, 600, 600, 6, 0, 1, 1000000);
+        Stock google = new Stock("GOOGL", 100, 100, 500, 500, 5, 0, 1, 1000000);
+        assertTrue(testPortfolio.buyStock(apple));
+        assertFalse(testPortfolio.buyStock(google));
+        assertEquals(400, testPortfolio.getBalance());
+        assertEquals(600, testPortfolio.getValueCurrentlyInvested());
+        assertEquals(1, testPortfolio.size());
+        assertNull(testPortfolio.checkForTicker("GOOGL"));
+
+        assertTrue(testPortfolio.sellStock(apple));
+        assertFalse(testPortfolio.sellStock(apple));
+        assertEquals(1000, testPortfolio.getBalance());
+        assertEquals(0, testPortfolio.getValueCurrentlyInvested());
+        assertEquals(0, apple.getCurrentInvestmentWorth());
+        assertEquals(0, testPortfolio.size());
+        assertNull(testPortfolio.checkForTicker("AAPL"));
+    }
+
+    @Test
+    void testCheckForTickerDuplicateSymbols() {
+        Stock first = new Stock("AAPL", 100, 100, 600, 600, 6, 0, 1, 1000000);
+        Stock second = new Stock("AAPL", 50, 50, 50, 50, 1, 0, 1, 1000000);
+        testPortfolio.addStock(first);
+        testPortfolio.addStock(second);
+        assertEquals(650, testPortfolio.getValueCurrentlyInvested());
+        assertSame(first, testPortfolio.checkForTicker("AAPL"));
+        assertEquals(List.of(first, second), testPortfolio.getStocks("AAPL"));
+
+        testPortfolio.sellStock(first);
+        assertSame(second, testPortfolio.checkForTicker("AAPL"));
+        assertTrue(testPortfolio.getStocks("MSFT").isEmpty());
+    }
+
+    @Test
+    void testToPortfolio() {
+        testPortfolio.deposit(1000);
+        Stock apple = new Stock("AAPL", 100, 100, 600, 600, 6, 0, 1, 1000000);
+        testPortfolio.buyStock(apple);
+        Portfolio portfolio = testPortfolio.toPortfolio();
+        assertEquals(400, portfolio.getBalance());
+        assertEquals(600, portfolio.getValueCurrentlyInvested());
+        assertEquals(1, portfolio.size());
+        assertNotSame(apple, portfolio.getStock(0));
+        assertEquals("AAPL", portfolio.getStock(0).getSymbol());
+        assertEquals(600, portfolio.getStock(0).getCurrentInvestmentWorth());
+    }
+
+    @Test
+    void testConcurrentTradesKeepTotal() throws InterruptedException {
+        testPortfolio.deposit(100000);
+        AtomicInteger lost = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                List<Stock> held = new ArrayList<>();
+                for (int i = 0; i < 10000; i++) {
+                    Stock stock = new Stock("S" + (i + thread) % 5, 10, 10, 25, 25, 2.5, 0, 1, 1000);
+                    if (testPortfolio.buyStock(stock)) {
+                        held.add(stock);
+                    }
+                    if ((held.size() > 100 || !held.isEmpty() && i % 3 == 0)
+                            && !testPortfolio.sellStock(held.remove(0))) {
+                        lost.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, lost.get());
+        assertTrue(testPortfolio.getBalance() >= 0);
+        assertEquals(100000, testPortfolio.getBalance() + testPortfolio.getValueCurrentlyInvested());
+        assertEquals(testPortfolio.getValueCurrentlyInvested(), testPortfolio.size() * 25.0);
+        assertEquals(testPortfolio.size(), testPortfolio.toPortfolio().size());
+    }
+
+    @Test
+    void testConcurrentWithdrawsNeverOverdraw() throws InterruptedException {
+        testPortfolio.deposit(1000);
+        AtomicInteger withdrawn = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (testPortfolio.withdraw(1)) {
+                        withdrawn.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, withdrawn.get());
+        assertEquals(0, testPortfolio.getBalance());
+    }
+}
@@ -34,6 +34,10 @@ public class JSONObject {
 
     }
 
+    public void put(String symbol, String symbol1) {
+
+    }
+
     public String toString(int tab) {
         return null;
     }
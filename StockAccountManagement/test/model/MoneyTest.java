@@ -0,0 +1,54 @@
+package objectOrientedProgram.StockAccountManagement.test.model;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void testOfAndToDouble() {
+        assertEquals(500_430_000, Money.of(500.43));
+        assertEquals(-1, Money.of(-0.000001));
+        assertEquals(500.43, Money.toDouble(Money.of(500.43)));
+        assertThrows(ArithmeticException.class, () -> Money.of(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Money.of(1e13));
+    }
+
+    @Test
+    void testExactArithmetic() {
+        long total = 0;
+        for (int i = 0; i < 10; i++) {
+            total = Money.add(total, Money.of(0.1));
+        }
+        assertEquals(Money.of(1), total);
+        assertEquals(255.90, Money.toDouble(Money.subtract(Money.of(300.22), Money.of(44.32))));
+        assertEquals(Money.of(6), Money.sum(new long[]{Money.of(1), Money.of(2), Money.of(3)}));
+        assertEquals(Money.of(12.5), Money.multiply(Money.of(10), 1.25));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("500.43", Money.toString(Money.of(500.43)));
+        assertEquals("10000000.0", Money.toString(Money.of(10000000)));
+        assertEquals("-0.000001", Money.toString(-1));
+        assertEquals("0.0", Money.toString(0));
+        assertEquals("-12.05", Money.toString(Money.of(-12.05)));
+    }
+
+    @Test
+    void testParse() {
+        assertEquals(500_430_000, Money.parse("500.43"));
+        assertEquals(Money.of(10000000), Money.parse("1.0E7"));
+        assertEquals(-500_000, Money.parse("-0.5"));
+        assertEquals(1, Money.parse("0.0000005"));
+        assertEquals(Money.of(300), Money.parse("300"));
+        assertEquals(Long.MAX_VALUE, Money.parse(Money.toString(Long.MAX_VALUE)));
+        assertThrows(NumberFormatException.class, () -> Money.parse("AAPL"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(ArithmeticException.class, () -> Money.parse("1e20"));
+    }
+}
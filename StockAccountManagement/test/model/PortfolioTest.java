@@ -1,11 +1,15 @@
 package objectOrientedProgram.StockAccountManagement.test.model;
 
+import objectOrientedProgram.StockAccountManagement.main.model.InvestmentProgress;
 import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
 import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.model.SymbolIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,6 +22,39 @@ public class PortfolioTest {
         testPortfolio = new Portfolio();
     }
 
+    @Test
+    void testInvestStopsPartwayThroughLongHorizon() {
+        Stock stock = new Stock("AAPL", 100, 100, 1000, 1000, 0, 0, 1, 1.0E12);
+        testPortfolio.addStock(stock);
+        List<Integer> daysReported = new ArrayList<>();
+        int days = 100 * Stock.DAYS_PER_CHECK;
+
+        int invested = testPortfolio.investStocksForDays(days, new InvestmentProgress() {
+            @Override
+            public void stockInvested(int done, int total) {
+            }
+
+            @Override
+            public void daysInvested(int done, int total) {
+                assertEquals(days, total);
+                daysReported.add(done);
+            }
+
+            @Override
+            public boolean shouldStop() {
+                return daysReported.size() == 3;
+            }
+        });
+
+        assertEquals(1, invested);
+        assertEquals(List.of(Stock.DAYS_PER_CHECK, 2 * Stock.DAYS_PER_CHECK, 3 * Stock.DAYS_PER_CHECK),
+                daysReported);
+        assertEquals(3 * Stock.DAYS_PER_CHECK, stock.getDaysToInvest());
+        assertEquals(Math.round(stock.getStockPriceCurrent() * stock.getSharesBought() * 1e6) / 1e6,
+                stock.getCurrentInvestmentWorth());
+        assertEquals(stock.getCurrentInvestmentWorth(), testPortfolio.getValueCurrentlyInvested());
+    }
+
     @Test
     void testConstructor() {
         assertEquals(0.0, testPortfolio.getBalance());
@@ -42,7 +79,7 @@ public class PortfolioTest {
     void testSubtractBalance() {
         testPortfolio.setBalance(300.22);
         testPortfolio.subtractBalance(44.32);
-        assertEquals(255.90000000000003, testPortfolio.getBalance());
+        assertEquals(255.90, testPortfolio.getBalance());
     }
 
     @Test
@@ -105,6 +142,75 @@ public class PortfolioTest {
         assertEquals(200, testPortfolio.getValueCurrentlyInvested());
     }
 
+    @Test
+    void testValueTracksAddAndSell() {
+        Stock stock1 = new Stock();
+        stock1.setCurrentInvestmentWorth(50);
+        testPortfolio.addStock(stock1);
+
+        Stock stock2 = new Stock();
+        stock2.setCurrentInvestmentWorth(75);
+        testPortfolio.addStock(stock2);
+
+        assertEquals(125, testPortfolio.getValueCurrentlyInvested());
+
+        testPortfolio.sellStock(stock1);
+
+        assertEquals(75, testPortfolio.getValueCurrentlyInvested());
+    }
+
+    @Test
+    void testUpdatePriceBySymbolCode() {
+        Stock first = new Stock("AAPL", 100, 100, 1000, 1000, 10, 0, 1, 1.0E9);
+        Stock second = new Stock("AAPL", 100, 100, 500, 500, 5, 0, 1, 1.0E9);
+        Stock other = new Stock("MSFT", 100, 100, 500, 500, 5, 0, 1, 1.0E9);
+        testPortfolio.addStock(first);
+        testPortfolio.addStock(other);
+        testPortfolio.addStock(second);
+
+        assertEquals(2, testPortfolio.updatePrice(SymbolIndex.encode("AAPL"), 110));
+        assertEquals(0, testPortfolio.updatePrice(SymbolIndex.encode("GOOGL"), 110));
+        assertEquals(1100, first.getCurrentInvestmentWorth());
+        assertEquals(550, second.getCurrentInvestmentWorth());
+        assertEquals(100, other.getStockPriceCurrent());
+        assertEquals(2150, testPortfolio.getValueCurrentlyInvested());
+    }
+
+    @Test
+    void testValueStaysExactOverManyChanges() {
+        Stock stock = new Stock();
+        testPortfolio.addStock(stock);
+
+        for (int i = 0; i < 100000; i++) {
+            stock.addInvestmentAmount(0.1);
+        }
+        testPortfolio.sellStock(stock);
+
+        assertEquals(0, testPortfolio.getValueCurrentlyInvested());
+        assertEquals(10000, testPortfolio.getBalance());
+        assertEquals(0, testPortfolio.getValueCurrentlyInvestedMoney());
+    }
+
+    @Test
+    void testValueTracksInvestmentChanges() {
+        Stock stock = new Stock();
+        testPortfolio.addStock(stock);
+
+        stock.setCurrentInvestmentWorth(200);
+        stock.addInvestmentAmount(50);
+
+        assertEquals(250, testPortfolio.getValueCurrentlyInvested());
+    }
+
+    @Test
+    void testLoadStockKeepsValue() {
+        Portfolio loaded = new Portfolio(100, 500);
+        loaded.loadStock(new Stock("AAPL", 123, 123, 500,
+                500, (500 / 123), 1, 3, 1000000));
+
+        assertEquals(500, loaded.getValueCurrentlyInvested());
+    }
+
     @Test
     void testInvestStocksForDaysOneStock() {
         Stock stock1 = new Stock();
@@ -190,6 +296,48 @@ public class PortfolioTest {
         assertEquals(null, testPortfolio.checkForTicker("BAGL"));
     }
 
+    @Test
+    void testCheckForTickerAfterSymbolChange() {
+        Stock stock = new Stock();
+        stock.setSymbol("AAPL");
+        testPortfolio.addStock(stock);
+
+        stock.setSymbol("MSFT");
+
+        assertNull(testPortfolio.checkForTicker("AAPL"));
+        assertEquals(stock, testPortfolio.checkForTicker("MSFT"));
+    }
+
+    @Test
+    void testCheckForTickerDuplicateSymbols() {
+        Stock stock1 = new Stock();
+        stock1.setSymbol("AAPL");
+        testPortfolio.addStock(stock1);
+
+        Stock stock2 = new Stock();
+        stock2.setSymbol("AAPL");
+        testPortfolio.addStock(stock2);
+
+        assertEquals(stock1, testPortfolio.checkForTicker("AAPL"));
+
+        testPortfolio.sellStock(stock1);
+
+        assertEquals(stock2, testPortfolio.checkForTicker("AAPL"));
+
+        testPortfolio.sellStock(stock2);
+
+        assertNull(testPortfolio.checkForTicker("AAPL"));
+    }
+
+    @Test
+    void testCheckForTickerInvalidSymbol() {
+        testPortfolio.addStock(new Stock("lower", 123, 123, 500,
+                500, (500 / 123), 1, 3, 1000000));
+
+        assertNotNull(testPortfolio.checkForTicker("lower"));
+        assertNull(testPortfolio.checkForTicker("GOOGLE"));
+    }
+
     @Test
     void testSellStock() {
         Stock stock = new Stock();
@@ -202,6 +350,61 @@ public class PortfolioTest {
         assertEquals(0, testPortfolio.getPortfolioList().size());
     }
 
+    @Test
+    void testSellStockMovesLastIntoPlace() {
+        Stock stock1 = new Stock("AAPL", 123, 123, 100, 100, 1, 0, 3, 1000000);
+        Stock stock2 = new Stock("GOOGL", 123, 123, 200, 200, 1, 0, 3, 1000000);
+        Stock stock3 = new Stock("MSFT", 123, 123, 300, 300, 1, 0, 3, 1000000);
+        testPortfolio.addStock(stock1);
+        testPortfolio.addStock(stock2);
+        testPortfolio.addStock(stock3);
+
+        testPortfolio.sellStock(stock1);
+
+        assertEquals(2, testPortfolio.getPortfolioList().size());
+        assertEquals(stock3, testPortfolio.getPortfolioList().get(0));
+        assertEquals(stock2, testPortfolio.getPortfolioList().get(1));
+        assertEquals(100, testPortfolio.getBalance());
+        assertEquals(500, testPortfolio.getValueCurrentlyInvested());
+
+        testPortfolio.sellStock(stock3);
+
+        assertEquals(stock2, testPortfolio.getPortfolioList().get(0));
+        assertEquals(stock2, testPortfolio.checkForTicker("GOOGL"));
+    }
+
+    @Test
+    void testSellAll() {
+        testPortfolio.addStock(new Stock("AAPL", 123, 123, 100, 100, 1, 0, 3, 1000000));
+        testPortfolio.addStock(new Stock("GOOGL", 123, 123, 200, 200, 1, 0, 3, 1000000));
+
+        testPortfolio.sellAll();
+
+        assertEquals(300, testPortfolio.getBalance());
+        assertEquals(0, testPortfolio.getValueCurrentlyInvested());
+        assertTrue(testPortfolio.getPortfolioList().isEmpty());
+        assertNull(testPortfolio.checkForTicker("AAPL"));
+    }
+
+    @Test
+    void testSellMatching() {
+        Stock stock1 = new Stock("AAPL", 123, 123, 100, 100, 1, 0, 1, 1000000);
+        Stock stock2 = new Stock("GOOGL", 123, 123, 200, 200, 1, 0, 5, 1000000);
+        Stock stock3 = new Stock("MSFT", 123, 123, 300, 300, 1, 0, 1, 1000000);
+        testPortfolio.addStock(stock1);
+        testPortfolio.addStock(stock2);
+        testPortfolio.addStock(stock3);
+
+        assertEquals(1, testPortfolio.sellMatching(stock -> stock.getRisk() == 5));
+
+        assertEquals(200, testPortfolio.getBalance());
+        assertEquals(400, testPortfolio.getValueCurrentlyInvested());
+        assertEquals(stock1, testPortfolio.getPortfolioList().get(0));
+        assertEquals(stock3, testPortfolio.getPortfolioList().get(1));
+        assertNull(testPortfolio.checkForTicker("GOOGL"));
+        assertEquals(stock3, testPortfolio.checkForTicker("MSFT"));
+    }
+
     @Test
     void testToJsonNoStocks() {
         testPortfolio.deposit(300);
@@ -223,7 +426,7 @@ public class PortfolioTest {
 
         JSONObject json = testPortfolio.toJson();
         assertEquals(300, json.getDouble("balance"));
-        assertEquals(0, json.getDouble("value currently invested"));
+        assertEquals(1000, json.getDouble("value currently invested"));
 
         JSONArray stockList = json.getJSONArray("portfolio");
 
@@ -0,0 +1,206 @@
+package objectOrientedProgram.StockAccountManagement.test.model;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.PriceUpdate;
+import objectOrientedProgram.StockAccountManagement.main.model.PriceUpdateBus;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceUpdateBusTest {
+    private static final long NEVER = TimeUnit.HOURS.toMillis(1);
+
+    private PriceUpdateBus bus;
+    private Portfolio testPortfolio;
+    private Stock apple;
+    private Stock google;
+    private List<List<PriceUpdate>> batches;
+
+    @BeforeEach
+    void runBefore() {
+        bus = new PriceUpdateBus();
+        testPortfolio = new Portfolio(1000, 0);
+        testPortfolio.setPriceBus(bus);
+        apple = new Stock("AAPL", 100, 100, 1000, 1000, 10, 0, 1, 1.0E9);
+        google = new Stock("GOOGL", 50, 50, 500, 500, 10, 0, 1, 1.0E9);
+        testPortfolio.addStock(apple);
+        testPortfolio.addStock(google);
+        batches = new ArrayList<>();
+    }
+
+    @AfterEach
+    void runAfter() {
+        bus.close();
+    }
+
+    @Test
+    void testOnlyLatestUpdatePerSymbolDelivered() {
+        PriceUpdateBus.Subscription subscription = bus.subscribe(batches::add, Runnable::run, NEVER);
+        for (int i = 1; i <= 100; i++) {
+            apple.updatePrice(100 + i);
+        }
+        google.updatePrice(49);
+        assertEquals(2, subscription.getPending());
+        subscription.flush();
+
+        assertEquals(1, batches.size());
+        Map<String, PriceUpdate> latest = bySymbol(batches.get(0));
+        assertEquals(2, latest.size());
+        assertEquals(200, latest.get("AAPL").getPrice());
+        assertEquals(199, latest.get("AAPL").getPreviousPrice());
+        assertEquals(2000, latest.get("AAPL").getWorth());
+        assertEquals(490, latest.get("GOOGL").getWorth());
+        assertEquals(101, subscription.getPublished());
+        assertEquals(99, subscription.getConflated());
+        assertEquals(2, subscription.getDelivered());
+        assertEquals(0, subscription.getPending());
+
+        subscription.flush();
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void testSlowListenerDoesNotHoldUpPublishing() {
+        List<Runnable> queued = new ArrayList<>();
+        PriceUpdateBus.Subscription subscription = bus.subscribe(batches::add, queued::add, NEVER);
+        apple.updatePrice(101);
+        subscription.flush();
+        assertEquals(1, queued.size());
+
+        for (int i = 0; i < 10000; i++) {
+            apple.updatePrice(102 + i % 7);
+            google.updatePrice(50 + i % 3);
+        }
+        subscription.flush();
+        assertEquals(1, queued.size());
+        assertEquals(2, subscription.getPending());
+
+        queued.remove(0).run();
+        assertEquals(101, batches.get(0).get(0).getPrice());
+        subscription.flush();
+        queued.remove(0).run();
+        Map<String, PriceUpdate> latest = bySymbol(batches.get(1));
+        assertEquals(102 + 9999 % 7, latest.get("AAPL").getPrice());
+        assertEquals(50 + 9999 % 3, latest.get("GOOGL").getPrice());
+    }
+
+    @Test
+    void testDeliveredOnSchedule() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        List<PriceUpdate> received = new ArrayList<>();
+        bus.subscribe(updates -> {
+            received.addAll(updates);
+            delivered.countDown();
+        }, Runnable::run, 10);
+        testPortfolio.investStocksForDays(5);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertFalse(received.isEmpty());
+    }
+
+    @Test
+    void testThrowingListenerKeepsGettingBatches() throws InterruptedException {
+        CountDownLatch thrown = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        PriceUpdateBus.Subscription subscription = bus.subscribe(updates -> {
+            if (thrown.getCount() > 0) {
+                thrown.countDown();
+                throw new IllegalStateException("listener failed");
+            }
+            batches.add(updates);
+            delivered.countDown();
+        }, Runnable::run, 10);
+
+        apple.updatePrice(101);
+        assertTrue(thrown.await(5, TimeUnit.SECONDS));
+        apple.updatePrice(102);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(102, batches.get(0).get(0).getPrice());
+        assertEquals(1, subscription.getFailed());
+    }
+
+    @Test
+    void testThrowingExecutorKeepsDelivering() throws InterruptedException {
+        CountDownLatch thrown = new CountDownLatch(2);
+        CountDownLatch delivered = new CountDownLatch(1);
+        Executor executor = runnable -> {
+            if (thrown.getCount() == 2) {
+                thrown.countDown();
+                throw new IllegalStateException("executor failed");
+            } else if (thrown.getCount() == 1) {
+                thrown.countDown();
+                throw new RejectedExecutionException("executor full");
+            }
+            runnable.run();
+        };
+        PriceUpdateBus.Subscription subscription = bus.subscribe(updates -> {
+            if (updates.get(0).getPrice() == 200) {
+                delivered.countDown();
+            }
+        }, executor, 10);
+
+        for (int i = 1; thrown.getCount() > 0; i++) {
+            apple.updatePrice(100 + i);
+            Thread.sleep(1);
+        }
+        apple.updatePrice(200);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(2, subscription.getFailed());
+    }
+
+    @Test
+    void testStockBus() {
+        PriceUpdateBus own = new PriceUpdateBus();
+        PriceUpdateBus.Subscription subscription = own.subscribe(batches::add, Runnable::run, NEVER);
+        PriceUpdateBus.Subscription portfolios = bus.subscribe(updates -> fail("published on the portfolio's bus"),
+                Runnable::run, NEVER);
+        apple.setPriceBus(own);
+        assertSame(own, apple.getPriceBus());
+        assertSame(bus, google.getPriceBus());
+
+        apple.setStockPriceCurrent(120);
+        portfolios.flush();
+        subscription.flush();
+        assertEquals(120, batches.get(0).get(0).getPrice());
+
+        Stock loose = new Stock("MSFT", 10, 10, 0, 0, 0, 0, 1, 1.0E9);
+        assertNull(loose.getPriceBus());
+        loose.updatePrice(11);
+        own.close();
+    }
+
+    @Test
+    void testCancelAndClose() {
+        PriceUpdateBus.Subscription subscription = bus.subscribe(batches::add, Runnable::run, NEVER);
+        assertTrue(bus.hasSubscribers());
+        subscription.cancel();
+        assertFalse(bus.hasSubscribers());
+        apple.updatePrice(1);
+        subscription.flush();
+        assertTrue(batches.isEmpty());
+
+        bus.close();
+        assertThrows(IllegalStateException.class, () -> bus.subscribe(batches::add, Runnable::run, NEVER));
+    }
+
+    // EFFECTS: returns updates by their symbol
+    private static Map<String, PriceUpdate> bySymbol(List<PriceUpdate> updates) {
+        Map<String, PriceUpdate> bySymbol = new HashMap<>();
+        for (PriceUpdate update : updates) {
+            assertNull(bySymbol.put(update.getSymbol(), update));
+        }
+        return bySymbol;
+    }
+}
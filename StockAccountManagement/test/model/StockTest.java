@@ -272,6 +272,42 @@ class StockTest {
         }
     }
 
+    @Test
+    void testUpdatePrice() {
+        Stock stock = new Stock("AAPL", 100, 90, 1000, 900, 10, 0, 1, 1.0E9);
+        stock.updatePrice(104.5);
+        assertEquals(104.5, stock.getStockPriceCurrent());
+        assertEquals(100.0, stock.getStockPricePrevious());
+        assertEquals(1045.0, stock.getCurrentInvestmentWorth());
+        assertEquals(900.0, stock.getInitialInvestment());
+
+        Stock unbought = new Stock("AAPL", 100, 90, 0, 0, 0, 0, 1, 1.0E9);
+        unbought.updatePrice(50);
+        assertEquals(50.0, unbought.getStockPriceCurrent());
+        assertEquals(0.0, unbought.getCurrentInvestmentWorth());
+
+        try {
+            stock.updatePrice(-1);
+            fail("negative price");
+        } catch (NegativeDoubleException e) {
+            assertEquals(104.5, stock.getStockPriceCurrent());
+        }
+
+        try {
+            stock.updatePrice(1.0E12);
+            fail("worth too large to hold");
+        } catch (ArithmeticException e) {
+            assertEquals(104.5, stock.getStockPriceCurrent());
+            assertEquals(100.0, stock.getStockPricePrevious());
+            assertEquals(1045.0, stock.getCurrentInvestmentWorth());
+        }
+
+        stock.updatePrice(103, 106);
+        assertEquals(106.0, stock.getStockPriceCurrent());
+        assertEquals(103.0, stock.getStockPricePrevious());
+        assertEquals(1060.0, stock.getCurrentInvestmentWorth());
+    }
+
     @Test
     void testToJson() {
         JSONObject json = testStock.toJson();
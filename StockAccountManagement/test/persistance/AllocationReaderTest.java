@@ -0,0 +1,128 @@
+package objectOrientedProgram.StockAccountManagement.test.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.InvalidAllocationException;
+import objectOrientedProgram.StockAccountManagement.main.model.Allocation;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.persistance.AllocationReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AllocationReaderTest {
+    @TempDir
+    Path directory;
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void runBefore() {
+        portfolio = new Portfolio(1000, 0);
+        portfolio.addStock(new Stock("AAPL", 10, 10, 0, 0, 0, 0, 1, 1.0E8));
+        portfolio.addStock(new Stock("GOOGL", 10, 10, 0, 0, 0, 0, 5, 1.0E8));
+        portfolio.addStock(new Stock("MSFT", 10, 10, 0, 0, 0, 0, 3, 1.0E8));
+    }
+
+    // EFFECTS: writes text to a file called name in the temporary directory and returns a reader for it
+    private AllocationReader reader(String name, String text) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return new AllocationReader(file.toString());
+    }
+
+    // EFFECTS: returns the message of the InvalidAllocationException reading with reader throws
+    private String problems(AllocationReader reader) {
+        return assertThrows(InvalidAllocationException.class, () -> reader.read(portfolio)).getMessage();
+    }
+
+    @Test
+    void testReadCsv() throws IOException {
+        Allocation allocation = reader("allocation.csv",
+                "symbol,amount\n# safest first\nAAPL, 250.5\n\n  MSFT ,100\n").read(portfolio);
+        assertEquals(2, allocation.getCount());
+        assertEquals(250.5, allocation.getAmount(0));
+        assertTrue(Double.isNaN(allocation.getAmount(1)));
+        assertEquals(100, allocation.getAmount(2));
+        assertEquals(350.5, allocation.getTotal());
+    }
+
+    @Test
+    void testReadJson() throws IOException {
+        Allocation allocation = reader("allocation.JSON",
+                "{\"GOOGL\": 40, \"AAPL\": \"60.25\", \"MSFT\": 0}").read(portfolio);
+        assertEquals(3, allocation.getCount());
+        assertEquals(60.25, allocation.getAmount(0));
+        assertEquals(40, allocation.getAmount(1));
+        assertEquals(0, allocation.getAmount(2));
+        assertEquals(100.25, allocation.getTotal());
+    }
+
+    @Test
+    void testReadEmpty() throws IOException {
+        assertEquals(0, reader("allocation.csv", "symbol,amount\n").read(portfolio).getCount());
+        assertEquals(0, reader("allocation.json", "{}").read(portfolio).getCount());
+    }
+
+    @Test
+    void testUnknownSymbol() throws IOException {
+        assertEquals("line 2: no stock found with symbol TSLA",
+                problems(reader("allocation.csv", "AAPL,10\nTSLA,20\n")));
+        assertTrue(problems(reader("allocation.json", "{\"TSLA\": 20}"))
+                .endsWith(": no stock found with symbol TSLA"));
+    }
+
+    @Test
+    void testBadNumbers() throws IOException {
+        assertEquals("line 1: ten is not an amount", problems(reader("allocation.csv", "AAPL,ten\n")));
+        assertEquals("line 1: expected symbol,amount", problems(reader("allocation.csv", "AAPL 10\n")));
+        assertEquals("line 1: cannot invest -5.0 in AAPL", problems(reader("allocation.csv", "AAPL,-5\n")));
+        assertTrue(problems(reader("allocation.json", "{\"AAPL\": [10]}"))
+                .endsWith(": the amount for AAPL is not a number"));
+        assertTrue(problems(reader("allocation.json", "{\"AAPL\": \"ten\"}")).endsWith(": ten is not an amount"));
+    }
+
+    @Test
+    void testProblemsReportedTogether() throws IOException {
+        String problems = problems(reader("allocation.csv",
+                "AAPL,10\nTSLA,5\nGOOGL,abc\nAAPL,20\nMSFT,-1\nMSFT\n"));
+        assertEquals("line 2: no stock found with symbol TSLA\n"
+                + "line 3: abc is not an amount\n"
+                + "line 4: AAPL is allocated more than once\n"
+                + "line 5: cannot invest -1.0 in MSFT\n"
+                + "line 6: expected symbol,amount", problems);
+
+        String json = problems(reader("allocation.json",
+                "{\"TSLA\": 5, \"AAPL\": null, \"MSFT\": 3, \"MSFT\": 4}"));
+        assertEquals(3, json.split("\n").length);
+    }
+
+    @Test
+    void testManyProblemsShortened() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            csv.append("X").append(i).append(",1\n");
+        }
+        String problems = problems(reader("allocation.csv", csv.toString()));
+        assertEquals(21, problems.split("\n").length);
+        assertTrue(problems.endsWith("and 5 more problems"));
+    }
+
+    @Test
+    void testMalformedJson() throws IOException {
+        AllocationReader reader = reader("allocation.json", "[\"AAPL\", 10]");
+        assertThrows(IOException.class, () -> reader.read(portfolio));
+    }
+
+    @Test
+    void testMissingFile() {
+        AllocationReader reader = new AllocationReader(directory.resolve("missing.csv").toString());
+        assertThrows(IOException.class, () -> reader.read(portfolio));
+    }
+}
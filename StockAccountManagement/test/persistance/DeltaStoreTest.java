@@ -0,0 +1,162 @@
+package objectOrientedProgram.StockAccountManagement.test.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.persistance.DeltaStore;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SaveListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeltaStoreTest extends JsonTest implements SaveListener {
+    @TempDir
+    Path directory;
+
+    private DeltaStore store;
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        store = new DeltaStore(directory, this);
+        portfolio = store.load();
+        portfolio.deposit(1000);
+        for (int i = 0; i < 100; i++) {
+            portfolio.addStock(new Stock("S" + i, 10 + i, 10 + i, 100,
+                    100, 10, 0, 1 + i % 5, 1e7));
+        }
+        store.requestSave(portfolio);
+        store.flush();
+    }
+
+    @AfterEach
+    void runAfter() {
+        store.close();
+    }
+
+    @Override
+    public void saved(String destination, long latencyNanos, int requests) {
+    }
+
+    @Override
+    public void saveFailed(String destination, IOException e) {
+        fail(e);
+    }
+
+    @Test
+    void testOnlyChangedStocksWritten() throws IOException {
+        assertFalse(Files.exists(directory.resolve(DeltaStore.DELTA_FILE)));
+        assertFalse(store.requestSave(portfolio));
+
+        portfolio.getPortfolioList().get(42).addInvestmentAmount(50);
+        assertTrue(store.requestSave(portfolio));
+        store.flush();
+        long oneStock = Files.size(directory.resolve(DeltaStore.DELTA_FILE));
+
+        portfolio.getPortfolioList().get(7).addInvestmentAmount(50);
+        store.requestSave(portfolio);
+        store.flush();
+        long twoStocks = Files.size(directory.resolve(DeltaStore.DELTA_FILE));
+        long base = Files.size(directory.resolve(DeltaStore.BASE_FILE));
+        assertTrue(oneStock < twoStocks);
+        // each changed stock adds about one record, and the base holds a hundred of them
+        assertTrue((twoStocks - oneStock) * 50 < base);
+        assertTrue(twoStocks * 10 < base);
+
+        checkReload();
+    }
+
+    @Test
+    void testSellsAndAdds() throws IOException {
+        portfolio.sellStock(portfolio.getPortfolioList().get(3));
+        portfolio.sellMatching(stock -> stock.getRisk() == 5 && stock.getStockPriceCurrent() > 80);
+        portfolio.addStock(new Stock("NEW", 5, 5, 20,
+                20, 4, 0, 2, 1e7));
+        store.requestSave(portfolio);
+        store.flush();
+
+        checkReload();
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        long generation = store.getGeneration();
+        for (Stock stock : portfolio.getPortfolioList()) {
+            stock.addInvestmentAmount(1);
+        }
+        store.requestSave(portfolio);
+        store.flush();
+
+        assertEquals(generation + 1, store.getGeneration());
+        assertFalse(Files.exists(directory.resolve(DeltaStore.DELTA_FILE)));
+        portfolio.getPortfolioList().get(0).addInvestmentAmount(1);
+        store.requestSave(portfolio);
+        store.flush();
+        assertTrue(Files.exists(directory.resolve(DeltaStore.DELTA_FILE)));
+
+        checkReload();
+    }
+
+    @Test
+    void testSaveAfterLoadKeepsOldDelta() throws IOException {
+        portfolio.getPortfolioList().get(10).addInvestmentAmount(30);
+        store.requestSave(portfolio);
+        store.close();
+
+        store = new DeltaStore(directory, this);
+        portfolio = store.load();
+        assertEquals(130, portfolio.getPortfolioList().get(10).getCurrentInvestmentWorth());
+        portfolio.getPortfolioList().get(20).addInvestmentAmount(40);
+        store.requestSave(portfolio);
+        store.flush();
+
+        checkReload();
+    }
+
+    @Test
+    void testLoadUnsupportedDeltaVersion() throws IOException {
+        portfolio.getPortfolioList().get(5).addInvestmentAmount(10);
+        store.requestSave(portfolio);
+        store.close();
+        Path file = directory.resolve(DeltaStore.DELTA_FILE);
+        byte[] delta = Files.readAllBytes(file);
+
+        for (short version : new short[]{0, -1, 3}) {
+            ByteBuffer.wrap(delta).putShort(Integer.BYTES, version);
+            Files.write(file, delta);
+            DeltaStore reader = new DeltaStore(directory, this);
+            IOException e = assertThrows(IOException.class, reader::load);
+            assertEquals("Unsupported delta version " + version, e.getMessage());
+            reader.close();
+        }
+    }
+
+    // EFFECTS: checks that a new store reads back exactly the portfolio saved
+    private void checkReload() throws IOException {
+        store.close();
+        DeltaStore reader = new DeltaStore(directory, this);
+        Portfolio loaded = reader.load();
+        reader.close();
+
+        assertEquals(portfolio.getBalance(), loaded.getBalance());
+        assertEquals(portfolio.getValueCurrentlyInvested(), loaded.getValueCurrentlyInvested(), 1e-9);
+        List<Stock> expected = portfolio.getPortfolioList();
+        List<Stock> stockList = loaded.getPortfolioList();
+        assertEquals(expected.size(), stockList.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Stock stock = expected.get(i);
+            checkStock(stock.getSymbol(), stock.getStockPriceCurrent(), stock.getStockPricePrevious(),
+                    stock.getCurrentInvestmentWorth(), stock.getInitialInvestment(), stock.getSharesBought(),
+                    stock.getDaysToInvest(), stock.getRisk(), stock.getMarketCap(), stockList.get(i));
+            assertSame(stockList.get(i), loaded.checkForTicker(stock.getSymbol()));
+        }
+    }
+}
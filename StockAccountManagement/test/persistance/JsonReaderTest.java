@@ -3,57 +3,99 @@ package objectOrientedProgram.StockAccountManagement.test.persistance;
 import objectOrientedProgram.StockAccountManagement.main.model.Stock;
 import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
 import objectOrientedProgram.StockAccountManagement.main.persistance.JsonReader;
-import org.testng.annotations.Test;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
-import static org.testng.AssertJUnit.fail;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonReaderTest extends JsonTest {
+    @TempDir
+    Path directory;
+
+    // EFFECTS: writes json to a file called name in the temporary directory and returns a reader for it
+    private JsonReader readerFor(String name, String json) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+        return new JsonReader(file.toString());
+    }
 
-class JsonReaderTest extends JsonTest {
     @Test
     void testReaderNonExistentFile() {
-        JsonReader reader = new JsonReader("./data/noSuchFile.json");
-        try {
-            Portfolio portfolio = reader.read();
-            fail("IOException expected");
-        } catch (IOException e) {
-            // pass
-        }
+        JsonReader reader = new JsonReader(directory.resolve("noSuchFile.json").toString());
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderEmptyWorkRoom() throws IOException {
+        JsonReader reader = readerFor("testReaderEmptyPortfolio.json",
+                "{\"balance\": 3000, \"value currently invested\": 0, \"portfolio\": []}");
+        Portfolio portfolio = reader.read();
+        assertEquals(3000, portfolio.getBalance());
+        assertEquals(0, portfolio.getPortfolioList().size());
     }
 
     @Test
-    void testReaderEmptyWorkRoom() {
-        JsonReader reader = new JsonReader("./data/testReaderEmptyPortfolio.json");
-        try {
-            Portfolio portfolio = reader.read();
-            assertEquals(3000, portfolio.getBalance());
-            assertEquals(0, portfolio.getPortfolioList().size());
-        } catch (IOException e) {
-            fail("Couldn't read from file");
-        }
+    void testReaderGeneralWorkRoom() throws IOException {
+        JsonReader reader = readerFor("testReaderGeneralPortfolio.json", "{\n"
+                + "    \"balance\": 6000,\n"
+                + "    \"value currently invested\": 4759.780290,\n"
+                + "    \"portfolio\": [\n"
+                + "        {\"symbol\": \"AAPL\", \"stock price current\": 532.3472160420449,"
+                + " \"stock price previous\": 500, \"current investment worth\": 1064.694432,"
+                + " \"initial investment\": 1000, \"shares bought\": 2, \"days to invest\": 1, \"risk\": 2,"
+                + " \"market cap\": 1.0E8},\n"
+                + "        {\"symbol\": \"GOOGL\", \"stock price current\": 307.92382151849904,"
+                + " \"stock price previous\": 250, \"current investment worth\": 3695.085858,"
+                + " \"initial investment\": 3000, \"shares bought\": 12, \"days to invest\": 1, \"risk\": 5,"
+                + " \"market cap\": 2.0E7}\n"
+                + "    ]\n"
+                + "}\n");
+        Portfolio portfolio = reader.read();
+        assertEquals(6000, portfolio.getBalance());
+        assertEquals(4759.78029, portfolio.getValueCurrentlyInvested());
+        List<Stock> stockList = portfolio.getPortfolioList();
+        assertEquals(2, stockList.size());
+        checkStock("AAPL", 532.3472160420449, 500,
+                1064.694432, 1000, 2,
+                1, 2, 1.0E8, stockList.get(0));
+        checkStock("GOOGL", 307.92382151849904, 250,
+                3695.085858, 3000, 12, 1, 5,
+                2.0E7, stockList.get(1));
     }
 
-    private void assertEquals(double i, double size) {
+    @Test
+    void testReaderNullNumbers() throws IOException {
+        JsonReader reader = readerFor("testReaderNullPortfolio.json", "{\n"
+                + "    \"balance\": null,\n"
+                + "    \"value currently invested\": null,\n"
+                + "    \"portfolio\": [\n"
+                + "        {\"symbol\": \"AAPL\", \"stock price current\": null, \"stock price previous\": 500,"
+                + " \"current investment worth\": null, \"initial investment\": 1000, \"shares bought\": null,"
+                + " \"days to invest\": 1, \"risk\": 2, \"market cap\": null}\n"
+                + "    ]\n"
+                + "}\n");
+        Portfolio portfolio = reader.read();
+        assertEquals(0, portfolio.getBalance());
+        assertEquals(0, portfolio.getValueCurrentlyInvested());
+        Stock stock = portfolio.getPortfolioList().get(0);
+        assertTrue(Double.isNaN(stock.getStockPriceCurrent()));
+        assertTrue(Double.isNaN(stock.getSharesBought()));
+        assertEquals(0, stock.getCurrentInvestmentWorth());
+        assertEquals(1000, stock.getInitialInvestment());
+        assertEquals(0, stock.getMarketCap());
     }
 
     @Test
-    void testReaderGeneralWorkRoom() {
-        JsonReader reader = new JsonReader("./data/testReaderGeneralPortfolio.json");
-        try {
-            Portfolio portfolio = reader.read();
-            assertEquals(6000, portfolio.getBalance());
-            List<Stock> stockList = portfolio.getPortfolioList();
-            assertEquals(2, stockList.size());
-            checkStock("AAPL", 532.3472160420449, 500,
-                    1064.6944320840898, 1000, 2,
-                    1, 2, 1.0E8, stockList.get(0));
-            checkStock("GOOGL", 307.92382151849904, 250,
-                    3695.0858582219885, 3000, 12, 1, 5,
-                    2.0E7, stockList.get(1));
-        } catch (IOException e) {
-            fail("Couldn't read from file");
-        }
+    void testReaderNotAPortfolio() throws IOException {
+        assertThrows(IOException.class, readerFor("list.json", "[1, 2]")::read);
+        assertThrows(IOException.class, readerFor("stocks.json", "{\"portfolio\": {}}")::read);
+        assertThrows(IOException.class, readerFor("balance.json", "{\"balance\": true}")::read);
+        assertThrows(IOException.class, readerFor("truncated.json", "{\"balance\": 1")::read);
     }
 }
-
@@ -0,0 +1,106 @@
+package objectOrientedProgram.StockAccountManagement.test.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonTokenizer;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonTokenizer.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonTokenizerTest {
+
+    private JsonTokenizer tokenizerFor(String json) throws IOException {
+        return new JsonTokenizer(Channels.newChannel(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testTokens() throws IOException {
+        JsonTokenizer json = tokenizerFor("{\"balance\": -12.5e1, \"portfolio\": [\"A\\u00e9\", true, null]}");
+        assertEquals(Token.BEGIN_OBJECT, json.next());
+        assertEquals(Token.NAME, json.next());
+        assertEquals("balance", json.getString());
+        assertEquals(Token.NUMBER, json.next());
+        assertEquals(-125, json.getDouble());
+        assertEquals(Token.NAME, json.next());
+        assertEquals(Token.BEGIN_ARRAY, json.next());
+        assertEquals(Token.STRING, json.next());
+        assertEquals("A\u00e9", json.getString());
+        assertEquals(Token.TRUE, json.next());
+        assertEquals(Token.NULL, json.next());
+        assertEquals(Token.END_ARRAY, json.next());
+        assertEquals(Token.END_OBJECT, json.next());
+        assertEquals(Token.END_DOCUMENT, json.next());
+    }
+
+    @Test
+    void testSkipValue() throws IOException {
+        JsonTokenizer json = tokenizerFor("[{\"a\": [1, {\"b\": {}}], \"c\": \"d\"}, 7]");
+        json.next();
+        json.next();
+        json.skipValue();
+        assertEquals(Token.NUMBER, json.next());
+        assertEquals("7", json.getString());
+        assertEquals(Token.END_ARRAY, json.next());
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        JsonTokenizer missingComma = tokenizerFor("[1 2]");
+        missingComma.next();
+        missingComma.next();
+        assertThrows(IOException.class, missingComma::next);
+
+        JsonTokenizer wrongBracket = tokenizerFor("{\"a\": 1]");
+        wrongBracket.next();
+        wrongBracket.next();
+        wrongBracket.next();
+        assertThrows(IOException.class, wrongBracket::next);
+
+        JsonTokenizer unterminated = tokenizerFor("[\"abc");
+        unterminated.next();
+        assertThrows(IOException.class, unterminated::next);
+    }
+
+    // EFFECTS: checks that json reads as tokens valid tokens followed by one that throws IOException
+    private void checkMalformed(String json, int tokens) throws IOException {
+        JsonTokenizer tokenizer = tokenizerFor(json);
+        for (int i = 0; i < tokens; i++) {
+            tokenizer.next();
+        }
+        assertThrows(IOException.class, tokenizer::next);
+    }
+
+    @Test
+    void testTrailingComma() throws IOException {
+        checkMalformed("[1,]", 2);
+        checkMalformed("{\"a\": 1,}", 3);
+        checkMalformed("[[1],]", 4);
+        checkMalformed("[1,,2]", 2);
+        checkMalformed("[,1]", 1);
+        checkMalformed("{,}", 1);
+    }
+
+    @Test
+    void testMissingValue() throws IOException {
+        checkMalformed("{\"a\":}", 2);
+        checkMalformed("{\"a\": , \"b\": 1}", 2);
+        checkMalformed("[{\"a\"}]", 2);
+        checkMalformed("{\"a\": 1, \"b\":}", 4);
+    }
+
+    @Test
+    void testEmptyContainers() throws IOException {
+        JsonTokenizer json = tokenizerFor("{\"a\": [], \"b\": {}, \"c\": [[], {}]}");
+        Token[] expected = {Token.BEGIN_OBJECT, Token.NAME, Token.BEGIN_ARRAY, Token.END_ARRAY, Token.NAME,
+                Token.BEGIN_OBJECT, Token.END_OBJECT, Token.NAME, Token.BEGIN_ARRAY, Token.BEGIN_ARRAY,
+                Token.END_ARRAY, Token.BEGIN_OBJECT, Token.END_OBJECT, Token.END_ARRAY, Token.END_OBJECT,
+                Token.END_DOCUMENT};
+        for (Token token : expected) {
+            assertEquals(token, json.next());
+        }
+    }
+}
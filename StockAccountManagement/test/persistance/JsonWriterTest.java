@@ -4,78 +4,118 @@ import objectOrientedProgram.StockAccountManagement.main.model.Stock;
 import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
 import objectOrientedProgram.StockAccountManagement.main.persistance.JsonReader;
 import objectOrientedProgram.StockAccountManagement.main.persistance.JsonWriter;
-import org.testng.annotations.Test;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
-import static org.testng.AssertJUnit.assertEquals;
-import static org.testng.AssertJUnit.fail;
+import static org.junit.jupiter.api.Assertions.*;
 
-class JsonWriterTest extends JsonTest {
+public class JsonWriterTest extends JsonTest {
+    @TempDir
+    Path directory;
 
     @Test
     void testWriterInvalidFile() {
-        try {
-            Portfolio portfolio = new Portfolio(1000, 3000);
-            JsonWriter writer = new JsonWriter("./data/my\0illegal:fileName.json");
-            writer.open();
-            fail("IOException was expected");
-        } catch (IOException e) {
-            // pass
-        }
+        JsonWriter illegalName = new JsonWriter(directory.resolve("my").toString() + "\0illegal:fileName.json");
+        assertThrows(IOException.class, illegalName::open);
+
+        JsonWriter missingDirectory = new JsonWriter(directory.resolve("missing/portfolio.json").toString());
+        assertThrows(IOException.class, missingDirectory::open);
     }
 
     @Test
-    void testWriterEmptyWorkroom() {
-        try {
-            Portfolio portfolio = new Portfolio(1000, 3000);
-            JsonWriter writer = new JsonWriter("./data/testWriterEmptyPortfolio.json");
-            writer.open();
-            writer.write(portfolio);
-            writer.close();
-
-            JsonReader reader = new JsonReader("./data/testWriterEmptyPortfolio.json");
-            portfolio = reader.read();
-            assertEquals(1000, portfolio.getBalance());
-            assertEquals(3000, portfolio.getValueCurrentlyInvested());
-            assertEquals(0, portfolio.getPortfolioList().size());
-        } catch (IOException e) {
-            fail("Exception should not have been thrown");
-        }
+    void testWriterEmptyWorkroom() throws IOException {
+        String file = directory.resolve("testWriterEmptyPortfolio.json").toString();
+        Portfolio portfolio = new Portfolio(1000, 3000);
+        JsonWriter writer = new JsonWriter(file);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+
+        JsonReader reader = new JsonReader(file);
+        portfolio = reader.read();
+        assertEquals(1000, portfolio.getBalance());
+        assertEquals(3000, portfolio.getValueCurrentlyInvested());
+        assertEquals(0, portfolio.getPortfolioList().size());
     }
 
     @Test
-    void testWriterGeneralWorkroom() {
-        try {
-            Portfolio portfolio = new Portfolio(4000, 5000);
-            Stock stock1 = new Stock("AAPL", 250, 250, 3000,
-                    3000, 12, 0, 2, 30000000);
-            Stock stock2 = new Stock("GOOGL", 320, 320, 2000,
-                    2000, 6.25, 0, 5, 40000000);
-
-            portfolio.addStock(stock1);
-            portfolio.addStock(stock2);
-            JsonWriter writer = new JsonWriter("./data/testWriterGeneralPortfolio.json");
-            writer.open();
-            writer.write(portfolio);
-            writer.close();
-
-            JsonReader reader = new JsonReader("./data/testWriterGeneralPortfolio.json");
-            portfolio = reader.read();
-
-            assertEquals(4000, portfolio.getBalance());
-            assertEquals(5000, portfolio.getValueCurrentlyInvested());
-            List<Stock> stockList = portfolio.getPortfolioList();
-            assertEquals(2, stockList.size());
-            checkStock("AAPL", 250, 250, 3000,
-                    3000, 12, 0, 2, 30000000, stockList.get(0));
-            checkStock("GOOGL", 320, 320, 2000,
-                    2000, 6.25, 0, 5, 40000000, stockList.get(1));
-
-        } catch (IOException e) {
-            fail("Exception should not have been thrown");
-        }
+    void testWriterGeneralWorkroom() throws IOException {
+        String file = directory.resolve("testWriterGeneralPortfolio.json").toString();
+        Portfolio portfolio = new Portfolio(4000, 0);
+        Stock stock1 = new Stock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000);
+        Stock stock2 = new Stock("GOOGL", 320, 320, 2000,
+                2000, 6.25, 0, 5, 40000000);
+
+        portfolio.addStock(stock1);
+        portfolio.addStock(stock2);
+        JsonWriter writer = new JsonWriter(file);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+
+        JsonReader reader = new JsonReader(file);
+        portfolio = reader.read();
+
+        assertEquals(4000, portfolio.getBalance());
+        assertEquals(5000, portfolio.getValueCurrentlyInvested());
+        List<Stock> stockList = portfolio.getPortfolioList();
+        assertEquals(2, stockList.size());
+        checkStock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000, stockList.get(0));
+        checkStock("GOOGL", 320, 320, 2000,
+                2000, 6.25, 0, 5, 40000000, stockList.get(1));
     }
-}
 
+    @Test
+    void testWriterCompact() throws IOException {
+        Path file = directory.resolve("testWriterCompactPortfolio.json");
+        Portfolio portfolio = new Portfolio(4000, 0);
+        portfolio.addStock(new Stock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000));
+        JsonWriter writer = new JsonWriter(file.toString(), true);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+
+        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertFalse(json.contains("\n"));
+        assertFalse(json.contains(" :"));
+
+        portfolio = new JsonReader(file.toString()).read();
+        assertEquals(4000, portfolio.getBalance());
+        assertEquals(3000, portfolio.getValueCurrentlyInvested());
+        checkStock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000, portfolio.getPortfolioList().get(0));
+    }
+
+    @Test
+    void testWriterNonFiniteNumbers() throws IOException {
+        Path file = directory.resolve("testWriterNonFinitePortfolio.json");
+        Portfolio portfolio = new Portfolio(100, 0);
+        portfolio.addStock(new Stock("AAPL", Double.POSITIVE_INFINITY, Double.NaN, 50,
+                50, Double.NEGATIVE_INFINITY, 0, 2, 30000000));
+        JsonWriter writer = new JsonWriter(file.toString(), true);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+
+        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"stock price current\":\"Infinity\""));
+        assertTrue(json.contains("\"stock price previous\":\"NaN\""));
+        assertTrue(json.contains("\"shares bought\":\"-Infinity\""));
+        assertFalse(json.contains("null"));
+
+        Stock stock = new JsonReader(file.toString()).read().getPortfolioList().get(0);
+        assertEquals(Double.POSITIVE_INFINITY, stock.getStockPriceCurrent());
+        assertTrue(Double.isNaN(stock.getStockPricePrevious()));
+        assertEquals(Double.NEGATIVE_INFINITY, stock.getSharesBought());
+        assertEquals(50, stock.getCurrentInvestmentWorth());
+    }
+}
@@ -0,0 +1,97 @@
+package objectOrientedProgram.StockAccountManagement.test.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.persistance.PortfolioJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortfolioJournalTest extends JsonTest {
+    @TempDir
+    Path directory;
+
+    private PortfolioJournal journal;
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        journal = new PortfolioJournal(directory);
+        portfolio = journal.load();
+    }
+
+    @Test
+    void testReplayAfterCommit() throws IOException {
+        portfolio.deposit(5000);
+        portfolio.addStock(new Stock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000));
+        portfolio.addStock(new Stock("GOOGL", 320, 320, 2000,
+                2000, 6.25, 0, 5, 40000000));
+        portfolio.addStock(new Stock("MSFT", 100, 100, 500,
+                500, 5, 0, 3, 20000000));
+        portfolio.getPortfolioList().get(2).addInvestmentAmount(100);
+        portfolio.sellStock(portfolio.getPortfolioList().get(0));
+        journal.commit();
+
+        Portfolio replayed = new PortfolioJournal(directory).load();
+        assertEquals(8000, replayed.getBalance());
+        assertEquals(2600, replayed.getValueCurrentlyInvested());
+        List<Stock> stockList = replayed.getPortfolioList();
+        assertEquals(2, stockList.size());
+        checkStock("MSFT", 100, 100, 600,
+                500, 5, 0, 3, 20000000, stockList.get(0));
+        checkStock("GOOGL", 320, 320, 2000,
+                2000, 6.25, 0, 5, 40000000, stockList.get(1));
+    }
+
+    @Test
+    void testUncommittedChangesLost() throws IOException {
+        portfolio.deposit(100);
+        journal.commit();
+        portfolio.deposit(50);
+
+        assertEquals(100, new PortfolioJournal(directory).load().getBalance());
+    }
+
+    @Test
+    void testTornRecordIgnored() throws IOException {
+        portfolio.deposit(100);
+        journal.commit();
+        try (FileChannel log = FileChannel.open(directory.resolve(PortfolioJournal.JOURNAL_FILE),
+                StandardOpenOption.APPEND)) {
+            log.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 9, 1, 64}));
+        }
+
+        PortfolioJournal reopened = new PortfolioJournal(directory);
+        Portfolio replayed = reopened.load();
+        assertEquals(100, replayed.getBalance());
+        replayed.deposit(1);
+        reopened.commit();
+        assertEquals(101, new PortfolioJournal(directory).load().getBalance());
+    }
+
+    @Test
+    void testCheckpoint() throws IOException {
+        portfolio.deposit(100);
+        portfolio.addStock(new Stock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000));
+        journal.checkpoint();
+        portfolio.sellAll();
+        journal.commit();
+
+        PortfolioJournal reopened = new PortfolioJournal(directory);
+        Portfolio replayed = reopened.load();
+        assertEquals(journal.getGeneration(), reopened.getGeneration());
+        assertEquals(3100, replayed.getBalance());
+        assertTrue(replayed.getPortfolioList().isEmpty());
+    }
+}
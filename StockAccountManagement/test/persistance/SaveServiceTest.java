@@ -0,0 +1,109 @@
+package objectOrientedProgram.StockAccountManagement.test.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonReader;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SaveListener;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SaveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveServiceTest extends JsonTest implements SaveListener {
+    @TempDir
+    Path directory;
+
+    private String destination;
+    private Portfolio portfolio;
+    private List<Integer> saves;
+    private List<IOException> failures;
+
+    @BeforeEach
+    void runBefore() {
+        destination = directory.resolve("portfolio.json").toString();
+        portfolio = new Portfolio();
+        saves = new ArrayList<>();
+        failures = new ArrayList<>();
+    }
+
+    @Override
+    public synchronized void saved(String destination, long latencyNanos, int requests) {
+        assertTrue(latencyNanos > 0);
+        saves.add(requests);
+    }
+
+    @Override
+    public synchronized void saveFailed(String destination, IOException e) {
+        failures.add(e);
+    }
+
+    @Test
+    void testBurstSavedOnce() throws IOException {
+        SaveService saveService = new SaveService(destination, this);
+        portfolio.deposit(100);
+        assertTrue(saveService.requestSave(portfolio));
+        portfolio.addStock(new Stock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000));
+        assertTrue(saveService.requestSave(portfolio));
+        portfolio.deposit(50);
+        assertTrue(saveService.requestSave(portfolio));
+        saveService.close();
+
+        assertEquals(List.of(3), saves);
+        assertTrue(saveService.getLastLatencyNanos() > 0);
+        assertFalse(Files.exists(directory.resolve("portfolio.json.tmp")));
+        Portfolio saved = new JsonReader(destination).read();
+        assertEquals(150, saved.getBalance());
+        assertEquals(1, saved.getPortfolioList().size());
+        checkStock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000, saved.getPortfolioList().get(0));
+    }
+
+    @Test
+    void testLaterChangesNotSaved() throws IOException {
+        SaveService saveService = new SaveService(destination, this);
+        portfolio.deposit(100);
+        saveService.requestSave(portfolio);
+        portfolio.deposit(50);
+        saveService.close();
+
+        assertEquals(100, new JsonReader(destination).read().getBalance());
+    }
+
+    @Test
+    void testUnchangedNotSaved() {
+        SaveService saveService = new SaveService(destination, this);
+        saveService.markSaved(portfolio);
+        assertFalse(saveService.hasUnsavedChanges(portfolio));
+        assertFalse(saveService.requestSave(portfolio));
+
+        portfolio.deposit(1);
+        assertTrue(saveService.hasUnsavedChanges(portfolio));
+        assertTrue(saveService.requestSave(portfolio));
+        assertFalse(saveService.hasUnsavedChanges(portfolio));
+        assertFalse(saveService.requestSave(portfolio));
+        saveService.close();
+        assertEquals(List.of(1), saves);
+    }
+
+    @Test
+    void testFailedSaveStillUnsaved() {
+        SaveService saveService = new SaveService(directory.resolve("missing").resolve("portfolio.json")
+                .toString(), this);
+        portfolio.deposit(1);
+        saveService.requestSave(portfolio);
+        saveService.close();
+
+        assertTrue(saves.isEmpty());
+        assertEquals(1, failures.size());
+        assertTrue(saveService.hasUnsavedChanges(portfolio));
+    }
+}
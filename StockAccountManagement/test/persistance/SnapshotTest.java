@@ -0,0 +1,178 @@
+package objectOrientedProgram.StockAccountManagement.test.persistance;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SnapshotConverter;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SnapshotLayout;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SnapshotReader;
+import objectOrientedProgram.StockAccountManagement.main.persistance.SnapshotWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTest extends JsonTest {
+    @TempDir
+    Path directory;
+
+    // EFFECTS: returns the path of the file called name in the temporary directory
+    private String file(String name) {
+        return directory.resolve(name).toString();
+    }
+
+    // EFFECTS: writes portfolio as a snapshot to the file called name and returns its path
+    private Path writeSnapshot(Portfolio portfolio, String name) throws IOException {
+        SnapshotWriter writer = new SnapshotWriter(file(name));
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+        return directory.resolve(name);
+    }
+
+    @Test
+    void testSnapshotRoundTrip() throws IOException {
+        Portfolio portfolio = new Portfolio(4000, 0);
+        portfolio.addStock(new Stock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000));
+        portfolio.addStock(new Stock("GOOGL", 320, 300, 2000,
+                2000, 6.25, 3, 5, 40000000));
+        portfolio.addStock(new Stock("AAPL", 10, 10, 5,
+                5, 0.5, 1, 1, 30000000));
+
+        SnapshotWriter writer = new SnapshotWriter(file("testSnapshotPortfolio.snap"));
+        writer.setGeneration(7);
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+
+        SnapshotReader reader = new SnapshotReader(file("testSnapshotPortfolio.snap"));
+        portfolio = reader.read();
+        assertEquals(7, reader.getGeneration());
+        assertEquals(4000, portfolio.getBalance());
+        assertEquals(5005, portfolio.getValueCurrentlyInvested());
+        List<Stock> stockList = portfolio.getPortfolioList();
+        assertEquals(3, stockList.size());
+        checkStock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000, stockList.get(0));
+        checkStock("GOOGL", 320, 300, 2000,
+                2000, 6.25, 3, 5, 40000000, stockList.get(1));
+        checkStock("AAPL", 10, 10, 5,
+                5, 0.5, 1, 1, 30000000, stockList.get(2));
+    }
+
+    @Test
+    void testConvertBothWays() throws IOException {
+        Portfolio portfolio = new Portfolio(1000, 0);
+        portfolio.addStock(new Stock("MSFT", 100, 90, 500,
+                450, 5, 2, 3, 20000000));
+        SnapshotWriter writer = new SnapshotWriter(file("testConvertPortfolio.snap"));
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+
+        SnapshotConverter.snapshotToJson(file("testConvertPortfolio.snap"), file("testConvertPortfolio.json"));
+        SnapshotConverter.jsonToSnapshot(file("testConvertPortfolio.json"), file("testConvertBack.snap"));
+
+        portfolio = new SnapshotReader(file("testConvertBack.snap")).read();
+        assertEquals(1000, portfolio.getBalance());
+        checkStock("MSFT", 100, 90, 500,
+                450, 5, 2, 3, 20000000, portfolio.getPortfolioList().get(0));
+    }
+
+    @Test
+    void testReadNotASnapshot() throws IOException {
+        Files.write(directory.resolve("testNotASnapshot.snap"), new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> new SnapshotReader(file("testNotASnapshot.snap")).read());
+    }
+
+    @Test
+    void testReadLazily() throws IOException {
+        Portfolio portfolio = new Portfolio(4000, 0);
+        portfolio.addStock(new Stock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000));
+        portfolio.addStock(new Stock("GOOGL", 320, 300, 2000,
+                2000, 6.25, 3, 5, 40000000));
+        portfolio.addStock(new Stock("AAPL", 10, 10, 5,
+                5, 0.5, 1, 1, 30000000));
+        portfolio.addStock(new Stock("MSFT", 100, 90, 500,
+                450, 5, 2, 3, 20000000));
+        SnapshotWriter writer = new SnapshotWriter(file("testLazyPortfolio.snap"));
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+
+        portfolio = new SnapshotReader(file("testLazyPortfolio.snap")).readLazily();
+        assertEquals(4000, portfolio.getBalance());
+        assertEquals(5505, portfolio.getValueCurrentlyInvested());
+        assertEquals(4, portfolio.size());
+        assertEquals(0, portfolio.getLoadedCount());
+
+        checkStock("AAPL", 10, 10, 5,
+                5, 0.5, 1, 1, 30000000, portfolio.getStock(2));
+        assertEquals(1, portfolio.getLoadedCount());
+        assertEquals(250, portfolio.checkForTicker("AAPL").getStockPriceCurrent());
+        assertEquals(2, portfolio.getLoadedCount());
+        assertNull(portfolio.checkForTicker("TSLA"));
+        portfolio.updateValue();
+        assertEquals(5505, portfolio.getValueCurrentlyInvested());
+        assertEquals(2, portfolio.getLoadedCount());
+
+        portfolio.sellStock(portfolio.getStock(1));
+        assertEquals(3, portfolio.getLoadedCount());
+        assertSame(portfolio.getStock(1), portfolio.checkForTicker("MSFT"));
+        List<Stock> stockList = portfolio.getPortfolioList();
+        assertEquals(3, portfolio.getLoadedCount());
+        checkStock("AAPL", 250, 250, 3000,
+                3000, 12, 0, 2, 30000000, stockList.get(0));
+        checkStock("MSFT", 100, 90, 500,
+                450, 5, 2, 3, 20000000, stockList.get(1));
+        checkStock("AAPL", 10, 10, 5,
+                5, 0.5, 1, 1, 30000000, stockList.get(2));
+    }
+
+    @Test
+    void testReadVersionOneSnapshot() throws IOException {
+        byte[] symbol = "AAPL".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer snapshot = ByteBuffer.allocate(SnapshotLayout.HEADER_SIZE + 8
+                + SnapshotLayout.DOUBLE_COLUMNS * Double.BYTES + SnapshotLayout.INT_COLUMNS * Integer.BYTES);
+        snapshot.putInt(SnapshotLayout.MAGIC).putShort((short) 1).putShort((short) 0).putLong(7);
+        snapshot.putDouble(300.22).putDouble(3000).putInt(1).putInt(1).putInt(Short.BYTES + symbol.length).putInt(0);
+        snapshot.putShort((short) symbol.length).put(symbol).putShort((short) 0);
+        snapshot.putDouble(250).putDouble(240).putDouble(3000).putDouble(2000).putDouble(12).putDouble(3.0E7);
+        snapshot.putInt(0).putInt(4).putInt(2);
+        Files.write(directory.resolve("testVersionOne.snap"), snapshot.array());
+
+        for (Portfolio portfolio : new Portfolio[]{new SnapshotReader(file("testVersionOne.snap")).read(),
+                new SnapshotReader(file("testVersionOne.snap")).readLazily()}) {
+            assertEquals(300.22, portfolio.getBalance());
+            assertEquals(3000, portfolio.getValueCurrentlyInvested());
+            assertEquals(1, portfolio.size());
+            checkStock("AAPL", 250, 240, 3000,
+                    2000, 12, 4, 2, 30000000, portfolio.getStock(0));
+        }
+    }
+
+    @Test
+    void testReadUnsupportedVersion() throws IOException {
+        Portfolio portfolio = new Portfolio(1000, 0);
+        portfolio.addStock(new Stock("MSFT", 100, 90, 500,
+                450, 5, 2, 3, 20000000));
+        Path snapshot = writeSnapshot(portfolio, "testVersion.snap");
+        byte[] bytes = Files.readAllBytes(snapshot);
+
+        for (short version : new short[]{0, -1, SnapshotLayout.VERSION + 1}) {
+            ByteBuffer.wrap(bytes).putShort(Integer.BYTES, version);
+            Files.write(snapshot, bytes);
+            IOException e = assertThrows(IOException.class, () -> new SnapshotReader(snapshot.toString()).read());
+            assertEquals("Unsupported snapshot version " + version, e.getMessage());
+            assertThrows(IOException.class, () -> new SnapshotReader(snapshot.toString()).readLazily());
+        }
+    }
+}
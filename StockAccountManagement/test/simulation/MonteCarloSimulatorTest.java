@@ -0,0 +1,83 @@
+package objectOrientedProgram.StockAccountManagement.test.simulation;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.NegativeIntException;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.simulation.MonteCarloSimulator;
+import objectOrientedProgram.StockAccountManagement.main.simulation.SimulationResult;
+import objectOrientedProgram.StockAccountManagement.main.simulation.XoshiroRandomSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloSimulatorTest {
+    private Portfolio testPortfolio;
+
+    @BeforeEach
+    void runBefore() {
+        testPortfolio = new Portfolio();
+        testPortfolio.addStock(new Stock("AAPL", 123, 123, 500,
+                500, (500 / 123.0), 0, 3, 1000000));
+        testPortfolio.addStock(new Stock("GOOGL", 250, 250, 1000,
+                1000, 4, 0, 5, 3000000));
+    }
+
+    @Test
+    void testSimulateZeroDays() {
+        SimulationResult result = testPortfolio.simulateStocksForDays(0, 10);
+
+        assertEquals(10, result.getPaths());
+        assertEquals(2, result.getStockCount());
+        for (double outcome : result.getPortfolioOutcomes()) {
+            assertEquals(1500, outcome);
+        }
+    }
+
+    @Test
+    void testSimulateOneDayWithinRiskRange() {
+        SimulationResult result = testPortfolio.simulateStocksForDays(1, 5000);
+
+        assertEquals(5000, result.getPortfolioOutcomes().length);
+        for (double outcome : result.getStockOutcomes(0)) {
+            assertTrue(400 <= outcome && outcome <= 600);
+        }
+        for (double outcome : result.getStockOutcomes(1)) {
+            assertTrue(500 <= outcome && outcome <= 1500);
+        }
+        assertTrue(result.getPortfolioPercentile(5) <= result.getPortfolioPercentile(95));
+    }
+
+    @Test
+    void testSimulateLeavesPortfolioUnchanged() {
+        testPortfolio.simulateStocksForDays(30, 1000);
+
+        assertEquals(123, testPortfolio.getPortfolioList().get(0).getStockPriceCurrent());
+        assertEquals(500, testPortfolio.getPortfolioList().get(0).getCurrentInvestmentWorth());
+    }
+
+    @Test
+    void testSimulateSameSeedSameResult() {
+        SimulationResult first = testPortfolio.simulateStocksForDays(10, 2000, 42);
+        SimulationResult second = testPortfolio.simulateStocksForDays(10, 2000, 42);
+
+        assertArrayEquals(first.getPortfolioOutcomes(), second.getPortfolioOutcomes());
+    }
+
+    @Test
+    void testSimulateSeededIndependentOfThreads() {
+        SimulationResult oneThread = new MonteCarloSimulator(new ForkJoinPool(1))
+                .simulate(testPortfolio.getPortfolioList(), 10, 2000, new XoshiroRandomSource(7));
+        SimulationResult manyThreads = new MonteCarloSimulator(new ForkJoinPool(4))
+                .simulate(testPortfolio.getPortfolioList(), 10, 2000, new XoshiroRandomSource(7));
+
+        assertArrayEquals(oneThread.getPortfolioOutcomes(), manyThreads.getPortfolioOutcomes());
+    }
+
+    @Test
+    void testSimulateNegativeDays() {
+        assertThrows(NegativeIntException.class, () -> testPortfolio.simulateStocksForDays(-1, 10));
+    }
+}
@@ -0,0 +1,56 @@
+package objectOrientedProgram.StockAccountManagement.test.simulation;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.simulation.PortfolioKernel;
+import objectOrientedProgram.StockAccountManagement.main.simulation.XoshiroRandomSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortfolioKernelTest {
+
+    // EFFECTS: returns a portfolio of count stocks, each with its own seeded random source
+    private Portfolio seededPortfolio(int count) {
+        Portfolio portfolio = new Portfolio();
+        for (int i = 0; i < count; i++) {
+            Stock stock = new Stock("AAPL", 100 + i, 100 + i, 500 + i,
+                    500 + i, 0, 0, 1 + i % 5, 1000 + i * 10);
+            stock.setRandomSource(new XoshiroRandomSource(i));
+            portfolio.addStock(stock);
+        }
+        return portfolio;
+    }
+
+    @Test
+    void testInvestMatchesObjectPath() {
+        Portfolio objectPath = seededPortfolio(50);
+        Portfolio kernelPath = seededPortfolio(50);
+
+        objectPath.investStocksForDays(30);
+        new PortfolioKernel(kernelPath).invest(30);
+
+        for (int i = 0; i < 50; i++) {
+            Stock expected = objectPath.getPortfolioList().get(i);
+            Stock actual = kernelPath.getPortfolioList().get(i);
+            assertEquals(expected.getStockPriceCurrent(), actual.getStockPriceCurrent());
+            assertEquals(expected.getStockPricePrevious(), actual.getStockPricePrevious());
+            assertEquals(expected.getCurrentInvestmentWorth(), actual.getCurrentInvestmentWorth());
+            assertEquals(expected.getInitialInvestment(), actual.getInitialInvestment());
+            assertEquals(expected.getSharesBought(), actual.getSharesBought());
+            assertEquals(30, actual.getDaysToInvest());
+        }
+        assertEquals(objectPath.getValueCurrentlyInvested(), kernelPath.getValueCurrentlyInvested());
+    }
+
+    @Test
+    void testInvestZeroDaysKeepsWorth() {
+        Portfolio portfolio = seededPortfolio(3);
+
+        new PortfolioKernel(portfolio).invest(0);
+
+        assertEquals(500, portfolio.getPortfolioList().get(0).getCurrentInvestmentWorth());
+        assertEquals(100, portfolio.getPortfolioList().get(0).getStockPriceCurrent());
+        assertEquals(1503, portfolio.getValueCurrentlyInvested());
+    }
+}
@@ -0,0 +1,173 @@
+package objectOrientedProgram.StockAccountManagement.test.simulation;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.simulation.ChunkedPriceHistory;
+import objectOrientedProgram.StockAccountManagement.main.simulation.MappedPriceHistory;
+import objectOrientedProgram.StockAccountManagement.main.simulation.PortfolioKernel;
+import objectOrientedProgram.StockAccountManagement.main.simulation.PriceHistory;
+import objectOrientedProgram.StockAccountManagement.main.simulation.XoshiroRandomSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceHistoryTest {
+    private static final int MAPPED_CHUNK = 1 << 16;
+
+    @TempDir
+    Path directory;
+
+    // MODIFIES: history
+    // EFFECTS: appends the prices of days [from, to), each day's price being day / 4
+    private void appendDays(PriceHistory history, int from, int to) {
+        for (int day = from; day < to; day++) {
+            history.append(day / 4.0);
+        }
+    }
+
+    // EFFECTS: checks that history holds the prices appendDays gives days [0, size)
+    private void checkDays(PriceHistory history, int size) {
+        assertEquals(size, history.size());
+        for (int day = 0; day < size; day++) {
+            assertEquals(day / 4.0, history.get(day));
+        }
+    }
+
+    // EFFECTS: checks reading ranges of history, including across chunk boundaries and with an offset
+    private void checkRead(PriceHistory history, int chunk) {
+        double[] prices = history.read(chunk - 3, chunk + 5);
+        assertEquals(8, prices.length);
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals((chunk - 3 + i) / 4.0, prices[i]);
+        }
+
+        double[] destination = new double[2 * chunk + 4];
+        history.read(1, 2 * chunk + 1, destination, 4);
+        for (int i = 0; i < 2 * chunk; i++) {
+            assertEquals((1 + i) / 4.0, destination[4 + i]);
+        }
+        assertEquals(0, history.read(5, 5).length);
+    }
+
+    // EFFECTS: checks that history rejects days that were not recorded
+    private void checkBounds(PriceHistory history) {
+        long size = history.size();
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(size));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.read(0, size + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.read(3, 2, new double[1], 0));
+    }
+
+    @Test
+    void testChunkedEmpty() {
+        PriceHistory history = new ChunkedPriceHistory();
+        assertEquals(0, history.size());
+        assertEquals(0, history.read(0, 0).length);
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(0));
+    }
+
+    @Test
+    void testChunkedAcrossChunks() {
+        PriceHistory history = new ChunkedPriceHistory();
+        appendDays(history, 0, 5000);
+        checkDays(history, 5000);
+        checkRead(history, 1024);
+        checkBounds(history);
+    }
+
+    @Test
+    void testMappedAcrossChunks() throws IOException {
+        try (MappedPriceHistory history = new MappedPriceHistory(directory.resolve("prices.bin"))) {
+            appendDays(history, 0, 2 * MAPPED_CHUNK + 10);
+            checkDays(history, 2 * MAPPED_CHUNK + 10);
+            checkRead(history, MAPPED_CHUNK);
+            checkBounds(history);
+        }
+    }
+
+    @Test
+    void testMappedCloseKeepsChunksAndReopenContinues() throws IOException {
+        Path file = directory.resolve("prices.bin");
+        long chunkBytes = MAPPED_CHUNK * (long) Double.BYTES;
+        MappedPriceHistory history = new MappedPriceHistory(file);
+        appendDays(history, 0, MAPPED_CHUNK + 3);
+        history.close();
+        assertEquals(Long.BYTES + 2 * chunkBytes, Files.size(file));
+
+        try (MappedPriceHistory reopened = new MappedPriceHistory(file)) {
+            checkDays(reopened, MAPPED_CHUNK + 3);
+            assertThrows(IndexOutOfBoundsException.class, () -> reopened.get(MAPPED_CHUNK + 3));
+            appendDays(reopened, MAPPED_CHUNK + 3, 2 * MAPPED_CHUNK + 1);
+            checkDays(reopened, 2 * MAPPED_CHUNK + 1);
+        }
+        assertEquals(Long.BYTES + 3 * chunkBytes, Files.size(file));
+        try (MappedPriceHistory reopened = new MappedPriceHistory(file)) {
+            checkDays(reopened, 2 * MAPPED_CHUNK + 1);
+        }
+    }
+
+    @Test
+    void testMappedEmptyFile() throws IOException {
+        Path file = directory.resolve("prices.bin");
+        new MappedPriceHistory(file).close();
+        try (MappedPriceHistory history = new MappedPriceHistory(file)) {
+            assertEquals(0, history.size());
+        }
+    }
+
+    @Test
+    void testMappedNotAHistory() throws IOException {
+        Path shortHeader = directory.resolve("short.bin");
+        Files.write(shortHeader, new byte[3]);
+        assertThrows(IOException.class, () -> new MappedPriceHistory(shortHeader));
+
+        Path tooMany = directory.resolve("tooMany.bin");
+        Files.write(tooMany, new byte[] {100, 0, 0, 0, 0, 0, 0, 0, 1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> new MappedPriceHistory(tooMany));
+    }
+
+    @Test
+    void testStockRecordsEachDay() {
+        Stock stock = new Stock("AAPL", 100, 100, 500, 500, 0, 10, 3, 1e6);
+        stock.setRandomSource(new XoshiroRandomSource(7));
+        PriceHistory history = new ChunkedPriceHistory();
+        stock.setPriceHistory(history);
+
+        stock.investIndividualStock();
+        assertEquals(11, history.size());
+        assertEquals(100, history.get(0));
+        assertEquals(stock.getStockPriceCurrent(), history.get(10));
+
+        double price = stock.getStockPriceCurrent();
+        stock.investIndividualStock();
+        assertEquals(21, history.size());
+        assertEquals(price, history.get(10));
+        assertEquals(stock.getStockPriceCurrent(), history.get(20));
+    }
+
+    @Test
+    void testKernelRecordsSamePathAsStock() throws IOException {
+        Stock objectPath = new Stock("AAPL", 100, 100, 500, 500, 0, 30, 2, 1e6);
+        objectPath.setRandomSource(new XoshiroRandomSource(11));
+        PriceHistory expected = new ChunkedPriceHistory();
+        objectPath.setPriceHistory(expected);
+        objectPath.investIndividualStock();
+
+        Portfolio portfolio = new Portfolio();
+        Stock kernelPath = new Stock("AAPL", 100, 100, 500, 500, 0, 0, 2, 1e6);
+        kernelPath.setRandomSource(new XoshiroRandomSource(11));
+        portfolio.addStock(kernelPath);
+        try (MappedPriceHistory actual = new MappedPriceHistory(directory.resolve("AAPL.bin"))) {
+            kernelPath.setPriceHistory(actual);
+            new PortfolioKernel(portfolio).invest(30);
+
+            assertEquals(31, actual.size());
+            assertArrayEquals(expected.read(0, 31), actual.read(0, 31));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package objectOrientedProgram.StockAccountManagement.test.simulation;
+
+import objectOrientedProgram.StockAccountManagement.main.simulation.RiskStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RiskStatisticsTest {
+    private RiskStatistics testStatistics;
+
+    @BeforeEach
+    void runBefore() {
+        testStatistics = new RiskStatistics();
+    }
+
+    @Test
+    void testEmpty() {
+        assertEquals(0, testStatistics.getCount());
+        assertEquals(0, testStatistics.getPercentile(50));
+        assertEquals(0, testStatistics.getExpectedShortfall(0.95, 100));
+    }
+
+    @Test
+    void testPercentilesWithinAccuracy() {
+        for (int i = 1; i <= 1000; i++) {
+            testStatistics.accept(i);
+        }
+
+        assertEquals(1000, testStatistics.getCount());
+        assertEquals(500.5, testStatistics.getMean());
+        assertEquals(1, testStatistics.getPercentile(0));
+        assertEquals(500, testStatistics.getPercentile(50), 500 * RiskStatistics.DEFAULT_ACCURACY);
+        assertEquals(950, testStatistics.getPercentile(95), 950 * RiskStatistics.DEFAULT_ACCURACY);
+    }
+
+    @Test
+    void testNegativeAndZeroValues() {
+        for (int i = -500; i <= 500; i++) {
+            testStatistics.accept(i);
+        }
+
+        assertEquals(-500, testStatistics.getPercentile(0));
+        assertEquals(0, testStatistics.getPercentile(50));
+        assertEquals(-250, testStatistics.getPercentile(25), 250 * RiskStatistics.DEFAULT_ACCURACY);
+    }
+
+    @Test
+    void testValueAtRiskAndExpectedShortfall() {
+        for (int i = 1; i <= 100; i++) {
+            testStatistics.accept(i);
+        }
+
+        assertEquals(95, testStatistics.getValueAtRisk(0.95, 100), 5 * RiskStatistics.DEFAULT_ACCURACY + 1);
+        assertEquals(97, testStatistics.getExpectedShortfall(0.95, 100), 1);
+    }
+
+    @Test
+    void testMergeMatchesSingleSummary() {
+        RiskStatistics other = new RiskStatistics();
+        for (int i = 1; i <= 1000; i++) {
+            if (i % 2 == 0) {
+                testStatistics.accept(i);
+            } else {
+                other.accept(i);
+            }
+        }
+        RiskStatistics whole = new RiskStatistics();
+        for (int i = 1; i <= 1000; i++) {
+            whole.accept(i);
+        }
+
+        testStatistics.merge(other);
+
+        assertEquals(whole.getCount(), testStatistics.getCount());
+        assertEquals(whole.getMin(), testStatistics.getMin());
+        assertEquals(whole.getMax(), testStatistics.getMax());
+        assertEquals(whole.getPercentile(10), testStatistics.getPercentile(10));
+        assertEquals(whole.getPercentile(90), testStatistics.getPercentile(90));
+    }
+
+    @Test
+    void testMergeDifferentAccuracy() {
+        assertThrows(IllegalArgumentException.class, () -> testStatistics.merge(new RiskStatistics(0.01)));
+    }
+}
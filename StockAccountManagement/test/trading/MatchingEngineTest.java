@@ -0,0 +1,108 @@
+package objectOrientedProgram.StockAccountManagement.test.trading;
+
+import objectOrientedProgram.StockAccountManagement.main.exceptions.OrderRejectedException;
+import objectOrientedProgram.StockAccountManagement.main.model.Money;
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.trading.MatchingEngine;
+import objectOrientedProgram.StockAccountManagement.main.trading.OrderBook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchingEngineTest {
+    private Portfolio testPortfolio;
+    private MatchingEngine engine;
+
+    @BeforeEach
+    void runBefore() {
+        testPortfolio = new Portfolio(1000, 0);
+        engine = new MatchingEngine(testPortfolio);
+    }
+
+    @Test
+    void testBuyAddsStock() {
+        engine.quote("AAPL", false, 10.5, 30);
+        assertEquals(OrderBook.NO_ORDER, engine.buy("AAPL", 11, 20));
+
+        assertEquals(790, testPortfolio.getBalance());
+        assertEquals(210, testPortfolio.getValueCurrentlyInvested());
+        Stock stock = testPortfolio.checkForTicker("AAPL");
+        assertEquals(20, stock.getSharesBought());
+        assertEquals(210, stock.getCurrentInvestmentWorth());
+        assertEquals(10.5, stock.getStockPriceCurrent());
+        assertEquals(0, engine.getReservedMoney());
+        assertEquals(10, engine.getBook("AAPL").getQuantity(false, Money.of(10.5)));
+    }
+
+    @Test
+    void testRestingBuyHoldsBalanceBack() {
+        long order = engine.buy("AAPL", 10, 60);
+        assertEquals(Money.of(600), engine.getReservedMoney());
+        assertEquals(1000, testPortfolio.getBalance());
+        assertThrows(OrderRejectedException.class, () -> engine.buy("GOOGL", 50, 9));
+
+        engine.quote("AAPL", false, 9, 25);
+        assertEquals(750, testPortfolio.getBalance());
+        assertEquals(Money.of(350), engine.getReservedMoney());
+        assertEquals(35, engine.getBook("AAPL").getRemaining(order));
+
+        assertTrue(engine.cancel("AAPL", order));
+        assertFalse(engine.cancel("AAPL", order));
+        assertEquals(0, engine.getReservedMoney());
+        assertEquals(25, testPortfolio.checkForTicker("AAPL").getSharesBought());
+    }
+
+    @Test
+    void testSellKeepsRestOfStock() {
+        engine.quote("AAPL", false, 10, 40);
+        engine.buy("AAPL", 10, 40);
+        assertEquals(600, testPortfolio.getBalance());
+
+        long order = engine.sell("AAPL", 12, 30);
+        assertEquals(30, engine.getSharesOffered("AAPL"));
+        assertThrows(OrderRejectedException.class, () -> engine.sell("AAPL", 12, 11));
+        engine.quote("AAPL", true, 13, 10);
+
+        Stock stock = testPortfolio.checkForTicker("AAPL");
+        assertEquals(30, stock.getSharesBought());
+        assertEquals(300, stock.getCurrentInvestmentWorth());
+        assertEquals(12, stock.getStockPriceCurrent());
+        assertEquals(720, testPortfolio.getBalance());
+        assertEquals(300, testPortfolio.getValueCurrentlyInvested());
+        assertEquals(20, engine.getSharesOffered("AAPL"));
+
+        assertTrue(engine.cancel("AAPL", order));
+        assertEquals(0, engine.getSharesOffered("AAPL"));
+    }
+
+    @Test
+    void testSellingEverySharesSellsStock() {
+        engine.quote("AAPL", false, 10, 10);
+        engine.buy("AAPL", 10, 10);
+        engine.quote("AAPL", true, 8, 10);
+        assertEquals(OrderBook.NO_ORDER, engine.sell("AAPL", 8, 10));
+
+        assertNull(testPortfolio.checkForTicker("AAPL"));
+        assertEquals(0, testPortfolio.size());
+        assertEquals(980, testPortfolio.getBalance());
+        assertEquals(0, testPortfolio.getValueCurrentlyInvested());
+    }
+
+    @Test
+    void testSellWithoutShares() {
+        assertThrows(OrderRejectedException.class, () -> engine.sell("AAPL", 10, 1));
+        assertEquals(0, engine.getBook("AAPL").size());
+    }
+
+    @Test
+    void testMarketTradesLeavePortfolioAlone() {
+        engine.quote("AAPL", true, 10, 10);
+        engine.quote("AAPL", false, 9, 5);
+        assertEquals(1000, testPortfolio.getBalance());
+        assertEquals(0, testPortfolio.size());
+        assertEquals(5, engine.getBook("AAPL").getQuantity(true, Money.of(10)));
+        assertFalse(engine.cancel("MSFT", 0));
+    }
+}
@@ -0,0 +1,142 @@
+package objectOrientedProgram.StockAccountManagement.test.trading;
+
+import objectOrientedProgram.StockAccountManagement.main.trading.OrderBook;
+import objectOrientedProgram.StockAccountManagement.main.trading.TradeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderBookTest implements TradeListener {
+    private OrderBook book;
+    private List<long[]> trades;
+
+    @BeforeEach
+    void runBefore() {
+        book = new OrderBook("AAPL", this);
+        trades = new ArrayList<>();
+    }
+
+    @Override
+    public void traded(OrderBook book, long buyOrder, long sellOrder, long price, long quantity) {
+        assertTrue(book.isBuy(buyOrder));
+        assertFalse(book.isBuy(sellOrder));
+        trades.add(new long[]{buyOrder, sellOrder, price, quantity});
+    }
+
+    @Test
+    void testRestsWhenNotCrossing() {
+        long bid = book.submit(true, 100, 10, 1);
+        long ask = book.submit(false, 101, 5, 2);
+        assertNotEquals(OrderBook.NO_ORDER, bid);
+        assertNotEquals(OrderBook.NO_ORDER, ask);
+        assertTrue(trades.isEmpty());
+        assertEquals(100, book.getBestBid());
+        assertEquals(101, book.getBestAsk());
+        assertEquals(2, book.size());
+        assertEquals(10, book.getRemaining(bid));
+        assertEquals(2, book.getOwner(ask));
+        assertEquals(101, book.getPrice(ask));
+    }
+
+    @Test
+    void testEmptyBook() {
+        assertEquals(OrderBook.NO_PRICE, book.getBestBid());
+        assertEquals(OrderBook.NO_PRICE, book.getBestAsk());
+        assertEquals(0, book.size());
+        assertEquals(0, book.getRemaining(12345));
+        assertFalse(book.cancel(0));
+    }
+
+    @Test
+    void testBestPriceFirstThenOldestFirst() {
+        long first = book.submit(false, 102, 5, 1);
+        long second = book.submit(false, 101, 5, 1);
+        long third = book.submit(false, 101, 5, 1);
+        long buy = book.submit(true, 102, 12, 0);
+
+        assertEquals(OrderBook.NO_ORDER, buy);
+        assertEquals(3, trades.size());
+        assertEquals(second, trades.get(0)[1]);
+        assertEquals(101, trades.get(0)[2]);
+        assertEquals(5, trades.get(0)[3]);
+        assertEquals(third, trades.get(1)[1]);
+        assertEquals(first, trades.get(2)[1]);
+        assertEquals(102, trades.get(2)[2]);
+        assertEquals(2, trades.get(2)[3]);
+        assertEquals(trades.get(0)[0], trades.get(2)[0]);
+
+        assertEquals(3, book.getRemaining(first));
+        assertEquals(0, book.getRemaining(second));
+        assertEquals(102, book.getBestAsk());
+        assertEquals(1, book.size());
+    }
+
+    @Test
+    void testPartialFillRestsRemainder() {
+        book.submit(true, 100, 4, 1);
+        long sell = book.submit(false, 99, 10, 2);
+        assertEquals(1, trades.size());
+        assertEquals(100, trades.get(0)[2]);
+        assertEquals(6, book.getRemaining(sell));
+        assertEquals(99, book.getBestAsk());
+        assertEquals(OrderBook.NO_PRICE, book.getBestBid());
+        assertEquals(6, book.getQuantity(false, 99));
+    }
+
+    @Test
+    void testCancel() {
+        long first = book.submit(true, 100, 5, 1);
+        long second = book.submit(true, 100, 7, 1);
+        long third = book.submit(true, 100, 9, 1);
+        assertEquals(21, book.getQuantity(true, 100));
+
+        assertTrue(book.cancel(second));
+        assertFalse(book.cancel(second));
+        assertEquals(14, book.getQuantity(true, 100));
+        assertEquals(0, book.getRemaining(second));
+
+        book.submit(false, 100, 14, 2);
+        assertEquals(first, trades.get(0)[0]);
+        assertEquals(third, trades.get(1)[0]);
+        assertEquals(0, book.getLevels(true));
+
+        long other = book.submit(true, 98, 1, 1);
+        assertTrue(book.cancel(other));
+        assertEquals(OrderBook.NO_PRICE, book.getBestBid());
+    }
+
+    @Test
+    void testReusedSlotGetsNewId() {
+        long order = book.submit(true, 100, 5, 1);
+        assertTrue(book.cancel(order));
+        long reused = book.submit(true, 100, 5, 1);
+        assertNotEquals(order, reused);
+        assertFalse(book.cancel(order));
+        assertEquals(5, book.getRemaining(reused));
+    }
+
+    @Test
+    void testManyLevels() {
+        for (int price = 1; price <= 1000; price++) {
+            book.submit(false, 1000 + price, 1, 1);
+            book.submit(true, price, 1, 1);
+        }
+        assertEquals(1000, book.getLevels(true));
+        assertEquals(1000, book.getLevels(false));
+        assertEquals(1000, book.getBestBid());
+        assertEquals(1001, book.getBestAsk());
+        assertTrue(trades.isEmpty());
+
+        book.submit(true, 1499, 600, 0);
+        assertEquals(499, trades.size());
+        assertEquals(1001, trades.get(0)[2]);
+        assertEquals(1499, trades.get(498)[2]);
+        assertEquals(1499, book.getBestBid());
+        assertEquals(101, book.getRemaining(trades.get(0)[0]));
+        assertEquals(1500, book.getBestAsk());
+    }
+}
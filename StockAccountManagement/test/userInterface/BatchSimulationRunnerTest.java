@@ -0,0 +1,70 @@
+package objectOrientedProgram.StockAccountManagement.test.userInterface;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonReader;
+import objectOrientedProgram.StockAccountManagement.main.persistance.JsonWriter;
+import objectOrientedProgram.StockAccountManagement.main.userInterface.BatchSimulationRunner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSimulationRunnerTest {
+    @TempDir
+    Path directory;
+
+    // EFFECTS: returns a portfolio with the given balance and count stocks
+    private Portfolio portfolio(double balance, int count) {
+        Portfolio portfolio = new Portfolio(balance, 0);
+        for (int i = 0; i < count; i++) {
+            portfolio.addStock(new Stock("S" + (char) ('A' + i), 10 + i, 10 + i, 100 + i,
+                    100 + i, 10, 0, 1 + i % 5, 1e7));
+        }
+        portfolio.updateValue();
+        return portfolio;
+    }
+
+    // EFFECTS: writes portfolio to file as JSON
+    private void write(Portfolio portfolio, Path file) throws IOException {
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(portfolio);
+        writer.close();
+    }
+
+    @Test
+    void testRunBatch() throws IOException, InterruptedException {
+        Path input = Files.createDirectory(directory.resolve("in"));
+        Path output = directory.resolve("out");
+        write(portfolio(100, 4), input.resolve("first.json"));
+        write(portfolio(200, 0), input.resolve("empty.json"));
+        Files.write(input.resolve("broken.json"), "{\"balance\": ".getBytes());
+        Files.write(input.resolve("notes.txt"), "not a portfolio".getBytes());
+
+        BatchSimulationRunner runner = new BatchSimulationRunner(input, output, 5);
+        runner.run();
+        assertEquals(2, runner.getSucceeded());
+        assertEquals(1, runner.getFailed());
+        assertFalse(Files.exists(output.resolve("broken.json")));
+        assertFalse(Files.exists(output.resolve("notes.txt")));
+
+        Portfolio first = new JsonReader(output.resolve("first.json").toString()).read();
+        assertEquals(100, first.getBalance());
+        assertEquals(4, first.getPortfolioList().size());
+        double worth = 0;
+        for (Stock stock : first.getPortfolioList()) {
+            assertEquals(5, stock.getDaysToInvest());
+            worth += stock.getCurrentInvestmentWorth();
+        }
+        assertEquals(worth, first.getValueCurrentlyInvested(), 1e-9);
+
+        Portfolio empty = new JsonReader(output.resolve("empty.json").toString()).read();
+        assertEquals(200, empty.getBalance());
+        assertTrue(empty.getPortfolioList().isEmpty());
+    }
+}
@@ -0,0 +1,165 @@
+package objectOrientedProgram.StockAccountManagement.test.userInterface;
+
+import objectOrientedProgram.StockAccountManagement.main.model.Portfolio;
+import objectOrientedProgram.StockAccountManagement.main.model.PriceUpdate;
+import objectOrientedProgram.StockAccountManagement.main.model.Stock;
+import objectOrientedProgram.StockAccountManagement.main.userInterface.StockTableModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StockTableModelTest {
+    private Portfolio portfolio;
+    private StockTableModel model;
+
+    @BeforeEach
+    void runBefore() {
+        portfolio = new Portfolio(1000, 0);
+        portfolio.addStock(new Stock("AAPL", 150, 140, 300, 280, 2, 5, 2, 1e7));
+        portfolio.addStock(new Stock("MSFT", 300, 310, 600, 620, 2, 5, 4, 2e7));
+        portfolio.addStock(new Stock("TSLA", 200, 180, 400, 360, 2, 5, 2, 5e6));
+        portfolio.addStock(new Stock("AMZN", 120, 120, 240, 240, 2, 5, 2, 1e7));
+        model = new StockTableModel(portfolio);
+    }
+
+    // EFFECTS: checks that the model shows the stocks with symbols in that order
+    private void checkOrder(String... symbols) {
+        assertEquals(symbols.length, model.getRowCount());
+        for (int row = 0; row < symbols.length; row++) {
+            assertEquals(symbols[row], model.getValueAt(row, StockTableModel.SYMBOL));
+            assertEquals(symbols[row], model.getStock(row).getSymbol());
+        }
+    }
+
+    @Test
+    void testColumns() {
+        assertEquals(8, model.getColumnCount());
+        assertEquals("Stock", model.getColumnName(StockTableModel.SYMBOL));
+        assertEquals("P&L", model.getColumnName(StockTableModel.PROFIT_AND_LOSS));
+        assertEquals("Market Cap", model.getColumnName(StockTableModel.MARKET_CAP));
+        assertEquals(String.class, model.getColumnClass(StockTableModel.SYMBOL));
+        assertEquals(Double.class, model.getColumnClass(StockTableModel.PRICE));
+        assertEquals(Integer.class, model.getColumnClass(StockTableModel.RISK));
+    }
+
+    @Test
+    void testValues() {
+        assertEquals(4, model.getRowCount());
+        assertEquals("MSFT", model.getValueAt(1, StockTableModel.SYMBOL));
+        assertEquals(300.0, model.getValueAt(1, StockTableModel.PRICE));
+        assertEquals(310.0, model.getValueAt(1, StockTableModel.PREVIOUS_PRICE));
+        assertEquals(600.0, model.getValueAt(1, StockTableModel.WORTH));
+        assertEquals(-20.0, model.getValueAt(1, StockTableModel.PROFIT_AND_LOSS));
+        assertEquals(2.0, model.getValueAt(1, StockTableModel.SHARES));
+        assertEquals(4, model.getValueAt(1, StockTableModel.RISK));
+        assertEquals(2e7, model.getValueAt(1, StockTableModel.MARKET_CAP));
+    }
+
+    @Test
+    void testUnsortedInPortfolioOrder() {
+        assertEquals(-1, model.getSortColumn());
+        checkOrder("AAPL", "MSFT", "TSLA", "AMZN");
+    }
+
+    @Test
+    void testSortDescendingThenAscending() {
+        model.sortBy(StockTableModel.PRICE);
+        assertEquals(StockTableModel.PRICE, model.getSortColumn());
+        assertTrue(model.isDescending());
+        checkOrder("MSFT", "TSLA", "AAPL", "AMZN");
+
+        model.sortBy(StockTableModel.PRICE);
+        assertFalse(model.isDescending());
+        checkOrder("AMZN", "AAPL", "TSLA", "MSFT");
+
+        model.sortBy(StockTableModel.PROFIT_AND_LOSS);
+        assertTrue(model.isDescending());
+        checkOrder("TSLA", "AAPL", "AMZN", "MSFT");
+    }
+
+    @Test
+    void testTiesKeepPortfolioOrder() {
+        model.sortBy(StockTableModel.RISK);
+        checkOrder("MSFT", "AAPL", "TSLA", "AMZN");
+
+        model.sortBy(StockTableModel.RISK);
+        checkOrder("AAPL", "TSLA", "AMZN", "MSFT");
+
+        model.sortBy(StockTableModel.MARKET_CAP);
+        checkOrder("MSFT", "AAPL", "AMZN", "TSLA");
+    }
+
+    @Test
+    void testRefreshResorts() {
+        int[] events = new int[1];
+        model.addTableModelListener(e -> events[0]++);
+        model.sortBy(StockTableModel.PRICE);
+        assertEquals(1, events[0]);
+
+        portfolio.getStock(3).setStockPriceCurrent(500);
+        portfolio.addStock(new Stock("NVDA", 250, 250, 500, 500, 2, 5, 3, 1e7));
+        portfolio.sellStock(portfolio.getStock(1));
+        model.refresh();
+        assertEquals(2, events[0]);
+        assertEquals(StockTableModel.PRICE, model.getSortColumn());
+        assertTrue(model.isDescending());
+
+        assertEquals(4, model.getRowCount());
+        assertEquals("AMZN", model.getValueAt(0, StockTableModel.SYMBOL));
+        assertEquals(500.0, model.getValueAt(0, StockTableModel.PRICE));
+        assertEquals("NVDA", model.getValueAt(1, StockTableModel.SYMBOL));
+        assertEquals("TSLA", model.getValueAt(2, StockTableModel.SYMBOL));
+        assertEquals("AAPL", model.getValueAt(3, StockTableModel.SYMBOL));
+    }
+
+    @Test
+    void testPriceUpdatesRepaintOnlyTheirRows() {
+        model.sortBy(StockTableModel.PRICE);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        Stock amazon = portfolio.getStock(3);
+        amazon.setStockPriceCurrent(999);
+        model.pricesChanged(Arrays.asList(new PriceUpdate("AMZN", 500, 120, 1000_000_000, 0),
+                new PriceUpdate("NVDA", 10, 10, 0, 0)));
+
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getFirstRow());
+        assertEquals(3, events.get(0).getLastRow());
+        checkOrder("MSFT", "TSLA", "AAPL", "AMZN");
+        assertEquals(500.0, model.getValueAt(3, StockTableModel.PRICE));
+        assertEquals(120.0, model.getValueAt(3, StockTableModel.PREVIOUS_PRICE));
+        assertEquals(1000.0, model.getValueAt(3, StockTableModel.WORTH));
+        assertEquals(760.0, model.getValueAt(3, StockTableModel.PROFIT_AND_LOSS));
+        assertEquals(150.0, model.getValueAt(2, StockTableModel.PRICE));
+
+        model.refresh();
+        assertEquals(999.0, model.getValueAt(0, StockTableModel.PRICE));
+        checkOrder("AMZN", "MSFT", "TSLA", "AAPL");
+    }
+
+    @Test
+    void testSetPortfolioKeepsSort() {
+        model.sortBy(StockTableModel.WORTH);
+        Portfolio other = new Portfolio(0, 0);
+        other.addStock(new Stock("LOW", 10, 10, 10, 10, 1, 5, 1, 1e7));
+        other.addStock(new Stock("HIGH", 10, 10, 90, 90, 9, 5, 1, 1e7));
+        model.setPortfolio(other);
+
+        assertEquals(StockTableModel.WORTH, model.getSortColumn());
+        checkOrder("HIGH", "LOW");
+    }
+
+    @Test
+    void testEmptyPortfolio() {
+        model.setPortfolio(new Portfolio());
+        model.sortBy(StockTableModel.PRICE);
+        assertEquals(0, model.getRowCount());
+    }
+}